@@ -0,0 +1,85 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Overlap tests between two overlapping 64x64 actors for each pair of collider shapes. "octagon-octagon"
+// is the separating axis test every NPC used before colliders; "rotated" pairs turn the second actor
+// 30 degrees, which makes a box a polygon and moves capsules off the axes.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ColliderBenchmark
+{
+    @Param({"octagon-octagon", "circle-circle", "circle-capsule", "circle-box", "circle-octagon",
+            "capsule-capsule", "capsule-box", "capsule-octagon", "box-box", "box-octagon",
+            "box-box-rotated", "capsule-capsule-rotated"})
+    public String pair;
+
+    private BaseActor mover;
+    private BaseActor near;
+
+    @Setup
+    public void setup()
+    {
+        Stage stage = HeadlessStages.createStage();
+
+        this.mover = HeadlessStages.createActor(100, 100, stage);
+        this.near = HeadlessStages.createActor(140, 110, stage);
+
+        String[] shapes = this.pair.split("-");
+        setShape(this.mover, shapes[0]);
+        setShape(this.near, shapes[1]);
+
+        if (shapes.length > 2)
+        {
+            this.near.setRotation(30);
+        }
+    }
+
+    private static void setShape(BaseActor actor, String shape)
+    {
+        if (shape.equals("circle"))
+        {
+            actor.setBoundaryCircle();
+        } else if (shape.equals("capsule"))
+        {
+            // a wide actor, so the capsule has a segment
+            actor.setSize(64, 32);
+            actor.setOrigin(32, 16);
+            actor.setBoundaryCapsule();
+        } else if (shape.equals("box"))
+        {
+            actor.setBoundaryBox();
+        } else
+        {
+            actor.setBoundaryPolygon(8);
+        }
+    }
+
+    @Benchmark
+    public boolean overlapsNear()
+    {
+        return this.mover.overlaps(this.near);
+    }
+
+    @Benchmark
+    public Vector2 preventOverlapNear()
+    {
+        // put the mover back each time so there is always something to push out of
+        this.mover.setPosition(100, 100);
+        return this.mover.preventOverlap(this.near);
+    }
+}
@@ -0,0 +1,91 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Pairwise collision tests between two BaseActors, for polygons with different numbers of sides.
+// "near" pairs overlap so the full polygon test runs; "far" pairs are rejected by the bounding rectangle.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark
+{
+    @Param({"4", "8", "16", "32", "64"})
+    public int sides;
+
+    private BaseActor mover;
+    private BaseActor near;
+    private BaseActor far;
+
+    @Setup
+    public void setup()
+    {
+        Stage stage = HeadlessStages.createStage();
+
+        this.mover = HeadlessStages.createActor(100, 100, stage);
+        this.near = HeadlessStages.createActor(140, 110, stage);
+        this.far = HeadlessStages.createActor(800, 600, stage);
+
+        this.mover.setBoundaryPolygon(this.sides);
+        this.near.setBoundaryPolygon(this.sides);
+        this.far.setBoundaryPolygon(this.sides);
+    }
+
+    @Benchmark
+    public boolean overlapsNear()
+    {
+        return this.mover.overlaps(this.near);
+    }
+
+    @Benchmark
+    public boolean overlapsFar()
+    {
+        return this.mover.overlaps(this.far);
+    }
+
+    @Benchmark
+    public Vector2 preventOverlapNear()
+    {
+        // put the mover back each time so there is always something to push out of
+        this.mover.setPosition(100, 100);
+        return this.mover.preventOverlap(this.near);
+    }
+
+    @Benchmark
+    public Polygon getBoundaryPolygonStatic()
+    {
+        return this.near.getBoundaryPolygon();
+    }
+
+    @Benchmark
+    public float[] getBoundaryPolygonMoving()
+    {
+        // moving invalidates the transformed vertices, so this includes recomputing them
+        this.mover.moveBy(0.5f, 0);
+        if (this.mover.getX() > 1000)
+        {
+            this.mover.setX(100);
+        }
+        return this.mover.getBoundaryPolygon().getTransformedVertices();
+    }
+
+    @Benchmark
+    public BaseActor setBoundaryPolygon()
+    {
+        this.far.setBoundaryPolygon(this.sides);
+        return this.far;
+    }
+}
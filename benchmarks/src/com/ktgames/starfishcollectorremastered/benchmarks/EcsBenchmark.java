@@ -0,0 +1,111 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import com.ktgames.starfishcollectorremastered.ecs.BodyArrays;
+import com.ktgames.starfishcollectorremastered.ecs.EcsWorld;
+import com.ktgames.starfishcollectorremastered.ecs.PhysicsSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// One frame of motion for 1k to 100k moving objects: as BaseActors acted by their stage, and as
+// EcsWorld entities moved by PhysicsSystem in one pass over packed arrays. The full engine update adds
+// collision, with one entity in a hundred a mover checked against everything around it.
+// (Entities are spawned without animations, so no textures are needed.)
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EcsBenchmark
+{
+    @Param({"1000", "10000", "100000"})
+    public int count;
+
+    private Stage actorStage;
+    private EcsWorld world;
+    private PhysicsSystem physics;
+
+    // texture-less actor that moves itself every frame, like the Turtle
+    public static class Drifter extends BaseActor
+    {
+        public Drifter(float x, float y, Stage stage)
+        {
+            super(x, y, stage);
+            this.setSize(64, 64);
+            this.setOrigin(32, 32);
+            this.setSpeed(50);
+            this.setMotionAngle(MathUtils.random(360f));
+        }
+
+        @Override
+        public void act(float dt)
+        {
+            super.act(dt);
+            this.applyPhysics(dt);
+        }
+    }
+
+    @Setup
+    public void setup()
+    {
+        MathUtils.random.setSeed(1);
+
+        // spread out so each object has about 128x128 pixels to itself, as in a level
+        float side = 128 * (float)Math.sqrt(this.count);
+
+        this.actorStage = HeadlessStages.createStage();
+        for (int i = 0; i < this.count; i++)
+        {
+            new Drifter(MathUtils.random(side), MathUtils.random(side), this.actorStage);
+        }
+
+        Stage ecsStage = HeadlessStages.createStage();
+        this.world = new EcsWorld(ecsStage, this.count);
+        BodyArrays b = this.world.getBodies();
+
+        for (int i = 0; i < this.count; i++)
+        {
+            Entity entity = this.world.spawn(null, MathUtils.random(side), MathUtils.random(side), 64, 64);
+            int n = this.world.indexOf(entity);
+
+            float angle = MathUtils.random(360f);
+            b.velocityX[n] = 50 * MathUtils.cosDeg(angle);
+            b.velocityY[n] = 50 * MathUtils.sinDeg(angle);
+            b.radius[n] = 32;
+            b.flags[n] = (i % 100 == 0) ? BodyArrays.MOVER : BodyArrays.SOLID;
+        }
+
+        this.physics = this.world.getEngine().getSystem(PhysicsSystem.class);
+    }
+
+    @Benchmark
+    public int actorAct()
+    {
+        this.actorStage.act(1/60f);
+        return this.actorStage.getActors().size;
+    }
+
+    @Benchmark
+    public int ecsPhysics()
+    {
+        this.physics.update(1/60f);
+        return this.world.getEntityCount();
+    }
+
+    @Benchmark
+    public int ecsUpdate()
+    {
+        this.world.act(1/60f);
+        return this.world.getEntityCount();
+    }
+}
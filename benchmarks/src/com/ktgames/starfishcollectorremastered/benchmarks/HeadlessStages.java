@@ -0,0 +1,92 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+// Helpers shared by the benchmarks: a Stage and BaseActors that work without an OpenGL context.
+// Actors get a size and collision polygon but no texture, which is all physics and collision need.
+
+public class HeadlessStages
+{
+    private static HeadlessApplication application;
+
+    private HeadlessStages() {}
+
+    /**
+     * Creates an empty stage backed by the headless backend (started on first use).
+     * @return new stage
+     */
+    public static synchronized Stage createStage()
+    {
+        if (application == null)
+        {
+            HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+            // no render loop is needed; benchmarks call into the engine directly
+            config.renderInterval = -1;
+            application = new HeadlessApplication(new ApplicationAdapter() {}, config);
+
+            // world the size of the Starfish Collector level
+            BaseActor.setWorldBounds(1200, 900);
+        }
+
+        return new Stage(new HeadlessViewport(), new NullBatch());
+    }
+
+    /**
+     * Creates a texture-less actor the size of a Rock, with the octagon collision polygon the Turtle uses.
+     * @param x: x-coordinate of actor
+     * @param y: y-coordinate of actor
+     * @param stage: stage the actor is added to
+     * @return new actor
+     */
+    public static BaseActor createActor(float x, float y, Stage stage)
+    {
+        BaseActor actor = new BaseActor(x, y, stage);
+        actor.setSize(64, 64);
+        actor.setOrigin(32, 32);
+        actor.setBoundaryPolygon(8);
+        return actor;
+    }
+
+    /**
+     * Creates a blank texture for benchmarks that draw into a NullBatch. The headless backend has no
+     * OpenGL, so the first call installs a GL20 whose calls do nothing (and return zero).
+     * @param width: width of texture (pixels)
+     * @param height: height of texture (pixels)
+     * @return new texture
+     */
+    public static synchronized Texture createTexture(int width, int height)
+    {
+        if (Gdx.gl == null)
+        {
+            Gdx.gl = Gdx.gl20 = (GL20)Proxy.newProxyInstance(GL20.class.getClassLoader(),
+                    new Class<?>[] { GL20.class }, new InvocationHandler()
+                    {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args)
+                        {
+                            Class<?> type = method.getReturnType();
+                            if (type == int.class) return 0;
+                            if (type == boolean.class) return false;
+                            return null;
+                        }
+                    });
+        }
+
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        Texture texture = new Texture(pixmap);
+        pixmap.dispose();
+        return texture;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+
+// 800x600 viewport (the game window size) that positions its camera without calling glViewport,
+// since benchmarks run without an OpenGL context.
+
+public class HeadlessViewport extends FitViewport
+{
+    public HeadlessViewport()
+    {
+        super(800, 600);
+    }
+
+    @Override
+    public void apply(boolean centerCamera)
+    {
+        Camera camera = this.getCamera();
+        camera.viewportWidth = this.getWorldWidth();
+        camera.viewportHeight = this.getWorldHeight();
+
+        if (centerCamera)
+        {
+            camera.position.set(this.getWorldWidth() / 2, this.getWorldHeight() / 2, 0);
+        }
+
+        camera.update();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// getList and count on stages holding from 10 to 100k actors, half of them of the queried type.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InstanceListBenchmark
+{
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int actorCount;
+
+    private Stage stage;
+
+    // a subclass to query for, so the results are a subset of the stage
+    public static class Prop extends BaseActor
+    {
+        public Prop(float x, float y, Stage stage)
+        {
+            super(x, y, stage);
+        }
+    }
+
+    @Setup
+    public void setup()
+    {
+        this.stage = HeadlessStages.createStage();
+
+        for (int i = 0; i < this.actorCount; i++)
+        {
+            float x = (i * 37) % 1200;
+            float y = (i * 53) % 900;
+
+            if (i % 2 == 0)
+            {
+                new Prop(x, y, this.stage);
+            } else
+            {
+                HeadlessStages.createActor(x, y, this.stage);
+            }
+        }
+    }
+
+    @Benchmark
+    public int getListByClass()
+    {
+        Array<Prop> props = BaseActor.getList(this.stage, Prop.class);
+
+        // touch every element the way a game loop would
+        int visible = 0;
+        for (int i = 0; i < props.size; i++)
+        {
+            if (props.get(i).isVisible())
+            {
+                visible++;
+            }
+        }
+        return visible;
+    }
+
+    @Benchmark
+    public int getListByName()
+    {
+        ArrayList<BaseActor> props = BaseActor.getList(this.stage, Prop.class.getName());
+        return props.size();
+    }
+
+    @Benchmark
+    public int countByClass()
+    {
+        return BaseActor.count(this.stage, Prop.class);
+    }
+
+    @Benchmark
+    public int countByName()
+    {
+        return BaseActor.count(this.stage, Prop.class.getName());
+    }
+}
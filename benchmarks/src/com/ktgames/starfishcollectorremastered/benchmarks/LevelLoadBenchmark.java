@@ -0,0 +1,128 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import com.ktgames.starfishcollectorremastered.LevelLoader;
+import com.ktgames.starfishcollectorremastered.tools.LevelCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Time to build a level of 100 to 100k actors: from the compiled binary file (what the game does),
+// from the text source (compiling it at load time instead of build time), and with plain constructor
+// calls (how LevelScreen used to do it).
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelLoadBenchmark
+{
+    @Param({"100", "1000", "10000", "100000"})
+    public int actorCount;
+
+    private Stage stage;
+    private LevelLoader loader;
+
+    private String source;
+    private byte[] compiled;
+
+    // texture-less stand-ins for Starfish, Rock and Turtle
+    public static class Prop extends BaseActor
+    {
+        public Prop(float x, float y, Stage stage)
+        {
+            super(x, y, stage);
+            this.setSize(64, 64);
+            this.setOrigin(32, 32);
+            this.setBoundaryPolygon(8);
+        }
+    }
+
+    public static class Player extends BaseActor
+    {
+        public Player(float x, float y, Stage stage)
+        {
+            super(x, y, stage);
+            this.setSize(100, 93);
+            this.setOrigin(50, 46.5f);
+            this.setBoundaryPolygon(8);
+        }
+    }
+
+    @Setup
+    public void setup()
+    {
+        this.stage = HeadlessStages.createStage();
+
+        this.loader = new LevelLoader();
+        this.loader.register("Prop", new LevelLoader.Factory()
+        {
+            @Override
+            public BaseActor create(float x, float y, Stage stage)
+            {
+                return new Prop(x, y, stage);
+            }
+        });
+        this.loader.register("Player", new LevelLoader.Factory()
+        {
+            @Override
+            public BaseActor create(float x, float y, Stage stage)
+            {
+                return new Player(x, y, stage);
+            }
+        });
+
+        StringBuilder text = new StringBuilder();
+        text.append("world 1200 900\n");
+        text.append("shape Prop 64 64 8\n");
+        text.append("shape Player 100 93 8\n");
+
+        for (int i = 0; i < this.actorCount - 1; i++)
+        {
+            text.append("actor Prop ").append((i * 37) % 1200).append(' ').append((i * 53) % 900).append('\n');
+        }
+        text.append("actor Player 20 20\n");
+
+        this.source = text.toString();
+        this.compiled = LevelCompiler.compile(this.source, "benchmark.txt");
+    }
+
+    // every load starts from an empty stage
+    @Setup(Level.Invocation)
+    public void clearStage()
+    {
+        this.stage.clear();
+    }
+
+    @Benchmark
+    public int loadBinary()
+    {
+        return this.loader.load(this.compiled, this.stage);
+    }
+
+    @Benchmark
+    public int loadText()
+    {
+        return this.loader.load(LevelCompiler.compile(this.source, "benchmark.txt"), this.stage);
+    }
+
+    @Benchmark
+    public int constructors()
+    {
+        for (int i = 0; i < this.actorCount - 1; i++)
+        {
+            new Prop((i * 37) % 1200, (i * 53) % 900, this.stage);
+        }
+        new Player(20, 20, this.stage);
+
+        return this.actorCount;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+
+// Batch that draws nothing. A Stage needs a Batch, but a SpriteBatch needs an OpenGL context,
+// which benchmarks running headlessly on a build machine do not have.
+
+public class NullBatch implements Batch
+{
+    private final Color color = new Color(1, 1, 1, 1);
+    private final Matrix4 projectionMatrix = new Matrix4();
+    private final Matrix4 transformMatrix = new Matrix4();
+    private boolean drawing;
+
+    public void begin() { this.drawing = true; }
+
+    public void end() { this.drawing = false; }
+
+    public void setColor(Color tint) { this.color.set(tint); }
+
+    public void setColor(float r, float g, float b, float a) { this.color.set(r, g, b, a); }
+
+    public Color getColor() { return this.color; }
+
+    public void setPackedColor(float packedColor) { Color.abgr8888ToColor(this.color, packedColor); }
+
+    public float getPackedColor() { return this.color.toFloatBits(); }
+
+    public void draw(Texture texture, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, int srcX, int srcY, int srcWidth, int srcHeight,
+                     boolean flipX, boolean flipY) {}
+
+    public void draw(Texture texture, float x, float y, float width, float height, int srcX, int srcY, int srcWidth,
+                     int srcHeight, boolean flipX, boolean flipY) {}
+
+    public void draw(Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {}
+
+    public void draw(Texture texture, float x, float y, float width, float height, float u, float v, float u2, float v2) {}
+
+    public void draw(Texture texture, float x, float y) {}
+
+    public void draw(Texture texture, float x, float y, float width, float height) {}
+
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {}
+
+    public void draw(TextureRegion region, float x, float y) {}
+
+    public void draw(TextureRegion region, float x, float y, float width, float height) {}
+
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation) {}
+
+    public void draw(TextureRegion region, float x, float y, float originX, float originY, float width, float height,
+                     float scaleX, float scaleY, float rotation, boolean clockwise) {}
+
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {}
+
+    public void flush() {}
+
+    public void disableBlending() {}
+
+    public void enableBlending() {}
+
+    public void setBlendFunction(int srcFunc, int dstFunc) {}
+
+    public void setBlendFunctionSeparate(int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {}
+
+    public int getBlendSrcFunc() { return 0; }
+
+    public int getBlendDstFunc() { return 0; }
+
+    public int getBlendSrcFuncAlpha() { return 0; }
+
+    public int getBlendDstFuncAlpha() { return 0; }
+
+    public Matrix4 getProjectionMatrix() { return this.projectionMatrix; }
+
+    public Matrix4 getTransformMatrix() { return this.transformMatrix; }
+
+    public void setProjectionMatrix(Matrix4 projection) { this.projectionMatrix.set(projection); }
+
+    public void setTransformMatrix(Matrix4 transform) { this.transformMatrix.set(transform); }
+
+    public void setShader(ShaderProgram shader) {}
+
+    public ShaderProgram getShader() { return null; }
+
+    public boolean isBlendingEnabled() { return true; }
+
+    public boolean isDrawing() { return this.drawing; }
+
+    public void dispose() {}
+}
@@ -0,0 +1,61 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of one frame of BaseActor motion, the way Turtle.act drives it:
+// accelerate in up to two directions, then applyPhysics.
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PhysicsBenchmark
+{
+    private BaseActor actor;
+    private float angle;
+
+    @Setup
+    public void setup()
+    {
+        Stage stage = HeadlessStages.createStage();
+
+        // same settings as the Turtle
+        this.actor = HeadlessStages.createActor(600, 450, stage);
+        this.actor.setAcceleration(400);
+        this.actor.setMaxSpeed(100);
+        this.actor.setDeceleration(400);
+        this.angle = 0;
+    }
+
+    @Benchmark
+    public float accelerateAndApplyPhysics()
+    {
+        // steer slowly in a circle so speed and direction keep changing
+        this.angle = (this.angle + 1) % 360;
+
+        this.actor.accelerateAtAngle(this.angle);
+        this.actor.accelerateAtAngle(90);
+        this.actor.applyPhysics(1/60f);
+
+        // keep the actor inside the world so the numbers do not drift over a long run
+        this.actor.boundToWorld();
+        return this.actor.getX();
+    }
+
+    @Benchmark
+    public float applyPhysicsDecelerating()
+    {
+        this.actor.setSpeed(100);
+        this.actor.applyPhysics(1/60f);
+        return this.actor.getSpeed();
+    }
+}
@@ -0,0 +1,101 @@
+package com.ktgames.starfishcollectorremastered.benchmarks;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.IntArray;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import com.ktgames.starfishcollectorremastered.Swarm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// One frame of a 10k to 100k member Swarm: moving every member, writing the visible ones into the
+// vertex array, and the Turtle's collision test against the members around it (which rebuilds the grid
+// after the move). Compare swarmAct with EcsBenchmark.actorAct for the same number of BaseActors.
+// (Drawing goes to a NullBatch, so only writing the vertices is measured.)
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SwarmBenchmark
+{
+    @Param({"10000", "50000", "100000"})
+    public int count;
+
+    private Swarm swarm;
+    private BaseActor turtle;
+    private Batch batch;
+    private IntArray candidates;
+
+    @Setup
+    public void setup()
+    {
+        MathUtils.random.setSeed(1);
+
+        Stage stage = HeadlessStages.createStage();
+        this.batch = stage.getBatch();
+
+        Texture texture = HeadlessStages.createTexture(64, 64);
+
+        this.swarm = new Swarm(stage, this.count);
+        this.swarm.setAnimation(new Animation<TextureRegion>(1, new TextureRegion(texture)));
+
+        // spread out so each member has about 128x128 pixels to itself, as in EcsBenchmark
+        float side = 128 * (float)Math.sqrt(this.count);
+        for (int i = 0; i < this.count; i++)
+        {
+            float angle = MathUtils.random(360f);
+            this.swarm.addMember(MathUtils.random(side), MathUtils.random(side),
+                    50 * MathUtils.cosDeg(angle), 50 * MathUtils.sinDeg(angle), MathUtils.random(-90f, 90f));
+        }
+
+        // the camera shows the middle of the swarm
+        stage.getCamera().position.set(side / 2, side / 2, 0);
+        stage.getCamera().update();
+
+        this.turtle = HeadlessStages.createActor(side / 2, side / 2, stage);
+        this.candidates = new IntArray();
+    }
+
+    @Benchmark
+    public int swarmAct()
+    {
+        this.swarm.act(1/60f);
+        return this.swarm.getMemberCount();
+    }
+
+    @Benchmark
+    public int swarmDraw()
+    {
+        this.swarm.draw(this.batch, 1);
+        return this.swarm.getDrawnCount();
+    }
+
+    @Benchmark
+    public int swarmActAndCollide()
+    {
+        this.swarm.act(1/60f);
+
+        int touching = 0;
+        this.swarm.getOverlapCandidates(this.turtle, this.candidates);
+        for (int k = 0; k < this.candidates.size; k++)
+        {
+            if (this.swarm.overlaps(this.turtle, this.candidates.get(k)))
+            {
+                touching++;
+            }
+        }
+        return touching;
+    }
+}
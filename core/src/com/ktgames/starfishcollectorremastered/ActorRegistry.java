@@ -0,0 +1,245 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+// Per-stage index of live BaseActor instances, bucketed by class.
+// An actor is listed in the bucket of its own class and of every superclass up to BaseActor,
+// so asking for all Starfish (or all BaseActors) is a map lookup rather than a walk over the
+// whole stage. Buckets are updated as actors join and leave the stage, which makes counts O(1)
+// and iteration allocation-free. Only Class objects are used as keys, no Class.forName,
+// so the registry also works in the GWT html build.
+
+public class ActorRegistry
+{
+    // one registry per stage, created the first time a BaseActor joins the stage
+    private static ObjectMap<Stage, ActorRegistry> stageRegistries = new ObjectMap<Stage, ActorRegistry>();
+
+    // class -> live instances of that class (or a subclass) on the stage
+    private ObjectMap<Class<?>, Array<BaseActor>> buckets;
+
+    private ActorRegistry()
+    {
+        this.buckets = new ObjectMap<Class<?>, Array<BaseActor>>();
+    }
+
+    //----------------------------
+    // Stage attachment
+    //----------------------------
+
+    /**
+     * Returns the registry of a stage, creating it (and indexing the BaseActors already
+     * on the stage) if needed.
+     * @param stage: stage to look up
+     * @return registry of the stage
+     */
+    public static ActorRegistry get(Stage stage)
+    {
+        ActorRegistry registry = stageRegistries.get(stage);
+
+        if (registry == null)
+        {
+            registry = new ActorRegistry();
+            stageRegistries.put(stage, registry);
+            registry.addAll(stage.getRoot());
+        }
+
+        return registry;
+    }
+
+    /**
+     * Forgets the registry of a stage; called when the stage is disposed.
+     * @param stage: stage that is no longer used
+     */
+    public static void detach(Stage stage)
+    {
+        ActorRegistry registry = stageRegistries.remove(stage);
+
+        if (registry != null)
+        {
+            for (Array<BaseActor> bucket : registry.buckets.values())
+            {
+                for (int i = 0; i < bucket.size; i++)
+                {
+                    bucket.get(i).actorRegistry = null;
+                }
+            }
+            registry.buckets.clear();
+        }
+    }
+
+    //----------------------------
+    // Index maintenance
+    //----------------------------
+
+    /**
+     * Adds an actor to the bucket of its class and every superclass up to BaseActor.
+     * Called by BaseActor when it joins a stage.
+     * @param actor: actor to add
+     */
+    public void add(BaseActor actor)
+    {
+        if (actor.actorRegistry == this)
+        {
+            return;
+        }
+
+        if (actor.actorRegistry != null)
+        {
+            actor.actorRegistry.remove(actor);
+        }
+
+        actor.actorRegistry = this;
+
+        Class<?> type = actor.getClass();
+        while (type != null)
+        {
+            Array<BaseActor> bucket = this.buckets.get(type);
+            if (bucket == null)
+            {
+                // buckets are kept even when empty so repeated spawning does not allocate
+                bucket = new Array<BaseActor>();
+                this.buckets.put(type, bucket);
+            }
+            bucket.add(actor);
+
+            if (type == BaseActor.class)
+            {
+                break;
+            }
+            type = type.getSuperclass();
+        }
+    }
+
+    /**
+     * Removes an actor from every bucket it is listed in.
+     * Called by BaseActor when it leaves its stage.
+     * @param actor: actor to remove
+     */
+    public void remove(BaseActor actor)
+    {
+        if (actor.actorRegistry != this)
+        {
+            return;
+        }
+
+        actor.actorRegistry = null;
+
+        Class<?> type = actor.getClass();
+        while (type != null)
+        {
+            Array<BaseActor> bucket = this.buckets.get(type);
+            if (bucket != null)
+            {
+                // removal keeps insertion order so iteration order matches the order actors were added
+                bucket.removeValue(actor, true);
+            }
+
+            if (type == BaseActor.class)
+            {
+                break;
+            }
+            type = type.getSuperclass();
+        }
+    }
+
+    private void addAll(Group group)
+    {
+        for (Actor a : group.getChildren())
+        {
+            if (a instanceof BaseActor)
+            {
+                this.add((BaseActor)a);
+            }
+            if (a instanceof Group)
+            {
+                this.addAll((Group)a);
+            }
+        }
+    }
+
+    //----------------------------
+    // Queries
+    //----------------------------
+
+    /**
+     * Returns the live list of instances of a class (including subclasses) on the stage.
+     * The array is owned by the registry: do not modify it, and copy it first if actors
+     * of this type may be added to or removed from the stage while iterating.
+     * @param type: class that extends BaseActor
+     * @return live array of instances; empty if none exist
+     */
+    public <T extends BaseActor> Array<T> getInstances(Class<T> type)
+    {
+        Array<BaseActor> bucket = this.buckets.get(type);
+
+        if (bucket == null)
+        {
+            bucket = new Array<BaseActor>();
+            this.buckets.put(type, bucket);
+        }
+
+        // a class's bucket only ever holds instances of that class or its subclasses (see add)
+        @SuppressWarnings("unchecked")
+        Array<T> instances = (Array<T>)(Array<?>)bucket;
+        return instances;
+    }
+
+    /**
+     * @param type: class that extends BaseActor
+     * @return number of instances of the class (including subclasses) on the stage
+     */
+    public int count(Class<? extends BaseActor> type)
+    {
+        Array<BaseActor> bucket = this.buckets.get(type);
+        return bucket == null ? 0 : bucket.size;
+    }
+
+    /**
+     * Checks an actor's class against a BaseActor class by walking its superclasses, the same
+     * way the buckets are filled; unlike Class.isInstance this needs no reflection in the html build.
+     * @param type: class that extends BaseActor
+     * @param actor: actor to check
+     * @return true if the actor is an instance of the class or of a subclass
+     */
+    static boolean isInstance(Class<? extends BaseActor> type, BaseActor actor)
+    {
+        Class<?> actorType = actor.getClass();
+        while (actorType != null)
+        {
+            if (actorType == type)
+            {
+                return true;
+            }
+            if (actorType == BaseActor.class)
+            {
+                return false;
+            }
+            actorType = actorType.getSuperclass();
+        }
+
+        return false;
+    }
+
+    /**
+     * Looks up instances by class name, for callers that only know the name.
+     * @param className: name of a class that extends the BaseActor class INCLUDING THE PACKAGE
+     * @return live array of instances; empty if none exist
+     */
+    public Array<BaseActor> getInstances(String className)
+    {
+        for (ObjectMap.Entry<Class<?>, Array<BaseActor>> entry : this.buckets)
+        {
+            if (entry.key.getName().equals(className))
+            {
+                return entry.value;
+            }
+        }
+
+        // no instance of the class has ever been on this stage
+        return new Array<BaseActor>();
+    }
+}
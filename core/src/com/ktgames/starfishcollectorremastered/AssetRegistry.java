@@ -0,0 +1,934 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+// Process-wide registry of shared Textures and Animations used by BaseActor.
+// Instead of every actor decoding its own copy of an image, actors ask the registry for
+// an animation by file name (and sheet layout); the registry hands back one shared instance
+// and counts how many actors are using it. When the last user releases it, the GPU textures
+// are disposed. Animation and TextureRegion objects are kept, so a later retain simply reloads
+// the textures into the same regions.
+// Textures a screen declared up front are loaded in the background by the game's AssetManager
+// (see LoadingScreen); the registry takes those over instead of loading the files again.
+// Images packed into a texture atlas (see addAtlas and the tools module's AtlasPacker) are taken from
+// the atlas instead: actors still ask for the image file, and get a region of the shared atlas page,
+// so sprites drawn one after another no longer make the SpriteBatch switch textures.
+// How other images are stored on the GPU (ETC1-compressed, RGB565 or RGBA8888, with or without mipmaps)
+// follows the texture policy written at build time (see loadTexturePolicy and the tools module's
+// TextureCompressor), and the registry keeps count of the memory its textures use.
+
+public class AssetRegistry
+{
+    // one entry per image file, shared by every animation that uses it
+    private static ObjectMap<String, TextureEntry> textures = new ObjectMap<String, TextureEntry>();
+
+    // one entry per animation description (files or sheet layout, frame duration, play mode)
+    private static ObjectMap<String, AnimationEntry> animations = new ObjectMap<String, AnimationEntry>();
+
+    // reverse lookup so actors can release an animation without remembering its key
+    private static ObjectMap<Animation<TextureRegion>, AnimationEntry> animationEntries =
+            new ObjectMap<Animation<TextureRegion>, AnimationEntry>();
+
+    // manager holding textures loaded ahead of time, and the files whose manager texture the registry took over
+    private static AssetManager assetManager;
+    private static ObjectSet<String> adoptedFiles = new ObjectSet<String>();
+
+    // atlas holding each packed image, by region name (the image's path below the assets folder, without extension)
+    private static ObjectMap<String, AtlasEntry> atlasRegions = new ObjectMap<String, AtlasEntry>();
+    private static Array<AtlasEntry> atlases = new Array<AtlasEntry>();
+
+    // how images are stored on the GPU, by path below the assets folder, and the folder of their compressed files
+    private static ObjectMap<String, TexturePolicy> texturePolicies = new ObjectMap<String, TexturePolicy>();
+    private static String compressedFolder = "";
+
+    // texture memory (bytes) above which loading a texture logs an error; 0 for no limit
+    private static long textureBudget;
+    private static boolean overBudget;
+
+    // scratch set for getTextureMemory(Stage...)
+    private static final ObjectSet<Texture> usedTextures = new ObjectSet<Texture>();
+
+    // true while the textures in use are released (see releaseTextures)
+    private static boolean texturesReleased;
+
+    // the registry is static only, like BaseActor's world bounds
+    private AssetRegistry() {}
+
+    //----------------------------
+    // Animation methods
+    //----------------------------
+
+    /**
+     * Returns a shared animation built from images stored in separate files; the caller becomes
+     * a user of the animation and must call <code>release</code> when it no longer needs it.
+     * @param fileNames: names of files containing animation images
+     * @param frameDuration: how long each frame should be displayed
+     * @param loop: should the animation loop
+     * @return shared animation
+     * @see #release
+     */
+    public static Animation<TextureRegion> obtainAnimationFromFiles(String[] fileNames, float frameDuration, boolean loop)
+    {
+        StringBuilder key = new StringBuilder("files");
+        for (String fileName : fileNames)
+        {
+            key.append('|').append(fileName);
+        }
+        key.append('|').append(frameDuration).append('|').append(loop);
+
+        AnimationEntry entry = animations.get(key.toString());
+
+        if (entry == null)
+        {
+            TextureEntry[] frameTextures = new TextureEntry[fileNames.length];
+            Array<TextureRegion> textureArray = new Array<TextureRegion>();
+
+            for (int n = 0; n < fileNames.length; n++)
+            {
+                frameTextures[n] = obtainTexture(fileNames[n]);
+                textureArray.add(frameTextures[n].createRegion());
+            }
+
+            entry = new AnimationEntry(key.toString(), createAnimation(frameDuration, textureArray, loop), textureArray, frameTextures);
+            register(entry);
+            return entry.animation;
+        }
+
+        retain(entry.animation);
+        return entry.animation;
+    }
+
+    /**
+     * Returns a shared animation built from a spritesheet; the caller becomes a user of the animation
+     * and must call <code>release</code> when it no longer needs it.
+     * @param fileName: name of file containing the spritesheet
+     * @param rows: number of rows of images in spritesheet
+     * @param cols: number of columns of images in spritesheet
+     * @param frameDuration: how long each frame should be displayed
+     * @param loop: should the animation loop
+     * @return shared animation
+     * @see #release
+     */
+    public static Animation<TextureRegion> obtainAnimationFromSheet(String fileName, int rows, int cols, float frameDuration, boolean loop)
+    {
+        String key = "sheet|" + fileName + "|" + rows + "x" + cols + "|" + frameDuration + "|" + loop;
+
+        AnimationEntry entry = animations.get(key);
+
+        if (entry == null)
+        {
+            TextureEntry sheet = obtainTexture(fileName);
+            // the whole file, or its region of an atlas page
+            TextureRegion sheetRegion = sheet.createRegion();
+
+            int frameWidth = sheetRegion.getRegionWidth()/cols;
+            int frameHeight = sheetRegion.getRegionHeight()/rows;
+
+            TextureRegion[][] temp = sheetRegion.split(frameWidth, frameHeight);
+
+            Array<TextureRegion> textureArray = new Array<TextureRegion>();
+            TextureEntry[] frameTextures = new TextureEntry[rows * cols];
+
+            for (int r = 0; r < rows; r++)
+            {
+                for (int c = 0; c < cols; c++)
+                {
+                    textureArray.add(temp[r][c]);
+                    frameTextures[r * cols + c] = sheet;
+                }
+            }
+
+            // every frame shares the sheet; count it once per frame so release stays symmetrical
+            sheet.refs += rows * cols - 1;
+
+            entry = new AnimationEntry(key, createAnimation(frameDuration, textureArray, loop), textureArray, frameTextures);
+            register(entry);
+            return entry.animation;
+        }
+
+        retain(entry.animation);
+        return entry.animation;
+    }
+
+    /**
+     * Registers one more user of a shared animation. If every previous user had released it,
+     * its textures are reloaded and bound back into the existing key frames.
+     * @param anim: animation previously returned by this registry
+     */
+    public static void retain(Animation<TextureRegion> anim)
+    {
+        AnimationEntry entry = animationEntries.get(anim);
+
+        if (entry == null)
+        {
+            throw new GdxRuntimeException("Animation was not created by AssetRegistry");
+        }
+
+        entry.refs++;
+
+        if (entry.refs == 1)
+        {
+            // last user had left, so the textures were disposed; load them again
+            // (an atlas page is reloaded with the same layout, so regions only need the new texture)
+            for (int n = 0; n < entry.frames.size; n++)
+            {
+                TextureEntry textureEntry = entry.frameTextures[n];
+                retainTexture(textureEntry);
+                entry.frames.get(n).setTexture(textureEntry.texture);
+            }
+        }
+    }
+
+    /**
+     * Removes one user of a shared animation. When no users remain its textures are disposed
+     * (unless another animation still uses them).
+     * @param anim: animation previously returned by this registry
+     */
+    public static void release(Animation<TextureRegion> anim)
+    {
+        AnimationEntry entry = animationEntries.get(anim);
+
+        if (entry == null || entry.refs == 0)
+        {
+            return;
+        }
+
+        entry.refs--;
+
+        if (entry.refs == 0)
+        {
+            for (TextureEntry textureEntry : entry.frameTextures)
+            {
+                releaseTexture(textureEntry);
+            }
+        }
+    }
+
+    /**
+     * Set the manager whose loaded textures the registry uses instead of loading the files itself.
+     * Called by BaseGame.
+     * @param manager: asset manager, or null
+     */
+    public static void setAssetManager(AssetManager manager)
+    {
+        assetManager = manager;
+    }
+
+    /**
+     * @param fileName: name of an image or atlas file
+     * @return true if the registry currently uses the texture or atlas the asset manager loaded for this file;
+     *         the registry then holds the manager's reference to it and unloads it when no longer used
+     */
+    public static boolean isAdopted(String fileName)
+    {
+        return adoptedFiles.contains(fileName);
+    }
+
+    /**
+     * Makes images packed into a texture atlas load from it. Call before actors load those images;
+     * the atlas pages are loaded when the first of its images is used and disposed with the last.
+     * A missing atlas file is skipped, and the images load from their own files.
+     * @param fileName: name of the .atlas file
+     */
+    public static void addAtlas(String fileName)
+    {
+        FileHandle file = Gdx.files.internal(fileName);
+
+        if (!file.exists())
+        {
+            Gdx.app.log("AssetRegistry", "Texture atlas " + fileName + " not found; images load from their own files");
+            return;
+        }
+
+        AtlasEntry entry = new AtlasEntry(fileName, new TextureAtlasData(file, file.parent(), false));
+        atlases.add(entry);
+
+        for (TextureAtlasData.Region region : entry.data.getRegions())
+        {
+            // an image packed into more than one atlas comes from the first one added
+            if (!atlasRegions.containsKey(region.name))
+            {
+                atlasRegions.put(region.name, entry);
+            }
+        }
+    }
+
+    /**
+     * Reads the texture policy written by the build (see TextureCompressor): which images are compressed
+     * to ETC1, and which have mipmaps. Call before actors load those images. ETC1 files are used where the
+     * GPU supports them; elsewhere those images load from their own files as RGB565 (the html backend still
+     * stores them as RGBA8888). A missing policy is skipped, and every image loads as RGBA8888 without mipmaps.
+     * @param fileName: name of the policy file, in the folder the compressed images were written to
+     */
+    public static void loadTexturePolicy(String fileName)
+    {
+        FileHandle file = Gdx.files.internal(fileName);
+
+        if (!file.exists())
+        {
+            Gdx.app.log("AssetRegistry", "Texture policy " + fileName + " not found; images load as RGBA8888");
+            return;
+        }
+
+        String folder = file.parent().path();
+        compressedFolder = (folder.length() == 0) ? "" : folder + "/";
+
+        for (String line : file.readString("UTF-8").split("\n"))
+        {
+            String[] words = line.trim().split(" ");
+            if (words.length == 3)
+            {
+                texturePolicies.put(words[0], new TexturePolicy(words[1].equals("etc1"), words[2].equals("mipmaps")));
+            }
+        }
+    }
+
+    /**
+     * Describes how the registry will load an image, so a screen can declare it (see
+     * <code>BaseScreen.declareAssets</code>) and the registry takes over what the asset manager loaded:
+     * the atlas the image is packed into, or the file (original or compressed) with the format and mipmaps
+     * the texture policy gives it.
+     * @param fileName: name of an image file
+     * @return asset to declare for the image
+     */
+    public static AssetDescriptor<?> getAssetDescriptor(String fileName)
+    {
+        TextureEntry entry = textures.get(fileName);
+
+        if (entry == null)
+        {
+            entry = createTextureEntry(fileName);
+            textures.put(fileName, entry);
+        }
+
+        if (entry.atlas != null)
+        {
+            return new AssetDescriptor<TextureAtlas>(entry.atlas.fileName, TextureAtlas.class);
+        }
+
+        TextureLoader.TextureParameter parameter = new TextureLoader.TextureParameter();
+        parameter.format = entry.format;
+        parameter.genMipMaps = entry.useMipMaps;
+        return new AssetDescriptor<Texture>(entry.loadFileName, Texture.class, parameter);
+    }
+
+    /**
+     * Set the texture memory the game should stay within, e.g. on mobile devices; loading a texture
+     * that takes the registry's textures over it logs an error.
+     * @param bytes: most texture memory, in bytes; 0 for no limit (the default)
+     */
+    public static void setTextureBudget(long bytes)
+    {
+        textureBudget = bytes;
+        overBudget = false;
+    }
+
+    public static long getTextureBudget()
+    {
+        return textureBudget;
+    }
+
+    /**
+     * Disposes every texture still loaded and forgets all shared animations.
+     * Typically called when the game itself is disposed.
+     */
+    public static void disposeAll()
+    {
+        for (TextureEntry entry : textures.values())
+        {
+            if (entry.texture != null)
+            {
+                disposeTexture(entry);
+            }
+        }
+
+        // atlases stay added, so images keep loading from them
+        for (AtlasEntry atlas : atlases)
+        {
+            if (atlas.atlas != null)
+            {
+                disposeAtlas(atlas);
+            }
+            atlas.refs = 0;
+        }
+
+        textures.clear();
+        animations.clear();
+        animationEntries.clear();
+        texturesReleased = false;
+    }
+
+    /**
+     * Frees the GPU memory of every loaded texture, but keeps the animations and their users, e.g. while
+     * the game is in the background (see BaseGame.setReleaseTexturesOnPause). Nothing may be drawn until
+     * restoreTextures is called; textures an actor loads meanwhile are loaded again straight away.
+     */
+    public static void releaseTextures()
+    {
+        for (TextureEntry entry : textures.values())
+        {
+            if (entry.texture != null)
+            {
+                disposeTexture(entry);
+            }
+        }
+
+        for (AtlasEntry atlas : atlases)
+        {
+            if (atlas.atlas != null)
+            {
+                disposeAtlas(atlas);
+            }
+        }
+
+        texturesReleased = true;
+    }
+
+    /**
+     * Loads the textures still in use after releaseTextures again and binds them back into the key frames
+     * of their animations. Textures nobody uses any more are not loaded.
+     */
+    public static void restoreTextures()
+    {
+        if (!texturesReleased)
+        {
+            return;
+        }
+
+        for (TextureEntry entry : textures.values())
+        {
+            if (entry.refs > 0 && entry.texture == null)
+            {
+                loadTexture(entry);
+            }
+        }
+
+        for (AnimationEntry entry : animationEntries.values())
+        {
+            if (entry.refs > 0)
+            {
+                for (int n = 0; n < entry.frames.size; n++)
+                {
+                    entry.frames.get(n).setTexture(entry.frameTextures[n].texture);
+                }
+            }
+        }
+
+        texturesReleased = false;
+        checkBudget();
+    }
+
+    /**
+     * @return true between releaseTextures and restoreTextures
+     */
+    public static boolean isReleased()
+    {
+        return texturesReleased;
+    }
+
+    //----------------------------
+    // Statistics
+    //----------------------------
+
+    /**
+     * @return number of textures currently loaded on the GPU by the registry
+     */
+    public static int getLoadedTextureCount()
+    {
+        int count = 0;
+        for (TextureEntry entry : textures.values())
+        {
+            if (entry.texture != null && entry.atlas == null)
+            {
+                count++;
+            }
+        }
+        for (AtlasEntry atlas : atlases)
+        {
+            if (atlas.atlas != null)
+            {
+                count += atlas.atlas.getTextures().size;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return GPU memory (bytes) used by every texture the registry has loaded, atlas pages included
+     */
+    public static long getTextureMemory()
+    {
+        long bytes = 0;
+        for (TextureEntry entry : textures.values())
+        {
+            if (entry.texture != null && entry.atlas == null)
+            {
+                bytes += getTextureMemory(entry.texture);
+            }
+        }
+        for (AtlasEntry atlas : atlases)
+        {
+            if (atlas.atlas != null)
+            {
+                for (Texture page : atlas.atlas.getTextures())
+                {
+                    bytes += getTextureMemory(page);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Adds up the GPU memory of the textures the BaseActors on some stages draw from, each texture
+     * counted once, e.g. the main and ui stage of a screen. Textures other actors use (fonts, the
+     * profiler's own) are not included.
+     * @param stages: stages to look at
+     * @return memory in bytes
+     */
+    public static long getTextureMemory(Stage... stages)
+    {
+        // reused, as the frame profiler asks every frame
+        ObjectSet<Texture> used = usedTextures;
+        used.clear();
+        for (Stage stage : stages)
+        {
+            collectTextures(stage.getRoot(), used);
+        }
+
+        long bytes = 0;
+        for (Texture texture : used)
+        {
+            bytes += getTextureMemory(texture);
+        }
+        used.clear();
+        return bytes;
+    }
+
+    /**
+     * @param texture: a loaded texture
+     * @return GPU memory (bytes) the texture uses: its pixels in the format they were uploaded in,
+     *         plus a third when it has mipmaps
+     */
+    public static long getTextureMemory(Texture texture)
+    {
+        TextureData data = texture.getTextureData();
+        long pixels = (long)texture.getWidth() * texture.getHeight();
+        long bytes;
+
+        if (data.getType() == TextureData.TextureDataType.Custom)
+        {
+            // compressed data; the registry only loads ETC1 this way (4 bits per pixel)
+            bytes = pixels / 2;
+        } else if (Gdx.app.getType() == Application.ApplicationType.WebGL)
+        {
+            // the html backend uploads every image as RGBA, whatever format was asked for (e.g. RGB565)
+            bytes = pixels * 4;
+        } else
+        {
+            bytes = pixels * bytesPerPixel(data.getFormat());
+        }
+
+        return data.useMipMaps() ? bytes * 4 / 3 : bytes;
+    }
+
+    /**
+     * @param anim: animation previously returned by this registry
+     * @return number of users currently holding the animation, 0 if unknown
+     */
+    public static int getReferenceCount(Animation<TextureRegion> anim)
+    {
+        AnimationEntry entry = animationEntries.get(anim);
+        return entry == null ? 0 : entry.refs;
+    }
+
+    //----------------------------
+    // Internal helpers
+    //----------------------------
+
+    private static Animation<TextureRegion> createAnimation(float frameDuration, Array<TextureRegion> textureArray, boolean loop)
+    {
+        Animation<TextureRegion> anim = new Animation<TextureRegion>(frameDuration, textureArray);
+
+        if (loop)
+        {
+            anim.setPlayMode(Animation.PlayMode.LOOP);
+        } else
+        {
+            anim.setPlayMode(Animation.PlayMode.NORMAL);
+        }
+
+        return anim;
+    }
+
+    private static void register(AnimationEntry entry)
+    {
+        // the textures were acquired while building the entry, so it starts with one user
+        entry.refs = 1;
+        animations.put(entry.key, entry);
+        animationEntries.put(entry.animation, entry);
+    }
+
+    private static TextureEntry obtainTexture(String fileName)
+    {
+        TextureEntry entry = textures.get(fileName);
+
+        if (entry == null)
+        {
+            entry = createTextureEntry(fileName);
+            textures.put(fileName, entry);
+        }
+
+        retainTexture(entry);
+        return entry;
+    }
+
+    // an entry for an image, taken from an atlas or loaded the way the texture policy says
+    private static TextureEntry createTextureEntry(String fileName)
+    {
+        TextureEntry entry = new TextureEntry(fileName);
+        entry.regionName = regionName(fileName);
+        entry.atlas = atlasRegions.get(entry.regionName);
+
+        TexturePolicy policy = texturePolicies.get(assetPath(fileName));
+        if (entry.atlas == null && policy != null)
+        {
+            entry.useMipMaps = policy.mipMaps;
+
+            if (policy.etc1)
+            {
+                if (Gdx.graphics.supportsExtension("GL_OES_compressed_ETC1_RGB8_texture"))
+                {
+                    entry.loadFileName = compressedFolder + entry.regionName + ".etc1";
+                } else
+                {
+                    // opaque, so 16 bits per pixel lose little
+                    entry.format = Pixmap.Format.RGB565;
+                }
+            }
+        }
+
+        return entry;
+    }
+
+    private static void retainTexture(TextureEntry entry)
+    {
+        entry.refs++;
+
+        if (entry.refs == 1 && entry.atlas != null)
+        {
+            entry.atlas.refs++;
+        }
+
+        // also reloads a texture in use whose memory was released by releaseTextures
+        if (entry.texture == null)
+        {
+            loadTexture(entry);
+        }
+
+        checkBudget();
+    }
+
+    private static void loadTexture(TextureEntry entry)
+    {
+        if (entry.atlas != null)
+        {
+            // packed images use the atlas page; its filter comes from the atlas file
+            if (entry.atlas.atlas == null)
+            {
+                loadAtlas(entry.atlas);
+            }
+            entry.texture = entry.atlas.atlas.findRegion(entry.regionName).getTexture();
+        } else
+        {
+            // take over a texture the asset manager already loaded, if it matches
+            if (assetManager != null && !adoptedFiles.contains(entry.loadFileName)
+                    && assetManager.isLoaded(entry.loadFileName, Texture.class))
+            {
+                Texture loaded = assetManager.get(entry.loadFileName, Texture.class);
+                TextureData data = loaded.getTextureData();
+
+                // compressed data has no pixmap format, and comes as the file is
+                if (data.getType() == TextureData.TextureDataType.Custom
+                        || (data.useMipMaps() == entry.useMipMaps && (entry.format == null || data.getFormat() == entry.format)))
+                {
+                    entry.texture = loaded;
+                    entry.adopted = true;
+                    adoptedFiles.add(entry.loadFileName);
+                }
+            }
+
+            if (entry.texture == null)
+            {
+                entry.texture = new Texture(Gdx.files.internal(entry.loadFileName), entry.format, entry.useMipMaps);
+            }
+
+            // 6.6.2020 - used to smooth Textures for magnification and minification
+            // (mipmaps are only sampled with a mipmap minification filter)
+            entry.texture.setFilter(entry.useMipMaps ? TextureFilter.MipMapLinearNearest : TextureFilter.Linear,
+                    TextureFilter.Linear);
+        }
+    }
+
+    private static void checkBudget()
+    {
+        if (textureBudget <= 0)
+        {
+            return;
+        }
+
+        long bytes = getTextureMemory();
+        if (bytes > textureBudget && !overBudget)
+        {
+            Gdx.app.error("AssetRegistry", "Textures use " + (bytes / 1024) + " KB, over the budget of "
+                    + (textureBudget / 1024) + " KB");
+        }
+        overBudget = bytes > textureBudget;
+    }
+
+    private static void releaseTexture(TextureEntry entry)
+    {
+        entry.refs--;
+
+        if (entry.refs == 0)
+        {
+            if (entry.texture != null)
+            {
+                disposeTexture(entry);
+            }
+            if (entry.atlas != null)
+            {
+                releaseAtlas(entry.atlas);
+            }
+        }
+    }
+
+    // frees the texture of an entry, but not its users; atlas pages are freed with their atlas
+    private static void disposeTexture(TextureEntry entry)
+    {
+        if (entry.adopted)
+        {
+            // the manager may already have been cleared when the game shuts down
+            if (assetManager != null && assetManager.isLoaded(entry.loadFileName, Texture.class))
+            {
+                assetManager.unload(entry.loadFileName);
+            }
+            adoptedFiles.remove(entry.loadFileName);
+            entry.adopted = false;
+        } else if (entry.atlas == null)
+        {
+            entry.texture.dispose();
+        }
+
+        entry.texture = null;
+    }
+
+    private static void loadAtlas(AtlasEntry entry)
+    {
+        // take over an atlas the asset manager already loaded
+        if (assetManager != null && !adoptedFiles.contains(entry.fileName)
+                && assetManager.isLoaded(entry.fileName, TextureAtlas.class))
+        {
+            entry.atlas = assetManager.get(entry.fileName, TextureAtlas.class);
+            entry.adopted = true;
+            adoptedFiles.add(entry.fileName);
+        } else
+        {
+            entry.atlas = new TextureAtlas(entry.data);
+        }
+    }
+
+    private static void releaseAtlas(AtlasEntry entry)
+    {
+        entry.refs--;
+
+        if (entry.refs == 0 && entry.atlas != null)
+        {
+            disposeAtlas(entry);
+        }
+    }
+
+    private static void disposeAtlas(AtlasEntry entry)
+    {
+        if (entry.adopted)
+        {
+            if (assetManager != null && assetManager.isLoaded(entry.fileName, TextureAtlas.class))
+            {
+                assetManager.unload(entry.fileName);
+            }
+            adoptedFiles.remove(entry.fileName);
+            entry.adopted = false;
+        } else
+        {
+            entry.atlas.dispose();
+        }
+
+        entry.atlas = null;
+    }
+
+    // an image's path below the assets folder, which the atlas and texture policy name it by
+    private static String assetPath(String fileName)
+    {
+        int start = fileName.lastIndexOf("assets/");
+        return (start < 0) ? fileName : fileName.substring(start + "assets/".length());
+    }
+
+    // name of an image's region in an atlas: its path below the assets folder, without the extension
+    private static String regionName(String fileName)
+    {
+        String path = assetPath(fileName);
+        int end = path.lastIndexOf('.');
+        return (end < 0) ? path : path.substring(0, end);
+    }
+
+    // textures the BaseActors in a group draw from, the children of groups included
+    private static void collectTextures(Group group, ObjectSet<Texture> used)
+    {
+        for (Actor actor : group.getChildren())
+        {
+            if (actor instanceof BaseActor && ((BaseActor)actor).getAnimation() != null)
+            {
+                Animation<TextureRegion> anim = ((BaseActor)actor).getAnimation();
+                AnimationEntry entry = animationEntries.get(anim);
+
+                if (entry != null)
+                {
+                    for (TextureRegion frame : entry.frames)
+                    {
+                        used.add(frame.getTexture());
+                    }
+                } else
+                {
+                    used.add(anim.getKeyFrame(0).getTexture());
+                }
+            } else if (actor instanceof Group)
+            {
+                collectTextures((Group)actor, used);
+            }
+        }
+    }
+
+    private static int bytesPerPixel(Pixmap.Format format)
+    {
+        switch (format)
+        {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    // a single image file loaded on the GPU, with the number of key frames currently using it
+    private static class TextureEntry
+    {
+        private final String fileName;
+        private Texture texture;
+
+        // file the texture is loaded from (the image, or its compressed copy), and how
+        private String loadFileName;
+        private Pixmap.Format format;
+        private boolean useMipMaps;
+        private int refs;
+
+        // true when the texture belongs to the asset manager
+        private boolean adopted;
+
+        // atlas the image is packed into, or null when it is loaded from its own file
+        private AtlasEntry atlas;
+        private String regionName;
+
+        private TextureEntry(String fileName)
+        {
+            this.fileName = fileName;
+            this.loadFileName = fileName;
+        }
+
+        // a new region covering the whole image; the texture must be loaded
+        private TextureRegion createRegion()
+        {
+            if (this.atlas != null)
+            {
+                return new TextureRegion(this.atlas.atlas.findRegion(this.regionName));
+            }
+            return new TextureRegion(this.texture);
+        }
+    }
+
+    // how the texture policy stores an image
+    private static class TexturePolicy
+    {
+        private final boolean etc1;
+        private final boolean mipMaps;
+
+        private TexturePolicy(boolean etc1, boolean mipMaps)
+        {
+            this.etc1 = etc1;
+            this.mipMaps = mipMaps;
+        }
+    }
+
+    // a texture atlas: its parsed description, kept so the pages can be reloaded, and the pages while any image is used
+    private static class AtlasEntry
+    {
+        private final String fileName;
+        private final TextureAtlasData data;
+        private TextureAtlas atlas;
+        private int refs;
+
+        // true when the atlas belongs to the asset manager
+        private boolean adopted;
+
+        private AtlasEntry(String fileName, TextureAtlasData data)
+        {
+            this.fileName = fileName;
+            this.data = data;
+        }
+    }
+
+    // a shared animation, its key frames, the texture behind each frame and the number of users
+    private static class AnimationEntry
+    {
+        private final String key;
+        private final Animation<TextureRegion> animation;
+        private final Array<TextureRegion> frames;
+        private final TextureEntry[] frameTextures;
+        private int refs;
+
+        private AnimationEntry(String key, Animation<TextureRegion> animation, Array<TextureRegion> frames,
+                               TextureEntry[] frameTextures)
+        {
+            this.key = key;
+            this.animation = animation;
+            this.frames = frames;
+            this.frameTextures = frameTextures;
+        }
+    }
+}
@@ -1,10 +1,9 @@
 package com.ktgames.starfishcollectorremastered;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -12,21 +11,25 @@ import com.badlogic.gdx.math.*;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Pool.Poolable;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
 import java.util.ArrayList;
 
-import static java.lang.Class.forName;
-
 // LibGDX Actor class with extended functionality
 
-public class BaseActor extends Actor
+public class BaseActor extends Actor implements Poolable, DrawQueue.Layered
 {
     // Fields to store the animation and related data
     private Animation<TextureRegion> animation;
     private float elapsedTime;
     private boolean animationPaused;
 
+    // animations obtained from the shared AssetRegistry, released when the actor leaves its stage
+    private Array<Animation<TextureRegion>> registryAnimations;
+    private boolean registryAnimationsRetained;
+
     // --Physics Data--
     // Store velocity data
     private Vector2 velocityVec;
@@ -40,13 +43,80 @@ public class BaseActor extends Actor
     private float maxSpeed;
     private float deceleration;
 
+    // distance moved by the last applyPhysics step, for swept collision
+    private float lastMoveX, lastMoveY;
+
     // replacing collision rectangles with more advanced polygons
     // default for game is rectangular polygon, as polygons can rotate
     private Polygon boundaryPolygon;
 
+    // circle, capsule or box used instead of the polygon, with exact shape-specific tests (null: use the polygon)
+    private Collider collider;
+
+    // transform last applied to boundaryPolygon, so it is only re-transformed after the actor
+    // has moved, rotated, scaled or changed origin; plus the bounding rectangle of the result
+    private float boundaryX, boundaryY, boundaryOriginX, boundaryOriginY;
+    private float boundaryRotation, boundaryScaleX, boundaryScaleY;
+    private boolean boundaryTransformDirty;
+    private Rectangle boundaryBounds;
+    private boolean boundaryBoundsDirty;
+
     // stores size of game world for all Actors, hence static
     private static Rectangle worldBounds;
 
+    // scratch space for preventOverlap, shared so collision checks do not allocate;
+    // collisions are resolved on the render thread only
+    private static final Intersector.MinimumTranslationVector overlapMtv = new Intersector.MinimumTranslationVector();
+
+    // time span narrowed by timeOfImpact, shared like overlapMtv
+    private static final float[] sweepSpan = new float[2];
+
+    // direction of the last preventOverlap push, returned to the caller
+    private Vector2 overlapNormal;
+
+    // --Interpolation Data--
+    // transform at the start of the current fixed timestep, used to draw between steps
+    private float previousX, previousY, previousRotation;
+    private boolean hasPreviousTransform;
+
+    // how far between the previous and current step to draw; 1 when not using a fixed timestep
+    private static float interpolationAlpha = 1;
+
+    // --Broadphase Data--
+    // maintained by the SpatialHash of the stage this actor is on (if the stage has one)
+    SpatialHash spatialHash;
+    int cellMinX, cellMinY, cellMaxX, cellMaxY;
+    int queryStamp;
+
+    // --Pooling Data--
+    // pool this actor returns to when it leaves its stage (null if not pooled)
+    private BaseActorPool<? extends BaseActor> pool;
+    // true while waiting in the pool to be obtained again
+    private boolean pooled;
+
+    // --Culling Data--
+    // culler of the stage this actor is on, asked before every draw
+    private ViewCuller viewCuller;
+
+    // --Static Drawing Data--
+    // static actors are drawn from their stage's StaticLayer cache instead of the batch
+    private boolean staticActor;
+    private StaticLayer staticLayer;
+
+    // --Layered Drawing Data--
+    // layer this actor is drawn in when its stage draws through a DrawQueue
+    private int drawLayer;
+    // blend function the batch draws this actor with
+    private int blendSrcFunc, blendDstFunc;
+
+    // --Instance Registry Data--
+    // registry of the stage this actor is on, maintained by ActorRegistry
+    ActorRegistry actorRegistry;
+
+    // --Parallel Act Data--
+    // set by ParallelRoot while this actor is part of the current parallel pass
+    boolean actedInParallel;
+
     // constructor
     public BaseActor(float x, float y, Stage stage)
     {
@@ -56,6 +126,16 @@ public class BaseActor extends Actor
         // set position of Actor
         this.setPosition(x, y);
 
+        // shared animations must be tracked before joining the stage, see setStage
+        this.registryAnimations = new Array<Animation<TextureRegion>>();
+        this.registryAnimationsRetained = false;
+
+        // loading images needs the render thread; see ParallelAct.defer
+        if (ParallelAct.isRunning())
+        {
+            throw new GdxRuntimeException("Actors cannot be created during a parallel act; use ParallelAct.defer");
+        }
+
         // automatically add instantiated Actor to stage
         stage.addActor(this);
 
@@ -79,8 +159,20 @@ public class BaseActor extends Actor
         this.maxSpeed = 1000;
         this.deceleration = 0;
 
+        this.overlapNormal = new Vector2();
+
+        this.hasPreviousTransform = false;
+
+        // drawn with the actors, blended the way SpriteBatch blends by default
+        this.drawLayer = DrawQueue.ACTORS;
+        this.blendSrcFunc = GL20.GL_SRC_ALPHA;
+        this.blendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+
         // for collisions, replacing the rectangle with more advanced and accurate polygon
         this.boundaryPolygon = null;
+        this.boundaryTransformDirty = true;
+        this.boundaryBounds = new Rectangle();
+        this.boundaryBoundsDirty = true;
     }
     // /** indicates that the comment is for documentation
 
@@ -137,7 +229,7 @@ public class BaseActor extends Actor
 
         // now that width and height are set, set the default rectangle shaped polygon
         // collision object assuming it wasn't already defined
-        if (this.boundaryPolygon == null)
+        if (this.boundaryPolygon == null && this.collider == null)
         {
             this.setBoundaryRectangle();
         }
@@ -153,34 +245,11 @@ public class BaseActor extends Actor
 
     public Animation<TextureRegion> loadAnimationFromFiles(String[] fileNames, float frameDuration, boolean loop)
     {
-        // get the length of the Array of strings with file images for animation for 'for loop' below
-        int fileCount = fileNames.length;
-
-        // new array of type TextureRegion
-        Array<TextureRegion> textureArray = new Array<TextureRegion>();
-
-        // step 1) Animation class needs array of images to display
-        for (int n = 0; n < fileCount; n++)
-        {
-            String fileName = fileNames[n];
-            Texture texture = new Texture(Gdx.files.internal(fileName));
-
-            // 6.6.2020 - used to smooth Textures for magnification and minification
-            texture.setFilter(TextureFilter.Linear, TextureFilter.Linear);
-            textureArray.add(new TextureRegion(texture));
-        }
-        // frameDuration indicates step 2) The amount of time that each image should be displayed
-        Animation<TextureRegion> anim = new Animation<TextureRegion>(frameDuration, textureArray);
-
-        // if the animation should loop per the parameter
-        // step 3) how the frames should be played
-        if (loop)
-        {
-            anim.setPlayMode(Animation.PlayMode.LOOP);
-        } else
-        {
-            anim.setPlayMode(Animation.PlayMode.NORMAL);
-        }
+        // Animation class needs 1) an array of images to display, 2) the amount of time each image
+        // should be displayed and 3) how the frames should be played. The shared registry builds it once
+        // per set of files, so every actor using the same images shares one copy of the Textures
+        Animation<TextureRegion> anim = AssetRegistry.obtainAnimationFromFiles(fileNames, frameDuration, loop);
+        this.trackAnimation(anim);
 
         // believe this is checking the animation specific to the instance of the object
         // TODO - double check above point
@@ -205,36 +274,9 @@ public class BaseActor extends Actor
     // original image and the number of rows and columns present in the spritesheet
     public Animation<TextureRegion> loadAnimationFromSheet(String fileName, int rows, int cols, float frameDuration, boolean loop)
     {
-        //TODO check if useMipMaps is the right parameter for the true value, course code doesn't specify
-        Texture texture = new Texture(Gdx.files.internal(fileName), true);
-
-        texture.setFilter(TextureFilter.Linear, TextureFilter.Linear);
-
-        int frameWidth = texture.getWidth()/cols;
-        int frameHeight = texture.getHeight()/rows;
-
-        TextureRegion[][] temp = TextureRegion.split(texture, frameWidth, frameHeight);
-
-        Array<TextureRegion> textureArray = new Array<TextureRegion>();
-
-        //TODO: understand this double for loop better
-        for (int r=0; r < rows; r++)
-        {
-            for (int c = 0; c < cols; c++)
-            {
-                textureArray.add(temp[r][c]);
-            }
-        }
-
-        Animation<TextureRegion> anim = new Animation<TextureRegion>(frameDuration, textureArray);
-
-        if (loop)
-        {
-            anim.setPlayMode(Animation.PlayMode.LOOP);
-        } else
-        {
-            anim.setPlayMode(Animation.PlayMode.NORMAL);
-        }
+        // the registry splits the sheet into frames once per layout and shares the result
+        Animation<TextureRegion> anim = AssetRegistry.obtainAnimationFromSheet(fileName, rows, cols, frameDuration, loop);
+        this.trackAnimation(anim);
 
         if (animation == null)
         {
@@ -258,6 +300,30 @@ public class BaseActor extends Actor
         return loadAnimationFromFiles(fileNames, 1, true);
     }
 
+    /**
+     * Remembers an animation obtained from the shared registry so it can be released
+     * when this actor leaves its stage (and retained again if it is added back).
+     * @param anim: animation returned by AssetRegistry
+     */
+    private void trackAnimation(Animation<TextureRegion> anim)
+    {
+        this.registryAnimations.add(anim);
+
+        // an actor that is not on a stage does not hold on to textures
+        if (!this.registryAnimationsRetained)
+        {
+            AssetRegistry.release(anim);
+        }
+    }
+
+    /**
+     * @return animation drawn for this actor, or null if none has been set
+     */
+    public Animation<TextureRegion> getAnimation()
+    {
+        return this.animation;
+    }
+
     /**
      * Set the pause state of the animation
      * @param pause: true to pause animation, false to resume animation
@@ -325,6 +391,30 @@ public class BaseActor extends Actor
         this.maxSpeed = maxSpeed;
     }
 
+    /**
+     * @return acceleration of this object, in (pixels/second) per second
+     */
+    public float getAcceleration()
+    {
+        return this.acceleration;
+    }
+
+    /**
+     * @return deceleration of this object, in (pixels/second) per second
+     */
+    public float getDeceleration()
+    {
+        return this.deceleration;
+    }
+
+    /**
+     * @return maximum speed of this object, in pixels/second
+     */
+    public float getMaxSpeed()
+    {
+        return this.maxSpeed;
+    }
+
     /**
      * Set the speed of movement (in pixels/second) in current direction.
      * If the current speed is zero (direction is undefined), direction will be set to 0 degrees.
@@ -337,7 +427,7 @@ public class BaseActor extends Actor
     public void setSpeed(float speed)
     {
         // if velocityVec length is zero, we assume the motion angle is zero degrees
-        if (this.velocityVec.len() == 0)
+        if (this.velocityVec.isZero())
         {
             this.velocityVec.set(speed, 0);
         } else
@@ -403,8 +493,10 @@ public class BaseActor extends Actor
 
     public void accelerateAtAngle(float angle)
     {
+        // add the components directly rather than building a temporary Vector2 every call
         this.accelerationVec.add(
-                new Vector2(acceleration, 0).setAngle(angle));
+                this.acceleration * MathUtils.cosDeg(angle),
+                this.acceleration * MathUtils.sinDeg(angle));
     }
 
     /**
@@ -438,10 +530,12 @@ public class BaseActor extends Actor
         // apply acceleration
         this.velocityVec.add( this.accelerationVec.x * dt, this.accelerationVec.y * dt);
 
-        float speed = this.getSpeed();
+        // the length is computed once (one square root) and reused below
+        float currentSpeed = this.velocityVec.len();
+        float speed = currentSpeed;
 
         // decrease speed (decelerate) when not accelerating
-        if (this.accelerationVec.len() == 0)
+        if (this.accelerationVec.isZero())
         {
             speed -= this.deceleration * dt;
         }
@@ -449,11 +543,19 @@ public class BaseActor extends Actor
         // keep speed within set bounds
         speed = MathUtils.clamp(speed, 0, this.maxSpeed);
 
-        // update velocity
-        this.setSpeed(speed);
+        // update velocity; same as setSpeed, without measuring the length again
+        if (currentSpeed == 0)
+        {
+            this.velocityVec.set(speed, 0);
+        } else
+        {
+            this.velocityVec.scl(speed / currentSpeed);
+        }
 
         // apply velocity
-        this.moveBy(this.velocityVec.x * dt, this.velocityVec.y * dt);
+        this.lastMoveX = this.velocityVec.x * dt;
+        this.lastMoveY = this.velocityVec.y * dt;
+        this.moveBy(this.lastMoveX, this.lastMoveY);
 
         // reset acceleration at the end of method
         this.accelerationVec.set(0, 0);
@@ -478,6 +580,8 @@ public class BaseActor extends Actor
 
         float[] vertices = {0,0, w,0, w,h, 0,h};
         this.boundaryPolygon = new Polygon(vertices);
+        this.boundaryTransformDirty = true;
+        this.collider = null;
     }
 
     /**
@@ -496,12 +600,21 @@ public class BaseActor extends Actor
      */
     public void setBoundaryPolygon(int numSides)
     {
-        // x
-        float w = this.getWidth();
-
-        // y
-        float h = this.getHeight();
+        this.boundaryPolygon = new Polygon(ellipseVertices(this.getWidth(), this.getHeight(), numSides));
+        this.boundaryTransformDirty = true;
+        this.collider = null;
+    }
 
+    /**
+     * Calculates the vertices of an n-sided polygon whose vertices lie on the ellipse contained
+     * within a rectangle; used by <code>setBoundaryPolygon(int)</code> and by Swarm.
+     * @param w: width of rectangle
+     * @param h: height of rectangle
+     * @param numSides: number of sides of the polygon
+     * @return vertices as x,y pairs, relative to the rectangle's bottom-left corner
+     */
+    public static float[] ellipseVertices(float w, float h, int numSides)
+    {
         float[] vertices = new float[2*numSides];
 
         /*
@@ -529,7 +642,78 @@ public class BaseActor extends Actor
             vertices[2*i+1] = h/2 * MathUtils.sin(angle) + h/2;
         }
 
-        this.boundaryPolygon = new Polygon(vertices);
+        return vertices;
+    }
+
+    /**
+     * Use precomputed collision vertices, e.g. read from a level file, instead of calculating them. <br>
+     * The array is used as is (not copied), so one array can be shared by every actor with the same shape;
+     * it must not be changed afterwards.
+     * @param vertices: local-space polygon vertices as x,y pairs, relative to the actor's bottom-left corner
+     */
+    public void setBoundaryPolygon(float[] vertices)
+    {
+        if (this.boundaryPolygon == null)
+        {
+            this.boundaryPolygon = new Polygon(vertices);
+        } else
+        {
+            this.boundaryPolygon.setVertices(vertices);
+        }
+        this.boundaryTransformDirty = true;
+        this.collider = null;
+    }
+
+    /**
+     * Replace the collision polygon with a circle inside the actor's rectangle (touching its shorter sides).
+     * Exact for round images, and tested much faster than an n-sided polygon.
+     * Do not call this method before the actor's size is set.
+     */
+    public void setBoundaryCircle()
+    {
+        float w = this.getWidth();
+        float h = this.getHeight();
+        this.setCollider(new CircleCollider(w/2, h/2, Math.min(w, h)/2));
+    }
+
+    /**
+     * Replace the collision polygon with a capsule (a rectangle with round ends) filling the actor's
+     * rectangle along its longer side. Do not call this method before the actor's size is set.
+     */
+    public void setBoundaryCapsule()
+    {
+        this.setCollider(CapsuleCollider.fit(this.getWidth(), this.getHeight()));
+    }
+
+    /**
+     * Replace the collision polygon with a box covering the actor's rectangle; while the actor is not rotated,
+     * tests against circles and other boxes need no polygon math at all.
+     * Do not call this method before the actor's size is set.
+     */
+    public void setBoundaryBox()
+    {
+        this.setCollider(new BoxCollider(0, 0, this.getWidth(), this.getHeight()));
+    }
+
+    /**
+     * Use a circle, capsule or box collider instead of the collision polygon; the pair of shapes decides which
+     * test <code>overlaps</code> and <code>preventOverlap</code> use (see Collisions). Calling a setBoundary
+     * method replaces the collider again.
+     * @param collider: collider for this actor only, or null to go back to the collision polygon
+     */
+    public void setCollider(Collider collider)
+    {
+        this.collider = collider;
+        this.boundaryBoundsDirty = true;
+        this.boundaryTransformDirty = true;
+    }
+
+    /**
+     * @return circle, capsule or box collider of this actor, or null if it collides with its polygon
+     */
+    public Collider getCollider()
+    {
+        return this.collider;
     }
 
     /**
@@ -539,13 +723,94 @@ public class BaseActor extends Actor
      */
     public Polygon getBoundaryPolygon()
     {
-        this.boundaryPolygon.setPosition(this.getX(), this.getY());
-        this.boundaryPolygon.setOrigin(this.getOriginX(), this.getOriginY());
-        this.boundaryPolygon.setRotation(this.getRotation());
-        this.boundaryPolygon.setScale(this.getScaleX(), this.getScaleY());
+        // a circle or capsule is approximated, see Collider.getPolygon
+        if (this.collider != null)
+        {
+            return this.collider.getPolygon(this);
+        }
+
+        float x = this.getX();
+        float y = this.getY();
+        float originX = this.getOriginX();
+        float originY = this.getOriginY();
+        float rotation = this.getRotation();
+        float scaleX = this.getScaleX();
+        float scaleY = this.getScaleY();
+
+        // Polygon recomputes its transformed vertices whenever one of its setters is called,
+        // so only pass the transform on when it has actually changed since the last call.
+        // a Rock that never moves keeps its vertices (and bounding rectangle) from the first test
+        if (this.boundaryTransformDirty
+                || x != this.boundaryX || y != this.boundaryY
+                || originX != this.boundaryOriginX || originY != this.boundaryOriginY
+                || rotation != this.boundaryRotation
+                || scaleX != this.boundaryScaleX || scaleY != this.boundaryScaleY)
+        {
+            this.boundaryPolygon.setPosition(x, y);
+            this.boundaryPolygon.setOrigin(originX, originY);
+            this.boundaryPolygon.setRotation(rotation);
+            this.boundaryPolygon.setScale(scaleX, scaleY);
+
+            this.boundaryX = x;
+            this.boundaryY = y;
+            this.boundaryOriginX = originX;
+            this.boundaryOriginY = originY;
+            this.boundaryRotation = rotation;
+            this.boundaryScaleX = scaleX;
+            this.boundaryScaleY = scaleY;
+
+            this.boundaryTransformDirty = false;
+            this.boundaryBoundsDirty = true;
+        }
+
         return this.boundaryPolygon;
     }
 
+    /**
+     * Returns the axis-aligned rectangle surrounding this BaseActor's collision polygon,
+     * adjusted by Actor's current position, rotation and scale. <br>
+     * Cached until the transform changes; do not modify the returned rectangle.
+     * @return bounding rectangle of the collision polygon
+     */
+    public Rectangle getBoundaryBounds()
+    {
+        if (this.collider != null)
+        {
+            return this.collider.getBounds(this);
+        }
+
+        Polygon poly = this.getBoundaryPolygon();
+
+        if (this.boundaryBoundsDirty)
+        {
+            this.boundaryBounds.set(poly.getBoundingRectangle());
+            this.boundaryBoundsDirty = false;
+        }
+
+        return this.boundaryBounds;
+    }
+
+    /**
+     * Returns the radius of a circle around the rotation origin that contains this actor's
+     * rectangle at any rotation, taking scale into account. Cheap, rotation-independent bounds
+     * used by the broadphase and by view culling.
+     * @return bounding radius (pixels)
+     */
+    public float getBoundingRadius()
+    {
+        float w = this.getWidth();
+        float h = this.getHeight();
+        float ox = this.getOriginX();
+        float oy = this.getOriginY();
+
+        // farthest corner of the actor's rectangle from its origin
+        float dx = Math.max(Math.abs(ox), Math.abs(w - ox));
+        float dy = Math.max(Math.abs(oy), Math.abs(h - oy));
+        float scale = Math.max(Math.abs(this.getScaleX()), Math.abs(this.getScaleY()));
+
+        return (float)Math.sqrt(dx * dx + dy * dy) * scale;
+    }
+
     /**
      * Determine if this BaseActor object overlaps a different BaseActor (according to collision polygons)
      * @param other BaseActor to check for overlap
@@ -557,8 +822,6 @@ public class BaseActor extends Actor
     // class
     public boolean overlaps(BaseActor other)
     {
-        Polygon poly1 = this.getBoundaryPolygon();
-        Polygon poly2 = other.getBoundaryPolygon();
 
         /*
         -- Initial test to improve performance --
@@ -567,11 +830,20 @@ public class BaseActor extends Actor
         the collision polygons intersect (which is far simpler). If they don't it would be
         impossible for the polygons to intersect.
         */
-        if (!poly1.getBoundingRectangle().overlaps(poly2.getBoundingRectangle()))
+        if (!this.getBoundaryBounds().overlaps(other.getBoundaryBounds()))
         {
             return false;
         }
 
+        // circles, capsules and boxes have faster exact tests
+        if (this.collider != null || other.collider != null)
+        {
+            return Collisions.overlaps(this, other, null);
+        }
+
+        Polygon poly1 = this.getBoundaryPolygon();
+        Polygon poly2 = other.getBoundaryPolygon();
+
         return Intersector.overlapConvexPolygons(poly1, poly2);
 
     }
@@ -581,26 +853,33 @@ public class BaseActor extends Actor
      * when there is overlap, move this BaseActor away from other BaseActor
      * along minimum translation vector until there is no overlap.
      * @param other: BaseActor to check for overlap
-     * @return direction vector by which the actor was translated, null if no overlap
+     * @return direction vector by which the actor was translated, null if no overlap.
+     *          The vector belongs to this actor and is overwritten by its next call.
      */
 
 
     public Vector2 preventOverlap(BaseActor other)
     {
-        Polygon poly1 = this.getBoundaryPolygon();
-        Polygon poly2 = other.getBoundaryPolygon();
-
         // initial test to improve performance, checks if other polygon's outer rectangle is in range
         // before checking the inner collision polygon because collision computations are expensive
-        if (!poly1.getBoundingRectangle().overlaps(poly2.getBoundingRectangle()))
+        if (!this.getBoundaryBounds().overlaps(other.getBoundaryBounds()))
         {
             return null;
         }
 
         // calculates the minimum vector to move Actor back by if it hits a solid object, parameter for
-        // overlapConvexPolygons
-        Intersector.MinimumTranslationVector mtv = new Intersector.MinimumTranslationVector();
-        boolean polygonOverlap = Intersector.overlapConvexPolygons(poly1, poly2, mtv);
+        // overlapConvexPolygons. the vector is shared scratch space so no object is created per check
+        Intersector.MinimumTranslationVector mtv = overlapMtv;
+        boolean polygonOverlap;
+
+        // circles, capsules and boxes have faster exact tests
+        if (this.collider != null || other.collider != null)
+        {
+            polygonOverlap = Collisions.overlaps(this, other, mtv);
+        } else
+        {
+            polygonOverlap = Intersector.overlapConvexPolygons(this.getBoundaryPolygon(), other.getBoundaryPolygon(), mtv);
+        }
 
         if (!polygonOverlap)
         {
@@ -612,8 +891,198 @@ public class BaseActor extends Actor
         this.moveBy(mtv.normal.x * mtv.depth, mtv.normal.y * mtv.depth);
 
         // return the direction in which the Actor was moved when an overlap exists. Not used in Starfish
-        // collector, but helpful for other games
-        return mtv.normal;
+        // collector, but helpful for other games. copied so later checks do not change the returned vector
+        return this.overlapNormal.set(mtv.normal);
+    }
+
+    /**
+     * Collects actors of the given type that might overlap this actor; use <code>overlaps</code>
+     * or <code>preventOverlap</code> on the results for the exact test. <br>
+     * If this actor's stage has a SpatialHash attached, only nearby actors are returned;
+     * otherwise every actor of the given type on the stage is a candidate.
+     * @param type: class (or superclass) of actors to collect
+     * @param results: array the candidates are added to; it is cleared first
+     * @return the results array
+     * @see SpatialHash#attach
+     */
+    public <T extends BaseActor> Array<T> getOverlapCandidates(Class<T> type, Array<T> results)
+    {
+        if (this.spatialHash != null)
+        {
+            return this.spatialHash.query(this, type, results);
+        }
+
+        results.clear();
+        results.addAll(getList(this.getStage(), type));
+
+        // compared by identity, so this actor needs no cast to T
+        for (int i = 0; i < results.size; i++)
+        {
+            if (results.get(i) == this)
+            {
+                results.removeIndex(i);
+                break;
+            }
+        }
+
+        return results;
+    }
+
+    //----------------------------
+    // Swept collision methods
+    //----------------------------
+
+    /*
+    applyPhysics moves an actor by velocity * dt in one jump, and overlaps/preventOverlap only look at where
+    it ends up. an actor that moves further than its own size in one step (at a high maxSpeed, or after a
+    long frame) can therefore jump straight over a rock or a starfish. the methods below look at the whole
+    move instead, but only for actors that moved that far, so the common slow case costs nothing extra.
+     */
+
+    /**
+     * @return true if the last applyPhysics step moved this actor further than the smaller side of its
+     *          collision bounds, so it may have passed through something; use the swept methods below
+     */
+    public boolean isFastMoving()
+    {
+        Rectangle bounds = this.getBoundaryBounds();
+        float size = Math.min(bounds.width, bounds.height);
+
+        return this.lastMoveX * this.lastMoveX + this.lastMoveY * this.lastMoveY > size * size;
+    }
+
+    /**
+     * Collects actors of the given type that might have been touched anywhere along the last applyPhysics
+     * step (not just where this actor ended up); use <code>timeOfImpact</code> on the results.
+     * @param type: class (or superclass) of actors to collect
+     * @param results: array the candidates are added to; it is cleared first
+     * @return the results array
+     */
+    public <T extends BaseActor> Array<T> getSweepCandidates(Class<T> type, Array<T> results)
+    {
+        if (this.spatialHash != null)
+        {
+            return this.spatialHash.querySwept(this, this.lastMoveX, this.lastMoveY, type, results);
+        }
+
+        return this.getOverlapCandidates(type, results);
+    }
+
+    /**
+     * Finds when, during the last applyPhysics step, this actor's collision polygon first touched another
+     * actor's, treating the step as a straight move from where it started to where it is now (rotation
+     * during the step is ignored). Circles and capsules are tested as their polygon approximation. <br>
+     * Each edge normal of the two polygons gives the time span in which their projections overlap
+     * (the separating axis test, with motion); the polygons touch where all spans overlap.
+     * @param other: actor to test (assumed not to have moved)
+     * @return fraction of the step (0 = its start, 1 = now) at which the actors first touched, or -1 if they
+     *          did not touch during the step or were already touching at its start
+     */
+    public float timeOfImpact(BaseActor other)
+    {
+        float[] moving = this.getBoundaryPolygon().getTransformedVertices();
+        float[] still = other.getBoundaryPolygon().getTransformedVertices();
+
+        // start and end of the time span, narrowed by each axis
+        sweepSpan[0] = 0;
+        sweepSpan[1] = 1;
+
+        if (!sweepAxes(moving, moving, still, this.lastMoveX, this.lastMoveY)
+                || !sweepAxes(still, moving, still, this.lastMoveX, this.lastMoveY))
+        {
+            return -1;
+        }
+
+        // touching from the start is an ordinary overlap, for overlaps and preventOverlap
+        return (sweepSpan[0] > 0) ? sweepSpan[0] : -1;
+    }
+
+    /**
+     * Moves this actor back along its last applyPhysics step, e.g. to where <code>timeOfImpact</code> says it
+     * first touched a solid actor. The step then counts as having ended there.
+     * @param fraction: part of the step to keep (0 = back to its start, 1 = stay)
+     */
+    public void rewindMove(float fraction)
+    {
+        float keep = MathUtils.clamp(fraction, 0, 1);
+
+        this.moveBy(-this.lastMoveX * (1 - keep), -this.lastMoveY * (1 - keep));
+        this.lastMoveX *= keep;
+        this.lastMoveY *= keep;
+    }
+
+    /**
+     * Narrows sweepSpan to the times at which the projections of a moving and a still polygon overlap,
+     * on each edge normal of one of them.
+     * @param axes: polygon whose edges give the axes
+     * @param moving: vertices of the moving polygon where the move ended
+     * @param still: vertices of the still polygon
+     * @param moveX: horizontal distance moved
+     * @param moveY: vertical distance moved
+     * @return false if the span became empty (the polygons did not touch during the move)
+     */
+    private static boolean sweepAxes(float[] axes, float[] moving, float[] still, float moveX, float moveY)
+    {
+        int n = axes.length;
+
+        for (int i = 0; i < n; i += 2)
+        {
+            // edge normal; it does not need to be normalized, since only ratios of projections are used
+            float axisX = axes[(i + 3) % n] - axes[i + 1];
+            float axisY = axes[i] - axes[(i + 2) % n];
+
+            float minMoving = Float.MAX_VALUE, maxMoving = -Float.MAX_VALUE;
+            for (int j = 0; j < moving.length; j += 2)
+            {
+                float p = moving[j] * axisX + moving[j + 1] * axisY;
+                minMoving = Math.min(minMoving, p);
+                maxMoving = Math.max(maxMoving, p);
+            }
+
+            float minStill = Float.MAX_VALUE, maxStill = -Float.MAX_VALUE;
+            for (int j = 0; j < still.length; j += 2)
+            {
+                float p = still[j] * axisX + still[j + 1] * axisY;
+                minStill = Math.min(minStill, p);
+                maxStill = Math.max(maxStill, p);
+            }
+
+            // projection of the moving polygon at the start of the move, and how far it travels along the axis
+            float travel = moveX * axisX + moveY * axisY;
+            minMoving -= travel;
+            maxMoving -= travel;
+
+            // not moving along this axis: the projections overlap throughout the move or never
+            if (travel == 0)
+            {
+                if (maxMoving < minStill || minMoving > maxStill)
+                {
+                    return false;
+                }
+                continue;
+            }
+
+            float enter, exit;
+            if (travel > 0)
+            {
+                enter = (minStill - maxMoving) / travel;
+                exit = (maxStill - minMoving) / travel;
+            } else
+            {
+                enter = (maxStill - minMoving) / travel;
+                exit = (minStill - maxMoving) / travel;
+            }
+
+            sweepSpan[0] = Math.max(sweepSpan[0], enter);
+            sweepSpan[1] = Math.min(sweepSpan[1], exit);
+
+            if (sweepSpan[0] > sweepSpan[1])
+            {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
@@ -638,6 +1107,14 @@ public class BaseActor extends Actor
         setWorldBounds(ba.getWidth(), ba.getHeight());
     }
 
+    /**
+     * @return world dimensions shared by all actors, or null if they have not been set
+     */
+    public static Rectangle getWorldBounds()
+    {
+        return worldBounds;
+    }
+
     /**
      * If an edge of an object moves past the world bounds,
      * adjust its position to keep it completely on screen
@@ -672,7 +1149,9 @@ public class BaseActor extends Actor
 
     /**
      * Center camera on this object, while keeping camera's range of view
-     * (determined by screen size) completely within world bounds.
+     * (determined by screen size) completely within world bounds. <br>
+     * The camera follows the position the actor is drawn at, which with a fixed timestep lies between
+     * two steps; call it just before drawing, e.g. through <code>BaseScreen.setCameraTarget</code>.
      */
 
     public void alignCamera()
@@ -681,7 +1160,7 @@ public class BaseActor extends Actor
         Viewport v = this.getStage().getViewport();
 
         // center camera on actor
-        cam.position.set(this.getX() + this.getOriginX(), this.getY() + this.getOriginY(), 0);
+        cam.position.set(this.getDrawX() + this.getOriginX(), this.getDrawY() + this.getOriginY(), 0);
 
         // bind camera to layout
         cam.position.x = MathUtils.clamp(cam.position.x, cam.viewportWidth/2,
@@ -693,15 +1172,138 @@ public class BaseActor extends Actor
         cam.update();
     }
 
+    //------------------------
+    // Static drawing methods
+    //------------------------
+
+    /**
+     * Mark this actor as static (never moving), e.g. backgrounds and obstacles. Static actors are drawn
+     * from a prebuilt cache (see StaticLayer) behind all dynamic actors, instead of being sent to the
+     * batch every frame. Best suited to actors showing a single image.
+     * @param isStatic: true to draw this actor from the static cache
+     */
+    public void setStatic(boolean isStatic)
+    {
+        if (this.staticActor == isStatic)
+        {
+            return;
+        }
+
+        this.staticActor = isStatic;
+
+        if (this.getStage() != null)
+        {
+            if (isStatic)
+            {
+                this.staticLayer = StaticLayer.get(this.getStage());
+                this.staticLayer.add(this);
+            } else
+            {
+                this.staticLayer.remove(this);
+                this.staticLayer = null;
+            }
+        }
+    }
+
+    /**
+     * @return true if this actor is drawn from the static cache
+     */
+    public boolean isStatic()
+    {
+        return this.staticActor;
+    }
+
+    /**
+     * @return image the static cache shows for this actor, or null if it has no animation
+     */
+    TextureRegion getStaticImage()
+    {
+        return (this.animation == null) ? null : this.animation.getKeyFrame(this.elapsedTime);
+    }
+
+    //------------------------
+    // Layered drawing methods
+    //------------------------
+
+    /**
+     * Set the layer this actor is drawn in when its stage draws in layers (see DrawQueue and
+     * BaseScreen.setLayeredDraw); otherwise actors are drawn in stage order and the layer has no effect.
+     * @param layer: DrawQueue.BACKGROUND, PROPS, ACTORS (the default) or EFFECTS
+     */
+    public void setDrawLayer(int layer)
+    {
+        if (layer < 0 || layer >= DrawQueue.LAYER_COUNT)
+        {
+            throw new GdxRuntimeException("No draw layer " + layer);
+        }
+        this.drawLayer = layer;
+    }
+
+    @Override
+    public int getDrawLayer()
+    {
+        return this.drawLayer;
+    }
+
+    /**
+     * Set how this actor's image is blended with what is behind it, e.g. GL_SRC_ALPHA and GL_ONE to brighten.
+     * Actors with the same blend function (and texture) are drawn together in a layered stage.
+     * @param srcFunc: source factor, as for Batch.setBlendFunction
+     * @param dstFunc: destination factor, as for Batch.setBlendFunction
+     */
+    public void setBlendFunction(int srcFunc, int dstFunc)
+    {
+        this.blendSrcFunc = srcFunc;
+        this.blendDstFunc = dstFunc;
+    }
+
+    public int getBlendSrcFunc()
+    {
+        return this.blendSrcFunc;
+    }
+
+    public int getBlendDstFunc()
+    {
+        return this.blendDstFunc;
+    }
+
+    /**
+     * @return texture the batch draws this actor's animation from this frame, or null if it has no animation
+     *         or is drawn by the static layer
+     */
+    Texture getDrawTexture()
+    {
+        if (this.animation == null || this.staticLayer != null)
+        {
+            return null;
+        }
+        return this.animation.getKeyFrame(this.elapsedTime).getTexture();
+    }
+
     //------------------------
     // Instance list methods
     //------------------------
 
+    /**
+     *  Retrieves all instances of the given class (or a class that extends it) on the given stage.
+     *  If no instances exist, returns an empty array.
+     *  Useful when coding interactions between different types of game objects in update method.
+     *  The array is kept up to date by the stage's ActorRegistry, so no list is built and nothing is allocated;
+     *  do not modify it, and copy it first if actors of this type may be added or removed while iterating.
+     * @param stage: Stage containing BaseActor instances
+     * @param type: class that extends the BaseActor class
+     * @return live array of instances in stage which extend the given class
+     */
+    public static <T extends BaseActor> Array<T> getList(Stage stage, Class<T> type)
+    {
+        return ActorRegistry.get(stage).getInstances(type);
+    }
+
     /**
      *  Retrieves a list of all instances of the object from the given stage with the given class name
      *  or whose class extends the class with the given name.
      *  If no instances exist, returns an empty list.
-     *  Useful when coding interactions between different types of game objects in update method.
+     *  Prefer <code>getList(Stage, Class)</code>, which does not build a new list.
      * @param stage: Stage containing BaseActor instances
      * @param className: name of a class that extends the BaseActor class INCLUDING THE PACKAGE
      * @return list of instances of the object in stage which extend with the given class name
@@ -712,21 +1314,29 @@ public class BaseActor extends Actor
     {
         ArrayList<BaseActor> list = new ArrayList<BaseActor>();
 
-        Class theClass = null;
-        try
-        {  theClass = forName(className);  }
-        catch (Exception error)
-        {  error.printStackTrace();  }
-
-        for (Actor a : stage.getActors())
+        // looked up by name in the registry rather than with Class.forName, which GWT does not support
+        for (BaseActor a : ActorRegistry.get(stage).getInstances(className))
         {
-            if ( theClass.isInstance( a ) )
-                list.add( (BaseActor)a );
+            list.add(a);
         }
 
         return list;
     }
 
+    /**
+     * Returns number of instances of a given class (that extends BaseActor).
+     * @param stage: Stage containing BaseActor instances
+     * @param type: class that extends the BaseActor class
+     * @return number of instances of the class
+     */
+
+    public static int count(Stage stage, Class<? extends BaseActor> type)
+    {
+        // helpful in game dev to see how many objects remain at a certain time.
+        // the registry keeps a bucket per class, so this is just its size
+        return ActorRegistry.get(stage).count(type);
+    }
+
     /**
      * Returns number of instances of a given class (that extends BaseActor).
      * @param className: name of a class that extends the BaseActor class
@@ -735,16 +1345,224 @@ public class BaseActor extends Actor
 
     public static int count(Stage stage, String className)
     {
-        // helpful in game dev to see how many objects remain at a certain time
-        // leveraging this class. Note no 'this' reference as getList is a static
-        // method
-        return getList(stage, className).size();
+        return ActorRegistry.get(stage).getInstances(className).size;
+    }
+
+    //------------------------
+    // Interpolation methods
+    //------------------------
+
+    /**
+     * Set how far between the previous and the current simulation step actors are drawn;
+     * called by BaseScreen each frame when it runs with a fixed timestep.
+     * @param alpha: 0 draws at the previous step, 1 draws at the current step
+     * @see BaseScreen#setFixedTimestep
+     */
+    public static void setInterpolationAlpha(float alpha)
+    {
+        interpolationAlpha = alpha;
+    }
+
+    /**
+     * Remembers the position and rotation of every BaseActor on the stage before a simulation step.
+     * @param stage: Stage containing BaseActor instances
+     */
+    public static void savePreviousTransforms(Stage stage)
+    {
+        Array<BaseActor> actors = getList(stage, BaseActor.class);
+        for (int i = 0; i < actors.size; i++)
+        {
+            actors.get(i).savePreviousTransform();
+        }
+    }
+
+    /**
+     * Remembers the current position and rotation as the start of the next interpolated step.
+     */
+    public void savePreviousTransform()
+    {
+        this.previousX = this.getX();
+        this.previousY = this.getY();
+        this.previousRotation = this.getRotation();
+        this.hasPreviousTransform = true;
+    }
+
+    /**
+     * Draw this actor at its current position until the next step, e.g. after teleporting it.
+     */
+    public void clearPreviousTransform()
+    {
+        this.hasPreviousTransform = false;
+    }
+
+    /**
+     * @return x-coordinate this actor is drawn at: with a fixed timestep, between the previous and the current step
+     */
+    public float getDrawX()
+    {
+        if (this.hasPreviousTransform && interpolationAlpha < 1)
+        {
+            return this.previousX + (this.getX() - this.previousX) * interpolationAlpha;
+        }
+        return this.getX();
+    }
+
+    /**
+     * @return y-coordinate this actor is drawn at: with a fixed timestep, between the previous and the current step
+     */
+    public float getDrawY()
+    {
+        if (this.hasPreviousTransform && interpolationAlpha < 1)
+        {
+            return this.previousY + (this.getY() - this.previousY) * interpolationAlpha;
+        }
+        return this.getY();
+    }
+
+    //------------------------
+    // Pooling methods
+    //------------------------
+
+    /**
+     * Called by BaseActorPool every time this actor is handed out, whether newly created or reused.
+     * Override to set up state that <code>reset</code> cleared (for example re-adding Actions).
+     * @see BaseActorPool#obtain
+     */
+    protected void onObtain()
+    {
+    }
+
+    /**
+     * Clears the state of this actor so it can be reused; called when a pooled actor returns to its pool.
+     * Animations, size and collision polygon are kept. Subclasses with their own state should override
+     * this method and call <code>super.reset()</code>.
+     */
+    public void reset()
+    {
+        this.clearActions();
+
+        this.elapsedTime = 0;
+        this.animationPaused = false;
+
+        this.velocityVec.set(0, 0);
+        this.accelerationVec.set(0, 0);
+        this.lastMoveX = 0;
+        this.lastMoveY = 0;
+
+        this.setColor(Color.WHITE);
+        this.setRotation(0);
+        this.setScale(1);
+        this.setVisible(true);
+
+        this.clearPreviousTransform();
+    }
+
+    /**
+     * @return true while this actor is waiting in a pool to be obtained again
+     */
+    public boolean isPooled()
+    {
+        return this.pooled;
+    }
+
+    void setPooled(boolean pooled)
+    {
+        this.pooled = pooled;
+        this.updateAnimationRetention();
+    }
+
+    void setPool(BaseActorPool<? extends BaseActor> pool)
+    {
+        this.pool = pool;
     }
 
     //-------------------------------
     // Actor methods: act and draw
     //-------------------------------
 
+    /**
+     * Called by scene2d when this actor is added to or removed from a stage.
+     * Shared animations are released when the actor leaves its stage, so textures are disposed
+     * once no actor on any stage uses them, and retained again if the actor is added back.
+     * A pooled actor is returned to its pool instead and keeps its animations.
+     * @param stage: new stage, or null when the actor is removed
+     */
+    @Override
+    protected void setStage(Stage stage)
+    {
+        super.setStage(stage);
+
+        // keep the per-class instance lists of the stage in sync
+        if (this.actorRegistry != null)
+        {
+            this.actorRegistry.remove(this);
+        }
+        if (stage != null)
+        {
+            ActorRegistry.get(stage).add(this);
+        }
+
+        this.viewCuller = (stage == null) ? null : ViewCuller.get(stage);
+
+        // static actors are drawn by the static layer of their stage
+        if (this.staticLayer != null)
+        {
+            this.staticLayer.remove(this);
+            this.staticLayer = null;
+        }
+        if (this.staticActor && stage != null)
+        {
+            this.staticLayer = StaticLayer.get(stage);
+            this.staticLayer.add(this);
+        }
+
+        // keep the broadphase index of the stage in sync
+        SpatialHash hash = SpatialHash.get(stage);
+        if (this.spatialHash != null && this.spatialHash != hash)
+        {
+            this.spatialHash.remove(this);
+        }
+        if (hash != null)
+        {
+            hash.add(this);
+        }
+
+        // pooled actors go back to their pool when they leave the stage
+        if (stage == null && this.pool != null && !this.pooled)
+        {
+            this.pool.freeActor(this);
+        }
+
+        this.updateAnimationRetention();
+    }
+
+    /**
+     * Retains shared animations while this actor is on a stage or waiting in a pool,
+     * and releases them otherwise.
+     */
+    private void updateAnimationRetention()
+    {
+        boolean retain = (this.getStage() != null || this.pooled);
+
+        if (retain == this.registryAnimationsRetained)
+        {
+            return;
+        }
+
+        for (Animation<TextureRegion> anim : this.registryAnimations)
+        {
+            if (retain)
+            {
+                AssetRegistry.retain(anim);
+            } else
+            {
+                AssetRegistry.release(anim);
+            }
+        }
+
+        this.registryAnimationsRetained = retain;
+    }
+
     /**
      * Process all Actions and related code for this object;
      * automatically called by act method in Stage class.
@@ -765,12 +1583,119 @@ public class BaseActor extends Actor
             */
             this.elapsedTime += dt;
         }
+
+        // one-shot pooled effects go back to their pool when their animation is done
+        if (this.pool != null && this.pool.isFreeOnAnimationFinished()
+                && this.animation != null && this.isAnimationFinished())
+        {
+            this.remove();
+            return;
+        }
+
+        // Actions may have changed scale or origin, which have no change notification;
+        // during a parallel act ParallelRoot updates the index afterwards instead
+        if (this.spatialHash != null && !ParallelAct.isRunning())
+        {
+            this.spatialHash.update(this);
+        }
+    }
+
+    /**
+     * Declares whether this actor's act method may run on another thread, at the same time as other
+     * thread-safe actors, when its screen acts in parallel (see BaseScreen.setParallelAct). That holds when
+     * act only changes this actor and reads nothing other actors change during act; removing the actor is
+     * fine, and other stage changes go through ParallelAct.defer. Actions that finish return themselves to
+     * shared pools, so an actor running finite Actions should not declare itself thread-safe meanwhile.
+     * @return true if act is thread-safe; false by default
+     */
+    public boolean isThreadSafe()
+    {
+        return false;
+    }
+
+    /**
+     * Removes this actor from its parent. During a parallel act, the removal is made once the pass ends.
+     * @return true if the actor had a parent
+     */
+    @Override
+    public boolean remove()
+    {
+        if (ParallelAct.isRunning())
+        {
+            ParallelAct.deferRemove(this);
+            return this.hasParent();
+        }
+
+        return super.remove();
+    }
+
+    /**
+     * Called by scene2d whenever the position of this actor changes; keeps the broadphase index
+     * (and the static cache, for static actors) current.
+     */
+    @Override
+    protected void positionChanged()
+    {
+        if (this.spatialHash != null && !ParallelAct.isRunning())
+        {
+            this.spatialHash.update(this);
+        }
+        if (this.staticLayer != null)
+        {
+            this.staticLayer.invalidate();
+        }
+    }
+
+    /**
+     * Called by scene2d whenever the size of this actor changes; keeps the broadphase index
+     * (and the static cache, for static actors) current.
+     */
+    @Override
+    protected void sizeChanged()
+    {
+        if (this.spatialHash != null && !ParallelAct.isRunning())
+        {
+            this.spatialHash.update(this);
+        }
+        if (this.staticLayer != null)
+        {
+            this.staticLayer.invalidate();
+        }
+    }
+
+    /**
+     * Called by scene2d whenever the rotation of this actor changes; keeps the static cache current.
+     */
+    @Override
+    protected void rotationChanged()
+    {
+        if (this.staticLayer != null)
+        {
+            this.staticLayer.invalidate();
+        }
+    }
+
+    /**
+     * Show or hide this actor.
+     * @param visible: true to draw this actor
+     */
+    @Override
+    public void setVisible(boolean visible)
+    {
+        if (visible != this.isVisible() && this.staticLayer != null)
+        {
+            this.staticLayer.invalidate();
+        }
+
+        super.setVisible(visible);
     }
 
     /**
      * Draws current frame of animation; automatically called by draw method in Stage class. <br>
      * If color hsa been set, image will be tinted by that color. <br>
-     * If no animation has been set or object is invisible, nothing will be drawn.
+     * If no animation has been set or object is invisible, nothing will be drawn. <br>
+     * Actors completely outside the stage's camera are culled (see ViewCuller); static actors are drawn
+     * by their stage's StaticLayer instead.
      * @param batch: (supplied by Stage draw method)
      * @param parentAlpha: (supplied by Stage draw method)
      * @see #setColor
@@ -782,6 +1707,12 @@ public class BaseActor extends Actor
     {
         super.draw(batch, parentAlpha);
 
+        // already drawn, from the stage's static cache
+        if (this.staticLayer != null)
+        {
+            return;
+        }
+
         // apply color tint effect, default is white, has no effect on the appearance of the image
         Color c = this.getColor();
         batch.setColor(c.r, c.g, c.b, c.a);
@@ -791,10 +1722,40 @@ public class BaseActor extends Actor
             // Determine which image of the animation to draw based on the getKeyFrame method and elapsedTime variable
             // taking into account the various properties stored in the Actor class (including position, size, scale
             // rotation and origin)
+            // with a fixed timestep, draw between the previous and the current step so motion stays
+            // smooth when the display refreshes at a different rate than the simulation
+            float x = this.getDrawX();
+            float y = this.getDrawY();
+            float rotation = this.getRotation();
+            if (this.hasPreviousTransform && interpolationAlpha < 1)
+            {
+                rotation = MathUtils.lerpAngleDeg(this.previousRotation, rotation, interpolationAlpha);
+            }
+
+            // actors completely outside the camera are not sent to the batch
+            if (this.viewCuller != null && !this.viewCuller.isInView(this, x, y))
+            {
+                return;
+            }
+
+            // a DrawQueue sets the blend function once for all actors sharing it; drawn alone, it is put back
+            int batchSrcFunc = batch.getBlendSrcFunc();
+            int batchDstFunc = batch.getBlendDstFunc();
+            boolean blend = batchSrcFunc != this.blendSrcFunc || batchDstFunc != this.blendDstFunc;
+            if (blend)
+            {
+                batch.setBlendFunction(this.blendSrcFunc, this.blendDstFunc);
+            }
+
             batch.draw(this.animation.getKeyFrame(this.elapsedTime),
-                    this.getX(), this.getY(), this.getOriginX(), this.getOriginY(),
+                    x, y, this.getOriginX(), this.getOriginY(),
                     this.getWidth(), this.getHeight(), this.getScaleX(), this.getScaleY(),
-                    this.getRotation());
+                    rotation);
+
+            if (blend)
+            {
+                batch.setBlendFunction(batchSrcFunc, batchDstFunc);
+            }
         }
     }
 }
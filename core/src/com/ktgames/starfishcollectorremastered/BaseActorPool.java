@@ -0,0 +1,198 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+
+// Pool of reusable BaseActors of one class, for short-lived actors such as effects.
+// Instead of constructing a new actor (and letting the old one become garbage) every time,
+// obtain() hands back an actor that has left its stage earlier. Pooled actors return to their
+// pool automatically when they are removed from the stage, and keep their shared animations
+// while waiting, so reusing one costs no allocation and no texture load.
+//
+// Modeled on libGDX's Pool, but actors need a position and a stage to be created, and the pool
+// has to know when an actor is dropped so its textures can be released.
+
+public abstract class BaseActorPool<T extends BaseActor>
+{
+    // the maximum number of free actors that will be kept
+    private final int max;
+
+    // the highest number of free actors, useful for tuning max and fill
+    private int peak;
+
+    private final Array<T> freeActors;
+
+    // when true, obtained actors leave the stage (and so return here) once a non-looping animation finishes
+    private boolean freeOnAnimationFinished;
+
+    /**
+     * Creates a pool that keeps at most the given number of free actors.
+     * @param max: maximum number of free actors kept; extra actors are dropped when freed
+     */
+    public BaseActorPool(int max)
+    {
+        this.max = max;
+        this.peak = 0;
+        this.freeActors = new Array<T>(false, Math.min(max, 16));
+        this.freeOnAnimationFinished = false;
+    }
+
+    /**
+     * Creates a new actor when the pool is empty; typically just calls the actor's constructor.
+     * @param x: x-coordinate of new actor
+     * @param y: y-coordinate of new actor
+     * @param stage: stage the new actor is added to
+     * @return new actor
+     */
+    protected abstract T newObject(float x, float y, Stage stage);
+
+    /**
+     * Returns an actor placed at the given position on the given stage; reused if one is free,
+     * otherwise created with <code>newObject</code>. The actor's <code>onObtain</code> hook is called either way.
+     * @param x: x-coordinate of actor
+     * @param y: y-coordinate of actor
+     * @param stage: stage the actor is added to
+     * @return actor ready for use
+     */
+    public T obtain(float x, float y, Stage stage)
+    {
+        T actor;
+
+        if (this.freeActors.size == 0)
+        {
+            actor = this.newObject(x, y, stage);
+            actor.setPool(this);
+        } else
+        {
+            actor = this.freeActors.pop();
+            actor.setPosition(x, y);
+            stage.addActor(actor);
+
+            // joined the stage before leaving the pool, so its textures stay loaded throughout
+            actor.setPooled(false);
+        }
+
+        actor.onObtain();
+        return actor;
+    }
+
+    /**
+     * Returns an actor to the pool, resetting it. Called automatically when a pooled actor
+     * leaves its stage, so there is normally no need to call it directly. <br>
+     * If the pool is full, the actor is dropped instead and its shared textures are released.
+     * @param actor: actor previously obtained from this pool
+     */
+    public void free(T actor)
+    {
+        if (actor.isPooled())
+        {
+            return;
+        }
+
+        // take the actor off its stage first; removing a pooled actor calls free again, which then returns above
+        actor.setPooled(true);
+        actor.remove();
+        actor.reset();
+
+        if (this.freeActors.size < this.max)
+        {
+            this.freeActors.add(actor);
+            this.peak = Math.max(this.peak, this.freeActors.size);
+        } else
+        {
+            this.discard(actor);
+        }
+    }
+
+    /**
+     * Returns an actor that left its stage to the pool; called by BaseActor, which only knows its pool's
+     * element type as a wildcard.
+     * @param actor: actor created by this pool
+     */
+    // the pool is only given to actors its newObject made (see obtain and fill), so the actor is a T
+    @SuppressWarnings("unchecked")
+    void freeActor(BaseActor actor)
+    {
+        this.free((T)actor);
+    }
+
+    /**
+     * Creates actors ahead of time so the first burst of <code>obtain</code> calls does not allocate.
+     * Typically called from a screen's initialize method.
+     * @param count: number of free actors the pool should hold (limited by the maximum)
+     * @param stage: stage the actors are constructed on (they are removed again immediately)
+     */
+    public void fill(int count, Stage stage)
+    {
+        int target = Math.min(count, this.max);
+
+        while (this.freeActors.size < target)
+        {
+            T actor = this.newObject(0, 0, stage);
+            actor.setPool(this);
+
+            // leaving the stage returns it to this pool
+            actor.remove();
+        }
+    }
+
+    /**
+     * Drops every free actor, releasing their shared textures.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < this.freeActors.size; i++)
+        {
+            this.discard(this.freeActors.get(i));
+        }
+        this.freeActors.clear();
+    }
+
+    /**
+     * Set whether actors from this pool return to it automatically when their animation finishes;
+     * useful for one-shot effects.
+     * @param freeOnAnimationFinished: true to remove actors from their stage when their animation is finished
+     */
+    public void setFreeOnAnimationFinished(boolean freeOnAnimationFinished)
+    {
+        this.freeOnAnimationFinished = freeOnAnimationFinished;
+    }
+
+    /**
+     * @return true if actors return to this pool when their animation finishes
+     */
+    public boolean isFreeOnAnimationFinished()
+    {
+        return this.freeOnAnimationFinished;
+    }
+
+    /**
+     * @return number of actors available to be obtained without allocation
+     */
+    public int getFree()
+    {
+        return this.freeActors.size;
+    }
+
+    /**
+     * @return highest number of free actors held at one time
+     */
+    public int getPeak()
+    {
+        return this.peak;
+    }
+
+    /**
+     * @return maximum number of free actors kept
+     */
+    public int getMax()
+    {
+        return this.max;
+    }
+
+    private void discard(T actor)
+    {
+        actor.setPooled(false);
+        actor.setPool(null);
+    }
+}
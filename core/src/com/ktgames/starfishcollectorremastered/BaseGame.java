@@ -1,6 +1,23 @@
 package com.ktgames.starfishcollectorremastered;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Scaling;
+import com.badlogic.gdx.utils.viewport.ScalingViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
 
 public abstract class BaseGame extends Game
 {
@@ -10,6 +27,46 @@ public abstract class BaseGame extends Game
 
     private static BaseGame game;
 
+    /**
+     * Loads the assets screens declare, in the background; created on first use.
+     */
+
+    private static AssetManager assetManager;
+
+    /**
+     * Draws the stages of every screen; created on first use, so a screen switch creates no vertex buffers or shaders.
+     */
+
+    private static SpriteBatch batch;
+
+    /**
+     * Holds the static actors of every StaticLayer, and how many images it has room for; created on first use.
+     */
+
+    private static SpriteCache spriteCache;
+    private static int spriteCacheSize;
+
+    /**
+     * Default font bundled with libGDX and a single white pixel, used by the loading screen and the frame profiler;
+     * created on first use.
+     */
+
+    private static BitmapFont font;
+    private static Texture pixel;
+
+    /**
+     * When true, shared textures are released while the game is paused (in the background) and reloaded
+     * on the first frame after it resumes.
+     */
+
+    private static boolean releaseTexturesOnPause;
+
+    /**
+     * Screen replaced during the current frame, disposed at the start of the next one.
+     */
+
+    private static Screen replacedScreen;
+
     /**
      * Called when game is initialized; stores global reference to game object
      */
@@ -21,11 +78,282 @@ public abstract class BaseGame extends Game
 
     /**
      * Used to switch screens while game is running.
-     * Method is static to simplify usage.
+     * Method is static to simplify usage. <br>
+     * If the screen declares assets (see <code>BaseScreen.declareAssets</code>), a LoadingScreen with a progress bar
+     * is shown while they load, and the new screen is initialized and shown once loading is complete. <br>
+     * The previous screen is disposed, so pass a new screen rather than one shown before.
      */
 
     public static void setActiveScreen(BaseScreen s)
     {
+        Array<AssetDescriptor<?>> assets = new Array<AssetDescriptor<?>>();
+        s.declareAssets(assets);
+
+        if (assets.size == 0)
+        {
+            showScreen(s);
+        } else
+        {
+            showScreen(new LoadingScreen(s, assets, getAssetManager()));
+        }
+    }
+
+    /**
+     * Shows a screen whose assets are already loaded, and disposes the previous one; used by LoadingScreen.
+     */
+
+    static void showScreen(BaseScreen s)
+    {
+        Screen previous = game.getScreen();
         game.setScreen(s);
+
+        // screens are usually switched from their own render method, which still draws its stages afterwards,
+        // so the previous screen is disposed at the start of the next frame; by then the new screen holds the
+        // textures both use, and they stay loaded
+        if (previous != null && previous != s)
+        {
+            disposeReplacedScreen();
+            replacedScreen = previous;
+        }
+    }
+
+    private static void disposeReplacedScreen()
+    {
+        if (replacedScreen == null)
+        {
+            return;
+        }
+
+        Screen disposed = replacedScreen;
+        replacedScreen = null;
+        disposed.dispose();
+
+        if (disposed instanceof BaseScreen && game.getScreen() instanceof BaseScreen)
+        {
+            LeakDetector.checkScreen((BaseScreen)disposed, (BaseScreen)game.getScreen(), assetManager);
+        }
+    }
+
+    /**
+     * Set whether shared textures are released while the game is in the background, e.g. on iOS, where
+     * an app that holds on to its memory is the first to be closed. Off by default.
+     * @param enabled: true to release textures on pause and reload the ones in use after resume
+     */
+
+    public static void setReleaseTexturesOnPause(boolean enabled)
+    {
+        releaseTexturesOnPause = enabled;
+    }
+
+    /**
+     * Returns the asset manager that loads declared assets; AssetRegistry uses the textures it loaded.
+     * @return the game's asset manager
+     */
+
+    public static AssetManager getAssetManager()
+    {
+        if (assetManager == null)
+        {
+            assetManager = new AssetManager();
+            AssetRegistry.setAssetManager(assetManager);
+        }
+
+        return assetManager;
+    }
+
+    /**
+     * Returns the batch every BaseScreen's stages draw with. One batch (one vertex buffer and shader) serves
+     * all stages, since they draw one after another; it is disposed with the game, not with a screen.
+     * @return the game's sprite batch
+     */
+
+    public static Batch getBatch()
+    {
+        if (batch == null)
+        {
+            batch = new SpriteBatch();
+        }
+
+        return batch;
+    }
+
+    /**
+     * Returns the sprite cache StaticLayer draws static actors from. Like the batch it is created once, not per
+     * screen; when it is too small for the images asked for, it is replaced by one with room to spare.
+     * @param size: number of images the cache must hold
+     * @return the game's sprite cache
+     */
+
+    static SpriteCache getSpriteCache(int size)
+    {
+        if (spriteCache == null || size > spriteCacheSize)
+        {
+            if (spriteCache != null)
+            {
+                spriteCache.dispose();
+            }
+            spriteCacheSize = Math.max(64, size * 2);
+            spriteCache = new SpriteCache(spriteCacheSize, false);
+        }
+
+        return spriteCache;
+    }
+
+    /**
+     * Returns the default font bundled with libGDX, shared by every screen; do not dispose it.
+     * @return the game's default font
+     */
+
+    public static BitmapFont getFont()
+    {
+        if (font == null)
+        {
+            font = new BitmapFont();
+        }
+
+        return font;
+    }
+
+    /**
+     * Returns a single white pixel, shared by every screen, to be stretched and tinted into bars and lines;
+     * do not dispose it.
+     * @return the game's white pixel texture
+     */
+
+    public static Texture getPixel()
+    {
+        if (pixel == null)
+        {
+            Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+            pixmap.setColor(Color.WHITE);
+            pixmap.fill();
+            pixel = new Texture(pixmap);
+            pixmap.dispose();
+        }
+
+        return pixel;
+    }
+
+    /**
+     * @return number of textures loaded from files that the game itself holds (the font's pages); used by LeakDetector
+     */
+
+    static int getSharedTextureCount()
+    {
+        return font == null ? 0 : font.getRegions().size;
+    }
+
+    /**
+     * Creates the viewport of a new stage: the whole window, stretched, like a Stage created without one.
+     * @return new viewport with its own camera
+     */
+
+    public static Viewport createViewport()
+    {
+        return new ScalingViewport(Scaling.stretch, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(),
+                new OrthographicCamera());
+    }
+
+    /**
+     * Renders the active screen; input is sampled (or replayed, see GameInput) once at the start of each frame,
+     * and the screen advances by the frame time GameInput returns.
+     */
+
+    @Override
+    public void render()
+    {
+        disposeReplacedScreen();
+
+        // textures released while paused are loaded when the game is drawn again, not as soon as it resumes
+        if (AssetRegistry.isReleased())
+        {
+            AssetRegistry.restoreTextures();
+            StaticLayer.invalidateAll();
+        }
+
+        // the shared batch starts each frame as a new one would, whatever the last screen left set
+        if (batch != null)
+        {
+            batch.setColor(Color.WHITE);
+            batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+            batch.setShader(null);
+        }
+
+        float dt = GameInput.beginFrame(Gdx.graphics.getDeltaTime());
+
+        if (this.screen != null)
+        {
+            this.screen.render(dt);
+        }
+
+        GameInput.endFrame();
+    }
+
+    /**
+     * Called when the game goes to the background; releases the shared textures if setReleaseTexturesOnPause is on.
+     */
+
+    @Override
+    public void pause()
+    {
+        super.pause();
+
+        if (releaseTexturesOnPause)
+        {
+            AssetRegistry.releaseTextures();
+        }
+    }
+
+    /**
+     * Called when the application is closed; disposes the active screen, releases the textures shared
+     * between actors and the shared batch, cache, font and pixel, and writes the input recording, if one was made.
+     */
+
+    @Override
+    public void dispose()
+    {
+        super.dispose();
+        disposeReplacedScreen();
+        if (this.screen != null)
+        {
+            this.screen.dispose();
+        }
+
+        AssetRegistry.disposeAll();
+        GameInput.finish();
+
+        if (assetManager != null)
+        {
+            assetManager.dispose();
+            assetManager = null;
+            AssetRegistry.setAssetManager(null);
+        }
+
+        if (batch != null)
+        {
+            batch.dispose();
+            batch = null;
+        }
+
+        if (spriteCache != null)
+        {
+            spriteCache.dispose();
+            spriteCache = null;
+            spriteCacheSize = 0;
+        }
+
+        if (font != null)
+        {
+            font.dispose();
+            font = null;
+        }
+
+        if (pixel != null)
+        {
+            pixel.dispose();
+            pixel = null;
+        }
+
+        LeakDetector.checkExit();
     }
 }
@@ -1,9 +1,18 @@
 package com.ktgames.starfishcollectorremastered;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectSet;
 
 
 public abstract class BaseScreen implements Screen
@@ -11,16 +20,74 @@ public abstract class BaseScreen implements Screen
     protected Stage mainStage;
     protected Stage uiStage;
 
+    // --Fixed Timestep Data--
+    // when enabled, game logic advances in steps of exactly fixedStep seconds, however long frames take
+    private boolean fixedTimestep;
+    private float fixedStep;
+    // most steps simulated in one frame; a slow frame never triggers an ever-growing backlog of steps
+    private int maxStepsPerFrame;
+    // time that has passed but not yet been simulated
+    private float accumulator;
+
+    // actor the main stage camera is centered on before every draw, or null
+    private BaseActor cameraTarget;
+
+    // on-screen timing of the game loop phases, created the first time it is toggled on (F3)
+    private FrameProfiler profiler;
+
+    // initialize runs once, after the screen's declared assets are loaded
+    private boolean initialized;
+
+    // resources disposed with the screen, in the order they were added; see own
+    private final Array<Disposable> resources;
+    private boolean disposed;
+
     public BaseScreen()
     {
-        this.mainStage = new Stage();
-        this.uiStage = new Stage();
+        this.resources = new Array<Disposable>();
+        this.disposed = false;
+
+        // both stages draw with the game's batch, which they do not dispose
+        this.mainStage = this.own(new Stage(BaseGame.createViewport(), BaseGame.getBatch()));
+        this.uiStage = this.own(new Stage(BaseGame.createViewport(), BaseGame.getBatch()));
 
-        initialize();
+        // acts the main stage like the default root, or in parallel once setParallelAct is called
+        this.mainStage.setRoot(new ParallelRoot());
+
+        this.fixedTimestep = false;
+        this.fixedStep = 1/60f;
+        this.maxStepsPerFrame = 5;
+        this.accumulator = 0;
+
+        // initialize is called when the screen is shown (BaseGame loads declared assets first)
+        this.initialized = false;
     }
 
+    /**
+     * Adds the assets this screen's initialize method uses, e.g.
+     * <code>assets.add(new AssetDescriptor&lt;Texture&gt;("rock.png", Texture.class))</code>. <br>
+     * BaseGame.setActiveScreen loads them in the background behind a LoadingScreen before calling initialize,
+     * so the game does not freeze while images are decoded. Textures are then taken over by AssetRegistry
+     * when actors load them; other assets can be fetched from <code>BaseGame.getAssetManager()</code>
+     * and are the screen's to unload. Files that are not declared are still loaded, just not in advance.
+     * @param assets: list to add asset descriptors to
+     */
+    public void declareAssets(Array<AssetDescriptor<?>> assets) {}
+
     public abstract void initialize();
 
+    /**
+     * Calls initialize, the first time only.
+     */
+    void start()
+    {
+        if (!this.initialized)
+        {
+            this.initialized = true;
+            this.initialize();
+        }
+    }
+
     public abstract void update(float dt);
 
     /*
@@ -32,33 +99,325 @@ public abstract class BaseScreen implements Screen
 
     public void render(float dt)
     {
-
-        // act methods
-        this.uiStage.act(dt);
-        this.mainStage.act(dt);
-
-        // defined by user
-        this.update(dt);
+        if (GameInput.isKeyJustPressed(Input.Keys.F3))
+        {
+            this.toggleProfiler();
+        }
+
+        boolean profiling = this.isProfilerVisible();
+        if (profiling)
+        {
+            this.profiler.beginFrame();
+        }
+
+        if (this.fixedTimestep)
+        {
+            this.stepFixed(dt);
+        } else
+        {
+            // act methods
+            this.uiStage.act(dt);
+            this.lap(FrameProfiler.UI_ACT);
+            this.mainStage.act(dt);
+            this.lap(FrameProfiler.MAIN_ACT);
+
+            // defined by user
+            this.update(dt);
+            this.lap(FrameProfiler.UPDATE);
+        }
 
         // clear the screen
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        if (profiling)
+        {
+            this.profiler.skip();
+        }
+
+        // the camera follows its target where it is drawn, which with a fixed timestep lies between two steps
+        if (this.cameraTarget != null && this.cameraTarget.getStage() == this.mainStage)
+        {
+            this.cameraTarget.alignCamera();
+        }
+
+        // draw the graphics (in layers, if setLayeredDraw turned that on)
+        DrawQueue.draw(this.mainStage);
+        this.lap(FrameProfiler.MAIN_DRAW);
+        DrawQueue.draw(this.uiStage);
+        this.lap(FrameProfiler.UI_DRAW);
+
+        if (profiling)
+        {
+            this.profiler.endFrame();
+        }
+    }
+
+    /**
+     * Shows or hides the frame profiler on the ui stage; also bound to the F3 key.
+     */
+    public void toggleProfiler()
+    {
+        if (this.profiler == null)
+        {
+            this.profiler = this.own(new FrameProfiler(this.mainStage, this.uiStage));
+        }
+
+        this.profiler.setVisible(!this.profiler.isVisible());
+    }
+
+    /**
+     * @return true if the frame profiler is currently shown
+     */
+    public boolean isProfilerVisible()
+    {
+        return this.profiler != null && this.profiler.isVisible();
+    }
+
+    // records the time since the previous phase ended, when the profiler is shown
+    private void lap(int phase)
+    {
+        if (this.isProfilerVisible())
+        {
+            this.profiler.lap(phase);
+        }
+    }
+
+    /**
+     * Runs as many fixed-length steps of game logic as the elapsed time allows (at most maxStepsPerFrame),
+     * then tells BaseActor how far between the last two steps the frame is drawn.
+     * @param dt: elapsed time (second) since last frame
+     */
+    private void stepFixed(float dt)
+    {
+        this.accumulator += dt;
+
+        int steps = 0;
+        while (this.accumulator >= this.fixedStep && steps < this.maxStepsPerFrame)
+        {
+            // remember where every actor was, so drawing can blend between this step and the next
+            BaseActor.savePreviousTransforms(this.uiStage);
+            BaseActor.savePreviousTransforms(this.mainStage);
+
+            this.uiStage.act(this.fixedStep);
+            this.lap(FrameProfiler.UI_ACT);
+            this.mainStage.act(this.fixedStep);
+            this.lap(FrameProfiler.MAIN_ACT);
+            this.update(this.fixedStep);
+            this.lap(FrameProfiler.UPDATE);
+
+            this.accumulator -= this.fixedStep;
+            steps++;
+        }
+
+        // too far behind to catch up: drop the backlog rather than spending ever more time simulating
+        if (this.accumulator >= this.fixedStep)
+        {
+            this.accumulator = this.accumulator % this.fixedStep;
+        }
+
+        BaseActor.setInterpolationAlpha(this.accumulator / this.fixedStep);
+    }
+
+    /**
+     * Advance game logic in fixed steps instead of once per frame with the frame's delta time.
+     * Movement then no longer depends on frame rate, and actors are drawn interpolated between steps.
+     * @param step: length of one step (second), e.g. 1/60f
+     * @param maxStepsPerFrame: most steps simulated in a single frame; extra time is dropped
+     */
+    public void setFixedTimestep(float step, int maxStepsPerFrame)
+    {
+        this.fixedTimestep = true;
+        this.fixedStep = step;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+        this.accumulator = 0;
+    }
+
+    /**
+     * Return to advancing game logic once per frame with the frame's delta time (the default).
+     */
+    public void disableFixedTimestep()
+    {
+        this.fixedTimestep = false;
+        this.accumulator = 0;
+        BaseActor.setInterpolationAlpha(1);
+    }
+
+    /**
+     * @return true if game logic advances in fixed steps
+     */
+    public boolean isFixedTimestep()
+    {
+        return this.fixedTimestep;
+    }
+
+    /**
+     * Keep the main stage camera centered on an actor (within the world bounds), aligned just before
+     * every draw so it moves exactly with the actor as drawn, also between fixed timesteps.
+     * @param actor: actor on the main stage to follow, or null to leave the camera where it is
+     */
+    public void setCameraTarget(BaseActor actor)
+    {
+        this.cameraTarget = actor;
+    }
+
+    /**
+     * Act the thread-safe actors of the main stage (see BaseActor.isThreadSafe) on several threads,
+     * before the other actors, which are still acted one after another on the render thread.
+     * Only backends that install a ParallelAct executor use more than one thread (the desktop backend does);
+     * elsewhere the actors are acted in the same order, just on the render thread.
+     * @param enabled: true to act thread-safe actors in parallel; off by default
+     */
+    public void setParallelAct(boolean enabled)
+    {
+        ((ParallelRoot)this.mainStage.getRoot()).setParallel(enabled);
+    }
+
+    /**
+     * @return true if thread-safe actors of the main stage are acted in parallel
+     */
+    public boolean isParallelAct()
+    {
+        return ((ParallelRoot)this.mainStage.getRoot()).isParallel();
+    }
 
-        // draw the graphics
-        this.mainStage.draw();
-        this.uiStage.draw();
+    /**
+     * Draw the main stage in layers (background, props, actors, effects; see BaseActor.setDrawLayer),
+     * with the actors of each layer sorted by texture so the batch flushes less often, instead of in the
+     * order actors were added to the stage.
+     * @param enabled: true to draw the main stage through a DrawQueue; off by default
+     */
+    public void setLayeredDraw(boolean enabled)
+    {
+        DrawQueue.get(this.mainStage).setEnabled(enabled);
+    }
+
+    /**
+     * @return true if the main stage is drawn in layers
+     */
+    public boolean isLayeredDraw()
+    {
+        DrawQueue queue = DrawQueue.find(this.mainStage);
+        return queue != null && queue.isEnabled();
+    }
+
+    /**
+     * @return GPU memory (bytes) of the textures the actors on this screen's stages draw from, to compare
+     *         against the texture budget of a device (see AssetRegistry.setTextureBudget)
+     */
+    public long getTextureMemory()
+    {
+        return AssetRegistry.getTextureMemory(this.mainStage, this.uiStage);
+    }
+
+    /**
+     * Makes a resource part of this screen, so it is disposed with the screen, e.g. a font or a texture
+     * made from a Pixmap. Shared animations need no such care: actors release them when they leave the stage.
+     * @param resource: resource the screen created
+     * @return the resource
+     */
+    public <T extends Disposable> T own(T resource)
+    {
+        this.resources.add(resource);
+        return resource;
+    }
+
+    /**
+     * @return number of textures loaded from files (the ones libGDX counts) that this screen owns; see LeakDetector
+     */
+    int getOwnedTextureCount()
+    {
+        ObjectSet<Texture> textures = new ObjectSet<Texture>();
+
+        for (Disposable resource : this.resources)
+        {
+            if (resource instanceof Texture)
+            {
+                textures.add((Texture)resource);
+            } else if (resource instanceof TextureAtlas)
+            {
+                for (Texture page : ((TextureAtlas)resource).getTextures())
+                {
+                    textures.add(page);
+                }
+            } else if (resource instanceof BitmapFont)
+            {
+                for (TextureRegion region : ((BitmapFont)resource).getRegions())
+                {
+                    textures.add(region.getTexture());
+                }
+            }
+        }
+
+        int count = 0;
+        for (Texture texture : textures)
+        {
+            if (texture.isManaged())
+            {
+                count++;
+            }
+        }
+        return count;
     }
 
     // methods required by Screen interface
     public void resize(int width, int height){}
 
+    /**
+     * Called when the game goes to the background; BaseGame releases the shared textures afterwards if
+     * BaseGame.setReleaseTexturesOnPause is on, and loads the ones still used on the first frame after resume.
+     */
     public void pause(){}
 
     public void resume(){}
 
-    public void dispose(){}
+    /**
+     * Frees everything the screen holds; BaseGame calls it when another screen replaces this one, so a
+     * screen is not shown again afterwards. Actors leave the stages, releasing their shared animations,
+     * the stages' helpers (culling, spatial hash, draw queue, static layer, actor registry) are forgotten,
+     * and the stages and the resources the screen owns are disposed (the batch is the game's). Screens that keep
+     * actors off the stage, such as in a BaseActorPool, release those here too.
+     */
+    public void dispose()
+    {
+        if (this.disposed)
+        {
+            return;
+        }
+        this.disposed = true;
+        this.cameraTarget = null;
+
+        this.clearStage(this.mainStage);
+        this.clearStage(this.uiStage);
+
+        for (int i = this.resources.size - 1; i >= 0; i--)
+        {
+            this.resources.get(i).dispose();
+        }
+        this.resources.clear();
+    }
+
+    private void clearStage(Stage stage)
+    {
+        stage.clear();
 
-    public void show(){}
+        ViewCuller.detach(stage);
+        SpatialHash.detach(stage);
+        ActorRegistry.detach(stage);
+        DrawQueue.detach(stage);
+        StaticLayer.detach(stage);
+    }
+
+    // a screen set without BaseGame.setActiveScreen is initialized here, loading its assets directly
+    public void show()
+    {
+        // the interpolation alpha is shared by all screens; one without a fixed timestep draws at the current step
+        if (!this.fixedTimestep)
+        {
+            BaseActor.setInterpolationAlpha(1);
+        }
+
+        this.start();
+    }
 
     public void hide(){}
 }
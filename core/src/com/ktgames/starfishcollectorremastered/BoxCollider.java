@@ -0,0 +1,83 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.math.Polygon;
+
+// Box collider: an axis-aligned rectangle, tested with comparisons only. When the actor is rotated
+// (other than by a multiple of 180 degrees) the box is no longer axis-aligned and is tested as a polygon.
+
+public class BoxCollider extends Collider
+{
+    // rectangle in the actor's coordinates
+    private float x, y, width, height;
+
+    // while axis-aligned: the rectangle in world coordinates
+    float minX, minY, maxX, maxY;
+    boolean axisAligned;
+
+    // the rectangle as a polygon in world coordinates
+    private final Polygon polygon;
+    private final float[] vertices;
+
+    /**
+     * @param x: x-coordinate of the bottom-left corner, relative to the actor's bottom-left corner
+     * @param y: y-coordinate of the bottom-left corner, relative to the actor's bottom-left corner
+     * @param width: width (pixels)
+     * @param height: height (pixels)
+     */
+    public BoxCollider(float x, float y, float width, float height)
+    {
+        super(BOX);
+
+        this.vertices = new float[8];
+        this.polygon = new Polygon(this.vertices);
+        this.set(x, y, width, height);
+    }
+
+    /**
+     * @param x: x-coordinate of the bottom-left corner, relative to the actor's bottom-left corner
+     * @param y: y-coordinate of the bottom-left corner, relative to the actor's bottom-left corner
+     * @param width: width (pixels)
+     * @param height: height (pixels)
+     */
+    public void set(float x, float y, float width, float height)
+    {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.invalidate();
+    }
+
+    @Override
+    protected void transformed()
+    {
+        // corners in the same order as setBoundaryRectangle
+        float[] v = this.vertices;
+        v[0] = this.worldX(this.x, this.y);
+        v[1] = this.worldY(this.x, this.y);
+        v[2] = this.worldX(this.x + this.width, this.y);
+        v[3] = this.worldY(this.x + this.width, this.y);
+        v[4] = this.worldX(this.x + this.width, this.y + this.height);
+        v[5] = this.worldY(this.x + this.width, this.y + this.height);
+        v[6] = this.worldX(this.x, this.y + this.height);
+        v[7] = this.worldY(this.x, this.y + this.height);
+
+        this.minX = Math.min(Math.min(v[0], v[2]), Math.min(v[4], v[6]));
+        this.minY = Math.min(Math.min(v[1], v[3]), Math.min(v[5], v[7]));
+        this.maxX = Math.max(Math.max(v[0], v[2]), Math.max(v[4], v[6]));
+        this.maxY = Math.max(Math.max(v[1], v[3]), Math.max(v[5], v[7]));
+        this.axisAligned = this.isAxisAligned();
+
+        this.bounds.set(this.minX, this.minY, this.maxX - this.minX, this.maxY - this.minY);
+
+        // setVertices makes the polygon pick up the new corners
+        this.polygon.setVertices(v);
+    }
+
+    @Override
+    public Polygon getPolygon(BaseActor actor)
+    {
+        this.update(actor);
+        return this.polygon;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+
+// Capsule collider: every point within a radius of a line segment, i.e. a rectangle with round ends.
+// Fits long, rounded actors (a swimming turtle, a fish) better than a circle or an ellipse-shaped octagon.
+
+public class CapsuleCollider extends Collider
+{
+    // number of edges around each round end of the polygon approximation
+    private static final int END_SEGMENTS = 4;
+
+    // segment and radius in the actor's coordinates
+    private float startX, startY, endX, endY, radius;
+
+    // segment and radius in world coordinates
+    float worldStartX, worldStartY, worldEndX, worldEndY, worldRadius;
+
+    // the capsule with its ends drawn as half polygons, made when first asked for
+    private Polygon polygon;
+    private float[] vertices;
+
+    /**
+     * @param startX: x-coordinate of one end of the segment, relative to the actor's bottom-left corner
+     * @param startY: y-coordinate of one end of the segment
+     * @param endX: x-coordinate of the other end of the segment
+     * @param endY: y-coordinate of the other end of the segment
+     * @param radius: distance from the segment to the capsule's edge (pixels)
+     */
+    public CapsuleCollider(float startX, float startY, float endX, float endY, float radius)
+    {
+        super(CAPSULE);
+        this.set(startX, startY, endX, endY, radius);
+    }
+
+    /**
+     * Capsule filling a rectangle, lying along its longer side.
+     * @param width: width of rectangle
+     * @param height: height of rectangle
+     * @return new collider
+     */
+    public static CapsuleCollider fit(float width, float height)
+    {
+        if (width >= height)
+        {
+            float r = height / 2;
+            return new CapsuleCollider(r, r, width - r, r, r);
+        }
+
+        float r = width / 2;
+        return new CapsuleCollider(r, r, r, height - r, r);
+    }
+
+    /**
+     * @param startX: x-coordinate of one end of the segment, relative to the actor's bottom-left corner
+     * @param startY: y-coordinate of one end of the segment
+     * @param endX: x-coordinate of the other end of the segment
+     * @param endY: y-coordinate of the other end of the segment
+     * @param radius: distance from the segment to the capsule's edge (pixels)
+     */
+    public void set(float startX, float startY, float endX, float endY, float radius)
+    {
+        this.startX = startX;
+        this.startY = startY;
+        this.endX = endX;
+        this.endY = endY;
+        this.radius = radius;
+        this.invalidate();
+    }
+
+    @Override
+    protected void transformed()
+    {
+        this.worldStartX = this.worldX(this.startX, this.startY);
+        this.worldStartY = this.worldY(this.startX, this.startY);
+        this.worldEndX = this.worldX(this.endX, this.endY);
+        this.worldEndY = this.worldY(this.endX, this.endY);
+        this.worldRadius = this.worldLength(this.radius);
+
+        float minX = Math.min(this.worldStartX, this.worldEndX) - this.worldRadius;
+        float minY = Math.min(this.worldStartY, this.worldEndY) - this.worldRadius;
+        float maxX = Math.max(this.worldStartX, this.worldEndX) + this.worldRadius;
+        float maxY = Math.max(this.worldStartY, this.worldEndY) + this.worldRadius;
+        this.bounds.set(minX, minY, maxX - minX, maxY - minY);
+
+        if (this.polygon != null)
+        {
+            this.updatePolygon();
+        }
+    }
+
+    @Override
+    public Polygon getPolygon(BaseActor actor)
+    {
+        this.update(actor);
+
+        if (this.polygon == null)
+        {
+            this.vertices = new float[4 * (END_SEGMENTS + 1)];
+            this.polygon = new Polygon(this.vertices);
+            this.updatePolygon();
+        }
+
+        return this.polygon;
+    }
+
+    // half polygon around the end, then around the start, counterclockwise
+    private void updatePolygon()
+    {
+        float angle = MathUtils.atan2(this.worldEndY - this.worldStartY, this.worldEndX - this.worldStartX);
+        int k = 0;
+
+        for (int i = 0; i <= END_SEGMENTS; i++)
+        {
+            float a = angle - MathUtils.PI / 2 + i * MathUtils.PI / END_SEGMENTS;
+            this.vertices[k++] = this.worldEndX + this.worldRadius * MathUtils.cos(a);
+            this.vertices[k++] = this.worldEndY + this.worldRadius * MathUtils.sin(a);
+        }
+        for (int i = 0; i <= END_SEGMENTS; i++)
+        {
+            float a = angle + MathUtils.PI / 2 + i * MathUtils.PI / END_SEGMENTS;
+            this.vertices[k++] = this.worldStartX + this.worldRadius * MathUtils.cos(a);
+            this.vertices[k++] = this.worldStartY + this.worldRadius * MathUtils.sin(a);
+        }
+
+        this.polygon.setVertices(this.vertices);
+    }
+}
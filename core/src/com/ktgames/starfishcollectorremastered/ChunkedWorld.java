@@ -0,0 +1,569 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Comparator;
+
+// Streams a large world onto a stage in square chunks around the camera.
+// Only the chunks near what the camera shows have their background tile and actors on the stage;
+// the rest of the world is kept as compact spawn data (type and position per actor). Each frame the
+// world works out which chunks are needed, removes actors of chunks that fell out of range and creates
+// actors of newly needed chunks, nearest first, within a time budget so a chunk coming into range
+// is spread over several frames instead of causing a hitch. Memory therefore depends on the size of
+// the view, not the size of the world.
+//
+// The world is itself an (invisible) actor on the stage: its place in the draw order separates the
+// streamed tiles and actors, which are kept below it, from actors the screen adds later, such as the player.
+// Normally created by LevelLoader for level files with a 'chunks' statement.
+
+public class ChunkedWorld extends Actor
+{
+    // worlds on stages, looked up by the frame profiler
+    private static ObjectMap<Stage, ChunkedWorld> stageWorlds = new ObjectMap<Stage, ChunkedWorld>();
+
+    private final float chunkSize;
+    private final int columns;
+    private final int rows;
+
+    // background image stretched over each chunk (may be null)
+    private final String tileImage;
+
+    // -- spawn data, kept for the whole world --
+    private Array<String> typeNames;
+    private Array<LevelLoader.Factory> typeFactories;
+    private ByteArray typeShapes;
+    private Array<float[]> typeVertices;
+    private FloatArray typeSizes;
+
+    private IntArray spawnTypes;
+    private FloatArray spawnPositions;
+
+    // spawns whose actor left the stage on its own (e.g. a collected starfish); they are not created again
+    private BooleanArray spawnGone;
+
+    // type number -> spawns of the type that are not gone and have no actor on the stage right now
+    private IntArray typeWaiting;
+
+    // chunk key -> chunk; only chunks holding spawns, or resident, exist
+    private IntMap<Chunk> chunks;
+
+    // -- streaming state --
+    private Array<Chunk> residentChunks;
+    private Array<Chunk> pendingChunks;
+
+    // chunks this far (pixels) outside the view are loaded ahead of time,
+    // and only unloaded once they are one more chunk away, so chunks at the edge do not load and unload repeatedly
+    private float loadMargin;
+
+    // time per frame spent creating actors (nanoseconds); at least one actor is created each frame
+    private long loadBudgetNanos;
+
+    // -- stats --
+    private int chunksLoaded;
+    private int chunksUnloaded;
+    private float lastLoadLatency;
+    private float maxLoadLatency;
+    private float totalLoadLatency;
+
+    private static class Chunk
+    {
+        final int column;
+        final int row;
+
+        // indices into the spawn arrays
+        final IntArray spawns = new IntArray(false, 8);
+
+        // actors created for this chunk and the tile, while loading or resident
+        final Array<BaseActor> actors = new Array<BaseActor>(false, 8);
+        BaseActor tile;
+
+        // next spawn to create while loading
+        int nextSpawn;
+
+        boolean pending;
+        boolean resident;
+
+        // when the chunk was first needed (nanoseconds), to measure load latency
+        long requestTime;
+
+        // distance from the camera, used to load nearer chunks first
+        float distance;
+
+        Chunk(int column, int row)
+        {
+            this.column = column;
+            this.row = row;
+        }
+    }
+
+    /**
+     * Creates an empty chunked world and adds it to the stage; sets the world bounds.
+     * @param stage: stage the world streams onto
+     * @param width: width of the whole world (pixels)
+     * @param height: height of the whole world (pixels)
+     * @param chunkSize: width and height of a chunk (pixels); a little smaller than the view works well
+     * @param tileImage: image stretched over each chunk as background, or null for none
+     */
+    public ChunkedWorld(Stage stage, float width, float height, float chunkSize, String tileImage)
+    {
+        this.chunkSize = chunkSize;
+        this.columns = (int)Math.ceil(width / chunkSize);
+        this.rows = (int)Math.ceil(height / chunkSize);
+        this.tileImage = tileImage;
+
+        this.typeNames = new Array<String>();
+        this.typeFactories = new Array<LevelLoader.Factory>();
+        this.typeShapes = new ByteArray();
+        this.typeVertices = new Array<float[]>();
+        this.typeSizes = new FloatArray();
+
+        this.spawnTypes = new IntArray();
+        this.spawnPositions = new FloatArray();
+        this.spawnGone = new BooleanArray();
+        this.typeWaiting = new IntArray();
+
+        this.chunks = new IntMap<Chunk>();
+        this.residentChunks = new Array<Chunk>(false, 16);
+        this.pendingChunks = new Array<Chunk>(false, 16);
+
+        this.loadMargin = chunkSize / 2;
+        this.loadBudgetNanos = 2000000;
+
+        this.setSize(width, height);
+        BaseActor.setWorldBounds(width, height);
+
+        stage.addActor(this);
+    }
+
+    /**
+     * @param stage: stage to look up
+     * @return chunked world streaming onto the stage, or null if there is none
+     */
+    public static ChunkedWorld get(Stage stage)
+    {
+        return stageWorlds.get(stage);
+    }
+
+    //----------------------------
+    // World content
+    //----------------------------
+
+    /**
+     * Adds an actor type to the world.
+     * @param name: type name, as registered with the level loader
+     * @param factory: creates actors of the type
+     * @param shape: collision shape of the type, one of LevelLoader's SHAPE constants
+     * @param vertices: shared collision polygon for actors of the type, or null to keep the one their constructor makes
+     * @param width: actor width the polygon was made for
+     * @param height: actor height the polygon was made for
+     * @return type number used by <code>addSpawn</code>
+     */
+    public int addType(String name, LevelLoader.Factory factory, byte shape, float[] vertices, float width, float height)
+    {
+        this.typeNames.add(name);
+        this.typeFactories.add(factory);
+        this.typeShapes.add(shape);
+        this.typeVertices.add(vertices);
+        this.typeSizes.add(width);
+        this.typeSizes.add(height);
+        this.typeWaiting.add(0);
+        return this.typeFactories.size - 1;
+    }
+
+    /**
+     * Adds an actor to the world; it is created when its chunk comes into range.
+     * @param type: type number returned by <code>addType</code>
+     * @param x: x-coordinate of actor
+     * @param y: y-coordinate of actor
+     */
+    public void addSpawn(int type, float x, float y)
+    {
+        int spawn = this.spawnTypes.size;
+        this.spawnTypes.add(type);
+        this.spawnPositions.add(x);
+        this.spawnPositions.add(y);
+        this.spawnGone.add(false);
+        this.typeWaiting.incr(type, 1);
+
+        // actors placed on or past the edge of the world belong to the nearest chunk
+        int column = MathUtils.clamp(this.column(x), 0, this.columns - 1);
+        int row = MathUtils.clamp(this.row(y), 0, this.rows - 1);
+        this.getChunk(column, row).spawns.add(spawn);
+    }
+
+    /**
+     * Counts actors of a type that are still part of the world but not on the stage, because their
+     * chunk is out of range (or not created yet); together with the actors on the stage this is
+     * everything left of the type.
+     * @param typeName: type name, as registered with the level loader
+     * @return number of actors of the type waiting to be created
+     */
+    public int getWaitingCount(String typeName)
+    {
+        int count = 0;
+        for (int type = 0; type < this.typeNames.size; type++)
+        {
+            if (this.typeNames.get(type).equals(typeName))
+            {
+                count += this.typeWaiting.get(type);
+            }
+        }
+        return count;
+    }
+
+    //----------------------------
+    // Settings
+    //----------------------------
+
+    /**
+     * Set how far outside the view chunks are loaded ahead of time.
+     * @param margin: distance (pixels); default is half a chunk
+     */
+    public void setLoadMargin(float margin)
+    {
+        this.loadMargin = margin;
+    }
+
+    /**
+     * Set how much time per frame may be spent creating actors of incoming chunks.
+     * @param millis: time budget (milliseconds); default is 2
+     */
+    public void setLoadBudget(float millis)
+    {
+        this.loadBudgetNanos = (long)(millis * 1000000);
+    }
+
+    //----------------------------
+    // Streaming
+    //----------------------------
+
+    @Override
+    protected void setStage(Stage stage)
+    {
+        if (this.getStage() != null && stage == null)
+        {
+            stageWorlds.remove(this.getStage());
+        }
+
+        super.setStage(stage);
+
+        if (stage != null)
+        {
+            stageWorlds.put(stage, this);
+        }
+    }
+
+    /**
+     * Loads and unloads chunks around the stage's camera; called every frame by the stage.
+     * @param dt: elapsed time (seconds) since the last frame
+     */
+    @Override
+    public void act(float dt)
+    {
+        super.act(dt);
+
+        Camera camera = this.getStage().getCamera();
+        float zoom = (camera instanceof OrthographicCamera) ? ((OrthographicCamera)camera).zoom : 1;
+        float halfWidth = camera.viewportWidth * zoom / 2;
+        float halfHeight = camera.viewportHeight * zoom / 2;
+        float cameraX = camera.position.x;
+        float cameraY = camera.position.y;
+
+        // -- unload chunks that are well out of range --
+        float keep = this.loadMargin + this.chunkSize;
+        for (int i = this.residentChunks.size - 1; i >= 0; i--)
+        {
+            Chunk chunk = this.residentChunks.get(i);
+            if (!this.inRange(chunk, cameraX, cameraY, halfWidth + keep, halfHeight + keep))
+            {
+                this.residentChunks.removeIndex(i);
+                this.unload(chunk);
+            }
+        }
+        for (int i = this.pendingChunks.size - 1; i >= 0; i--)
+        {
+            Chunk chunk = this.pendingChunks.get(i);
+            if (!this.inRange(chunk, cameraX, cameraY, halfWidth + keep, halfHeight + keep))
+            {
+                this.pendingChunks.removeIndex(i);
+                this.unload(chunk);
+            }
+        }
+
+        // -- queue chunks coming into range --
+        int minColumn = Math.max(this.column(cameraX - halfWidth - this.loadMargin), 0);
+        int maxColumn = Math.min(this.column(cameraX + halfWidth + this.loadMargin), this.columns - 1);
+        int minRow = Math.max(this.row(cameraY - halfHeight - this.loadMargin), 0);
+        int maxRow = Math.min(this.row(cameraY + halfHeight + this.loadMargin), this.rows - 1);
+
+        boolean queued = false;
+        for (int column = minColumn; column <= maxColumn; column++)
+        {
+            for (int row = minRow; row <= maxRow; row++)
+            {
+                Chunk chunk = this.getChunk(column, row);
+                if (!chunk.resident && !chunk.pending)
+                {
+                    chunk.pending = true;
+                    chunk.nextSpawn = 0;
+                    chunk.requestTime = TimeUtils.nanoTime();
+                    this.pendingChunks.add(chunk);
+                    queued = true;
+                }
+            }
+        }
+
+        // -- create actors, nearest chunk first, until the budget is used up --
+        if (this.pendingChunks.size == 0)
+        {
+            return;
+        }
+
+        if (queued || this.pendingChunks.size > 1)
+        {
+            for (int i = 0; i < this.pendingChunks.size; i++)
+            {
+                Chunk chunk = this.pendingChunks.get(i);
+                float dx = (chunk.column + 0.5f) * this.chunkSize - cameraX;
+                float dy = (chunk.row + 0.5f) * this.chunkSize - cameraY;
+                chunk.distance = dx * dx + dy * dy;
+            }
+            this.pendingChunks.sort(CHUNK_DISTANCE);
+        }
+
+        // while a session is recorded or replayed (see GameInput), every pending chunk is created the frame
+        // it is needed: the time budget would make that frame depend on the speed of the machine, and
+        // replays must stay frame-exact
+        boolean deterministic = GameInput.isDeterministic();
+
+        long start = TimeUtils.nanoTime();
+        do
+        {
+            Chunk chunk = this.pendingChunks.first();
+
+            if (this.loadNext(chunk))
+            {
+                this.pendingChunks.removeIndex(0);
+                chunk.pending = false;
+                chunk.resident = true;
+                this.residentChunks.add(chunk);
+
+                float latency = (TimeUtils.nanoTime() - chunk.requestTime) / 1000000f;
+                this.chunksLoaded++;
+                this.lastLoadLatency = latency;
+                this.maxLoadLatency = Math.max(this.maxLoadLatency, latency);
+                this.totalLoadLatency += latency;
+            }
+        } while (this.pendingChunks.size > 0 && (deterministic || TimeUtils.nanoTime() - start < this.loadBudgetNanos));
+    }
+
+    // creates the tile or the next actor of a loading chunk; returns true once the chunk is complete
+    private boolean loadNext(Chunk chunk)
+    {
+        Stage stage = this.getStage();
+
+        if (chunk.tile == null && this.tileImage != null)
+        {
+            chunk.tile = new BaseActor(chunk.column * this.chunkSize, chunk.row * this.chunkSize, stage);
+            chunk.tile.loadTexture(this.tileImage);
+            chunk.tile.setSize(this.chunkSize, this.chunkSize);
+
+            // tiles go below everything; they are drawn through the batch rather than made static,
+            // since adding one to the static layer would rebuild its cache every time a chunk loads
+            chunk.tile.setDrawLayer(DrawQueue.BACKGROUND);
+            chunk.tile.setZIndex(0);
+            return chunk.spawns.size == 0;
+        }
+
+        // skip spawns that are gone
+        while (chunk.nextSpawn < chunk.spawns.size && this.spawnGone.get(chunk.spawns.get(chunk.nextSpawn)))
+        {
+            chunk.nextSpawn++;
+        }
+
+        if (chunk.nextSpawn < chunk.spawns.size)
+        {
+            int spawn = chunk.spawns.get(chunk.nextSpawn);
+            int type = this.spawnTypes.get(spawn);
+
+            BaseActor actor = this.typeFactories.get(type).create(
+                    this.spawnPositions.get(2 * spawn), this.spawnPositions.get(2 * spawn + 1), stage);
+            LevelLoader.applyShape(actor, this.typeShapes.get(type), this.typeVertices.get(type),
+                    this.typeSizes.get(2 * type), this.typeSizes.get(2 * type + 1));
+
+            // streamed actors go just below this world actor, so actors added by the screen stay on top
+            actor.setZIndex(this.getZIndex());
+            chunk.actors.add(actor);
+            this.typeWaiting.incr(type, -1);
+
+            chunk.nextSpawn++;
+        }
+
+        return chunk.nextSpawn >= chunk.spawns.size;
+    }
+
+    // removes the tile and actors of a chunk, remembering where its actors are and which are gone
+    private void unload(Chunk chunk)
+    {
+        if (chunk.resident)
+        {
+            this.chunksUnloaded++;
+        }
+
+        int created = 0;
+        for (int i = 0; i < chunk.nextSpawn; i++)
+        {
+            int spawn = chunk.spawns.get(i);
+            if (this.spawnGone.get(spawn))
+            {
+                continue;
+            }
+
+            BaseActor actor = chunk.actors.get(created++);
+            if (actor.getStage() == null)
+            {
+                this.spawnGone.set(spawn, true);
+            } else
+            {
+                // actors that moved come back where they were, but stay part of this chunk
+                this.spawnPositions.set(2 * spawn, actor.getX());
+                this.spawnPositions.set(2 * spawn + 1, actor.getY());
+                actor.remove();
+                this.typeWaiting.incr(this.spawnTypes.get(spawn), 1);
+            }
+        }
+        chunk.actors.clear();
+
+        if (chunk.tile != null)
+        {
+            chunk.tile.remove();
+            chunk.tile = null;
+        }
+
+        chunk.nextSpawn = 0;
+        chunk.pending = false;
+        chunk.resident = false;
+    }
+
+    private boolean inRange(Chunk chunk, float cameraX, float cameraY, float rangeX, float rangeY)
+    {
+        float left = chunk.column * this.chunkSize;
+        float bottom = chunk.row * this.chunkSize;
+
+        return left < cameraX + rangeX && left + this.chunkSize > cameraX - rangeX
+                && bottom < cameraY + rangeY && bottom + this.chunkSize > cameraY - rangeY;
+    }
+
+    private Chunk getChunk(int column, int row)
+    {
+        int key = row * this.columns + column;
+        Chunk chunk = this.chunks.get(key);
+
+        if (chunk == null)
+        {
+            chunk = new Chunk(column, row);
+            this.chunks.put(key, chunk);
+        }
+
+        return chunk;
+    }
+
+    private int column(float x)
+    {
+        return (int)Math.floor(x / this.chunkSize);
+    }
+
+    private int row(float y)
+    {
+        return (int)Math.floor(y / this.chunkSize);
+    }
+
+    private static final Comparator<Chunk> CHUNK_DISTANCE = new Comparator<Chunk>()
+    {
+        @Override
+        public int compare(Chunk a, Chunk b)
+        {
+            return Float.compare(a.distance, b.distance);
+        }
+    };
+
+    //----------------------------
+    // Stats
+    //----------------------------
+
+    /**
+     * @return number of chunks whose tile and actors are on the stage
+     */
+    public int getResidentChunkCount()
+    {
+        return this.residentChunks.size;
+    }
+
+    /**
+     * @return number of chunks needed but not completely loaded yet
+     */
+    public int getPendingChunkCount()
+    {
+        return this.pendingChunks.size;
+    }
+
+    /**
+     * @return total number of chunks in the world
+     */
+    public int getChunkCount()
+    {
+        return this.columns * this.rows;
+    }
+
+    /**
+     * @return number of chunks loaded since the world was created
+     */
+    public int getChunksLoaded()
+    {
+        return this.chunksLoaded;
+    }
+
+    /**
+     * @return number of chunks unloaded since the world was created
+     */
+    public int getChunksUnloaded()
+    {
+        return this.chunksUnloaded;
+    }
+
+    /**
+     * @return time (milliseconds) from the last loaded chunk being needed to all its actors being on the stage
+     */
+    public float getLastLoadLatency()
+    {
+        return this.lastLoadLatency;
+    }
+
+    /**
+     * @return longest load latency (milliseconds) so far
+     */
+    public float getMaxLoadLatency()
+    {
+        return this.maxLoadLatency;
+    }
+
+    /**
+     * @return average load latency (milliseconds) so far
+     */
+    public float getAverageLoadLatency()
+    {
+        return (this.chunksLoaded == 0) ? 0 : this.totalLoadLatency / this.chunksLoaded;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.math.Polygon;
+
+// Circle collider: the exact shape of round actors such as rocks and starfish.
+// With non-uniform scale the circle grows by the larger scale factor.
+
+public class CircleCollider extends Collider
+{
+    // circle in the actor's coordinates
+    private float centerX, centerY, radius;
+
+    // circle in world coordinates
+    float worldCenterX, worldCenterY, worldRadius;
+
+    // octagon drawn around the circle, made when first asked for
+    private Polygon polygon;
+
+    /**
+     * @param centerX: x-coordinate of the center, relative to the actor's bottom-left corner
+     * @param centerY: y-coordinate of the center, relative to the actor's bottom-left corner
+     * @param radius: radius (pixels)
+     */
+    public CircleCollider(float centerX, float centerY, float radius)
+    {
+        super(CIRCLE);
+        this.set(centerX, centerY, radius);
+    }
+
+    /**
+     * @param centerX: x-coordinate of the center, relative to the actor's bottom-left corner
+     * @param centerY: y-coordinate of the center, relative to the actor's bottom-left corner
+     * @param radius: radius (pixels)
+     */
+    public void set(float centerX, float centerY, float radius)
+    {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.radius = radius;
+        this.polygon = null;
+        this.invalidate();
+    }
+
+    @Override
+    protected void transformed()
+    {
+        this.worldCenterX = this.worldX(this.centerX, this.centerY);
+        this.worldCenterY = this.worldY(this.centerX, this.centerY);
+        this.worldRadius = this.worldLength(this.radius);
+
+        this.bounds.set(this.worldCenterX - this.worldRadius, this.worldCenterY - this.worldRadius,
+                this.worldRadius * 2, this.worldRadius * 2);
+    }
+
+    @Override
+    public Polygon getPolygon(BaseActor actor)
+    {
+        this.update(actor);
+
+        if (this.polygon == null)
+        {
+            this.polygon = new Polygon(BaseActor.ellipseVertices(this.radius * 2, this.radius * 2, 8));
+        }
+
+        this.polygon.setPosition(this.worldCenterX - this.radius, this.worldCenterY - this.radius);
+        this.polygon.setOrigin(this.radius, this.radius);
+        float scale = (this.radius > 0) ? this.worldRadius / this.radius : 1;
+        this.polygon.setScale(scale, scale);
+        return this.polygon;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+
+// Collision shape of a BaseActor other than its boundary polygon: a circle, a capsule or a box.
+// Curved shapes are tested exactly instead of through an 8-sided approximation, and each pair of shapes
+// has its own test (see Collisions), which for circles and boxes is a few multiplications instead of the
+// separating axis test over every polygon edge. Actors without a collider keep their polygon.
+//
+// A collider is given in the actor's own coordinates, relative to its bottom-left corner, and follows
+// the actor's position, rotation and scale like the boundary polygon does. It belongs to one actor.
+
+public abstract class Collider
+{
+    // shape types, in the order Collisions tests pairs
+    public static final int CIRCLE = 0;
+    public static final int CAPSULE = 1;
+    public static final int BOX = 2;
+    public static final int POLYGON = 3;
+
+    private final int type;
+
+    // actor transform the world-space shape was last computed for
+    private float x, y, originX, originY, rotation, scaleX, scaleY;
+    private boolean transformDirty;
+
+    // rotation of that transform
+    protected float cos, sin;
+
+    // world-space bounding rectangle of the shape
+    protected final Rectangle bounds;
+
+    protected Collider(int type)
+    {
+        this.type = type;
+        this.transformDirty = true;
+        this.bounds = new Rectangle();
+    }
+
+    /**
+     * @return CIRCLE, CAPSULE or BOX
+     */
+    public int getType()
+    {
+        return this.type;
+    }
+
+    /**
+     * @param actor: actor this collider belongs to
+     * @return bounding rectangle of the shape in world coordinates; do not modify it
+     */
+    public Rectangle getBounds(BaseActor actor)
+    {
+        this.update(actor);
+        return this.bounds;
+    }
+
+    /**
+     * @param actor: actor this collider belongs to
+     * @return the shape as a convex polygon in world coordinates (curves approximated), for code that
+     *         needs a polygon, e.g. tests against Swarm members
+     */
+    public abstract Polygon getPolygon(BaseActor actor);
+
+    /**
+     * Moves the world-space shape to the actor's current transform, if it has changed since the last call.
+     * @param actor: actor this collider belongs to
+     */
+    void update(BaseActor actor)
+    {
+        float x = actor.getX();
+        float y = actor.getY();
+        float originX = actor.getOriginX();
+        float originY = actor.getOriginY();
+        float rotation = actor.getRotation();
+        float scaleX = actor.getScaleX();
+        float scaleY = actor.getScaleY();
+
+        if (!this.transformDirty
+                && x == this.x && y == this.y
+                && originX == this.originX && originY == this.originY
+                && rotation == this.rotation
+                && scaleX == this.scaleX && scaleY == this.scaleY)
+        {
+            return;
+        }
+
+        this.x = x;
+        this.y = y;
+        this.originX = originX;
+        this.originY = originY;
+        this.rotation = rotation;
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        this.cos = MathUtils.cosDeg(rotation);
+        this.sin = MathUtils.sinDeg(rotation);
+        this.transformDirty = false;
+
+        this.transformed();
+    }
+
+    /**
+     * Recomputes the world-space shape and bounds after the actor's transform changed.
+     */
+    protected abstract void transformed();
+
+    /**
+     * Call when the local shape changes, so the world-space shape is recomputed.
+     */
+    protected void invalidate()
+    {
+        this.transformDirty = true;
+    }
+
+    // a point in the actor's coordinates, scaled and rotated about the origin like Polygon does, in world coordinates
+    protected float worldX(float localX, float localY)
+    {
+        float dx = (localX - this.originX) * this.scaleX;
+        float dy = (localY - this.originY) * this.scaleY;
+        return this.x + this.originX + dx * this.cos - dy * this.sin;
+    }
+
+    protected float worldY(float localX, float localY)
+    {
+        float dx = (localX - this.originX) * this.scaleX;
+        float dy = (localY - this.originY) * this.scaleY;
+        return this.y + this.originY + dx * this.sin + dy * this.cos;
+    }
+
+    // distances do not depend on direction only when scale is uniform; otherwise use the larger one
+    protected float worldLength(float length)
+    {
+        return length * Math.max(Math.abs(this.scaleX), Math.abs(this.scaleY));
+    }
+
+    // true when the actor is not rotated, or turned by a multiple of 180 degrees, so boxes stay axis-aligned
+    protected boolean isAxisAligned()
+    {
+        return this.sin == 0;
+    }
+}
@@ -0,0 +1,409 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+
+// Exact overlap tests for each pair of collider shapes, used by BaseActor.overlaps and preventOverlap
+// when either actor has a Collider. Each test finds the cheapest exact answer for its pair:
+//   circle  - circle, capsule   distance between the closest points of their center point/segment
+//   circle  - box               distance to the box's closest point
+//   box     - box               overlap of the two intervals on each axis
+//   circle  - polygon           distance to the closest edge, or the way out through it from inside
+//   capsule - box, polygon      distance between the segment and the closest edge
+//   box     - polygon           separating axis test, as for two polygons
+// Rotated boxes are tested as polygons. A capsule whose segment reaches inside a box or polygon falls
+// back to the separating axis test with its polygon approximation.
+//
+// Like preventOverlap, the tests share scratch space and run on the render thread only.
+
+final class Collisions
+{
+    // closest points found by the last closestPoints call
+    private static float closestAX, closestAY, closestBX, closestBY;
+
+    private static final Intersector.MinimumTranslationVector scratchMtv = new Intersector.MinimumTranslationVector();
+
+    private Collisions() {}
+
+    /**
+     * Tests two actors' colliders (or boundary polygons, for actors without one) for overlap.
+     * @param a: actor to push out
+     * @param b: actor to push a out of
+     * @param mtv: receives the direction and distance to move a by to end the overlap; may be null
+     * @return true if the shapes overlap
+     */
+    static boolean overlaps(BaseActor a, BaseActor b, Intersector.MinimumTranslationVector mtv)
+    {
+        if (mtv == null)
+        {
+            mtv = scratchMtv;
+        }
+
+        int typeA = shapeType(a);
+        int typeB = shapeType(b);
+
+        // each pair is tested in one order only; swap and push the other way
+        if (typeA > typeB)
+        {
+            boolean hit = overlaps(b, a, mtv);
+            if (hit)
+            {
+                mtv.normal.scl(-1);
+            }
+            return hit;
+        }
+
+        Collider colliderA = a.getCollider();
+        Collider colliderB = b.getCollider();
+
+        switch (typeA)
+        {
+            case Collider.CIRCLE:
+            {
+                CircleCollider circle = (CircleCollider)colliderA;
+
+                switch (typeB)
+                {
+                    case Collider.CIRCLE:
+                    {
+                        CircleCollider other = (CircleCollider)colliderB;
+                        return separate(circle.worldCenterX, circle.worldCenterY, other.worldCenterX, other.worldCenterY,
+                                circle.worldRadius + other.worldRadius, mtv);
+                    }
+                    case Collider.CAPSULE:
+                    {
+                        CapsuleCollider capsule = (CapsuleCollider)colliderB;
+                        closestPoints(circle.worldCenterX, circle.worldCenterY, circle.worldCenterX, circle.worldCenterY,
+                                capsule.worldStartX, capsule.worldStartY, capsule.worldEndX, capsule.worldEndY);
+                        return separate(closestAX, closestAY, closestBX, closestBY,
+                                circle.worldRadius + capsule.worldRadius, mtv);
+                    }
+                    case Collider.BOX:
+                        return circleBox(circle, (BoxCollider)colliderB, mtv);
+                    default:
+                        return circlePolygon(circle, polygonOf(b).getTransformedVertices(), mtv);
+                }
+            }
+
+            case Collider.CAPSULE:
+            {
+                CapsuleCollider capsule = (CapsuleCollider)colliderA;
+
+                if (typeB == Collider.CAPSULE)
+                {
+                    CapsuleCollider other = (CapsuleCollider)colliderB;
+                    float distSquared = closestPoints(capsule.worldStartX, capsule.worldStartY, capsule.worldEndX, capsule.worldEndY,
+                            other.worldStartX, other.worldStartY, other.worldEndX, other.worldEndY);
+
+                    // crossing segments have no direction to separate along
+                    if (distSquared < MathUtils.FLOAT_ROUNDING_ERROR)
+                    {
+                        return Intersector.overlapConvexPolygons(colliderA.getPolygon(a), colliderB.getPolygon(b), mtv);
+                    }
+                    return separate(closestAX, closestAY, closestBX, closestBY,
+                            capsule.worldRadius + other.worldRadius, mtv);
+                }
+
+                // boxes (axis-aligned or not) and polygons
+                return capsulePolygon(a, capsule, polygonOf(b), mtv);
+            }
+
+            case Collider.BOX:
+            {
+                if (typeB == Collider.BOX)
+                {
+                    return boxBox((BoxCollider)colliderA, (BoxCollider)colliderB, mtv);
+                }
+                return Intersector.overlapConvexPolygons(colliderA.getPolygon(a), polygonOf(b), mtv);
+            }
+
+            default:
+                return Intersector.overlapConvexPolygons(polygonOf(a), polygonOf(b), mtv);
+        }
+    }
+
+    // shape an actor is tested as; rotated boxes count as polygons
+    private static int shapeType(BaseActor actor)
+    {
+        Collider collider = actor.getCollider();
+
+        if (collider == null)
+        {
+            return Collider.POLYGON;
+        }
+
+        collider.update(actor);
+
+        if (collider.getType() == Collider.BOX && !((BoxCollider)collider).axisAligned)
+        {
+            return Collider.POLYGON;
+        }
+        return collider.getType();
+    }
+
+    // world-space polygon of an actor's collider, or its boundary polygon
+    private static Polygon polygonOf(BaseActor actor)
+    {
+        Collider collider = actor.getCollider();
+        return (collider == null) ? actor.getBoundaryPolygon() : collider.getPolygon(actor);
+    }
+
+    // overlap of two rounded shapes whose closest core points are (ax, ay) and (bx, by)
+    private static boolean separate(float ax, float ay, float bx, float by, float reach,
+                                    Intersector.MinimumTranslationVector mtv)
+    {
+        float distX = ax - bx;
+        float distY = ay - by;
+        float distSquared = distX * distX + distY * distY;
+
+        if (distSquared >= reach * reach)
+        {
+            return false;
+        }
+
+        float dist = (float)Math.sqrt(distSquared);
+
+        // exactly on top of each other: push along the x-axis
+        if (dist == 0)
+        {
+            mtv.normal.set(1, 0);
+        } else
+        {
+            mtv.normal.set(distX / dist, distY / dist);
+        }
+        mtv.depth = reach - dist;
+        return true;
+    }
+
+    private static boolean circleBox(CircleCollider circle, BoxCollider box, Intersector.MinimumTranslationVector mtv)
+    {
+        float x = circle.worldCenterX;
+        float y = circle.worldCenterY;
+
+        // center outside the box: the closest point is on its edge
+        if (x < box.minX || x > box.maxX || y < box.minY || y > box.maxY)
+        {
+            return separate(x, y, MathUtils.clamp(x, box.minX, box.maxX), MathUtils.clamp(y, box.minY, box.maxY),
+                    circle.worldRadius, mtv);
+        }
+
+        // center inside: leave through the nearest side
+        float left = x - box.minX;
+        float right = box.maxX - x;
+        float bottom = y - box.minY;
+        float top = box.maxY - y;
+        float nearest = Math.min(Math.min(left, right), Math.min(bottom, top));
+
+        if (nearest == left)
+        {
+            mtv.normal.set(-1, 0);
+        } else if (nearest == right)
+        {
+            mtv.normal.set(1, 0);
+        } else if (nearest == bottom)
+        {
+            mtv.normal.set(0, -1);
+        } else
+        {
+            mtv.normal.set(0, 1);
+        }
+        mtv.depth = nearest + circle.worldRadius;
+        return true;
+    }
+
+    private static boolean boxBox(BoxCollider a, BoxCollider b, Intersector.MinimumTranslationVector mtv)
+    {
+        float overlapX = Math.min(a.maxX, b.maxX) - Math.max(a.minX, b.minX);
+        float overlapY = Math.min(a.maxY, b.maxY) - Math.max(a.minY, b.minY);
+
+        if (overlapX <= 0 || overlapY <= 0)
+        {
+            return false;
+        }
+
+        // out along the axis with the smaller overlap, away from the other box's center
+        if (overlapX < overlapY)
+        {
+            mtv.normal.set((a.minX + a.maxX < b.minX + b.maxX) ? -1 : 1, 0);
+            mtv.depth = overlapX;
+        } else
+        {
+            mtv.normal.set(0, (a.minY + a.maxY < b.minY + b.maxY) ? -1 : 1);
+            mtv.depth = overlapY;
+        }
+        return true;
+    }
+
+    private static boolean circlePolygon(CircleCollider circle, float[] vertices, Intersector.MinimumTranslationVector mtv)
+    {
+        float x = circle.worldCenterX;
+        float y = circle.worldCenterY;
+        float radius = circle.worldRadius;
+
+        // closest point on the polygon's outline
+        float bestSquared = Float.MAX_VALUE;
+        float bestX = x, bestY = y;
+        int n = vertices.length;
+
+        for (int i = 0; i < n; i += 2)
+        {
+            float distSquared = closestPoints(x, y, x, y, vertices[i], vertices[i + 1],
+                    vertices[(i + 2) % n], vertices[(i + 3) % n]);
+
+            if (distSquared < bestSquared)
+            {
+                bestSquared = distSquared;
+                bestX = closestBX;
+                bestY = closestBY;
+            }
+        }
+
+        if (!contains(vertices, x, y))
+        {
+            return separate(x, y, bestX, bestY, radius, mtv);
+        }
+
+        // center inside: leave through the closest point of the outline
+        float dist = (float)Math.sqrt(bestSquared);
+        if (dist == 0)
+        {
+            mtv.normal.set(1, 0);
+        } else
+        {
+            mtv.normal.set((bestX - x) / dist, (bestY - y) / dist);
+        }
+        mtv.depth = dist + radius;
+        return true;
+    }
+
+    private static boolean capsulePolygon(BaseActor actor, CapsuleCollider capsule, Polygon polygon,
+                                          Intersector.MinimumTranslationVector mtv)
+    {
+        float[] vertices = polygon.getTransformedVertices();
+        float startX = capsule.worldStartX, startY = capsule.worldStartY;
+        float endX = capsule.worldEndX, endY = capsule.worldEndY;
+
+        // the segment reaches inside the polygon: no closest points to separate along
+        if (contains(vertices, startX, startY) || contains(vertices, endX, endY))
+        {
+            return Intersector.overlapConvexPolygons(capsule.getPolygon(actor), polygon, mtv);
+        }
+
+        // closest points of the segment and the polygon's outline
+        float bestSquared = Float.MAX_VALUE;
+        float ax = 0, ay = 0, bx = 0, by = 0;
+        int n = vertices.length;
+
+        for (int i = 0; i < n; i += 2)
+        {
+            float distSquared = closestPoints(startX, startY, endX, endY, vertices[i], vertices[i + 1],
+                    vertices[(i + 2) % n], vertices[(i + 3) % n]);
+
+            if (distSquared < bestSquared)
+            {
+                bestSquared = distSquared;
+                ax = closestAX;
+                ay = closestAY;
+                bx = closestBX;
+                by = closestBY;
+            }
+        }
+
+        // the segment crosses the outline
+        if (bestSquared < MathUtils.FLOAT_ROUNDING_ERROR)
+        {
+            return Intersector.overlapConvexPolygons(capsule.getPolygon(actor), polygon, mtv);
+        }
+
+        return separate(ax, ay, bx, by, capsule.worldRadius, mtv);
+    }
+
+    // true if a point is inside (or on) a convex polygon, whichever way round its vertices go
+    private static boolean contains(float[] vertices, float x, float y)
+    {
+        boolean left = false, right = false;
+        int n = vertices.length;
+
+        for (int i = 0; i < n; i += 2)
+        {
+            float x1 = vertices[i], y1 = vertices[i + 1];
+            float x2 = vertices[(i + 2) % n], y2 = vertices[(i + 3) % n];
+            float cross = (x2 - x1) * (y - y1) - (y2 - y1) * (x - x1);
+
+            if (cross > 0)
+            {
+                left = true;
+            } else if (cross < 0)
+            {
+                right = true;
+            }
+        }
+
+        return !(left && right);
+    }
+
+    /**
+     * Closest points of segments (ax1, ay1)-(ax2, ay2) and (bx1, by1)-(bx2, by2), stored in closestAX/AY and
+     * closestBX/BY. Either segment may be a single point. (Ericson, Real-Time Collision Detection, 5.1.9)
+     * @return squared distance between the closest points
+     */
+    private static float closestPoints(float ax1, float ay1, float ax2, float ay2,
+                                       float bx1, float by1, float bx2, float by2)
+    {
+        float dax = ax2 - ax1, day = ay2 - ay1;
+        float dbx = bx2 - bx1, dby = by2 - by1;
+        float rx = ax1 - bx1, ry = ay1 - by1;
+
+        float a = dax * dax + day * day;
+        float e = dbx * dbx + dby * dby;
+        float f = dbx * rx + dby * ry;
+        float s, t;
+
+        if (a <= MathUtils.FLOAT_ROUNDING_ERROR && e <= MathUtils.FLOAT_ROUNDING_ERROR)
+        {
+            s = 0;
+            t = 0;
+        } else if (a <= MathUtils.FLOAT_ROUNDING_ERROR)
+        {
+            s = 0;
+            t = MathUtils.clamp(f / e, 0, 1);
+        } else
+        {
+            float c = dax * rx + day * ry;
+
+            if (e <= MathUtils.FLOAT_ROUNDING_ERROR)
+            {
+                t = 0;
+                s = MathUtils.clamp(-c / a, 0, 1);
+            } else
+            {
+                float b = dax * dbx + day * dby;
+                float denom = a * e - b * b;
+
+                // parallel segments: any s will do, take the start
+                s = (denom != 0) ? MathUtils.clamp((b * f - c * e) / denom, 0, 1) : 0;
+                t = (b * s + f) / e;
+
+                if (t < 0)
+                {
+                    t = 0;
+                    s = MathUtils.clamp(-c / a, 0, 1);
+                } else if (t > 1)
+                {
+                    t = 1;
+                    s = MathUtils.clamp((b - c) / a, 0, 1);
+                }
+            }
+        }
+
+        closestAX = ax1 + dax * s;
+        closestAY = ay1 + day * s;
+        closestBX = bx1 + dbx * t;
+        closestBY = by1 + dby * t;
+
+        float distX = closestAX - closestBX;
+        float distY = closestAY - closestBY;
+        return distX * distX + distY * distY;
+    }
+}
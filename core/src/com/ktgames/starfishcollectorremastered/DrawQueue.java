@@ -0,0 +1,370 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+// Draws a stage in layers instead of in the order actors were added. Stage.draw sends actors to the batch
+// in insertion order, so starfish, rocks and the turtle listed one after another make the SpriteBatch flush
+// and bind another texture at almost every actor. With a draw queue, the stage's actors are collected into
+// four layers (background, props, actors, effects), drawn from back to front; within a layer, actors with
+// the same texture and blend function are drawn together, in the order their texture first appears.
+// Order inside a layer is therefore not kept between actors with different textures: put actors that must
+// cover each other in different layers.
+//
+// Every actor is still drawn by its own draw(Batch, float) method, so actors that override it (Swarm, the
+// StaticLayer, scene2d widgets) work as before; actors other than BaseActors, and BaseActors without an
+// image, are grouped together.
+// The queue counts how many texture or blend switches, each a batch flush, sorting saved in the last frame.
+
+public class DrawQueue
+{
+    // layers, from back to front
+    public static final int BACKGROUND = 0;
+    public static final int PROPS = 1;
+    public static final int ACTORS = 2;
+    public static final int EFFECTS = 3;
+    public static final int LAYER_COUNT = 4;
+
+    /**
+     * Actors that are not BaseActors can name their layer by implementing this; others are drawn in ACTORS.
+     */
+    public interface Layered
+    {
+        /**
+         * @return BACKGROUND, PROPS, ACTORS or EFFECTS
+         */
+        int getDrawLayer();
+    }
+
+    // one queue per stage, created the first time layered drawing is turned on for it
+    private static ObjectMap<Stage, DrawQueue> stageQueues = new ObjectMap<Stage, DrawQueue>();
+
+    private final Stage stage;
+    private boolean enabled;
+
+    // actors collected this frame in stage order, with the layer and draw group of each
+    private final Array<Actor> actors;
+    private final IntArray layers;
+    private final IntArray groups;
+
+    // texture and blend function of each draw group, in order of first appearance (null texture: no image of its own)
+    private final Array<Texture> groupTextures;
+    private final IntArray groupBlendSrc;
+    private final IntArray groupBlendDst;
+
+    // actors in draw order, and scratch counts for sorting them
+    private Actor[] sorted;
+    private int[] sortedGroups;
+    private int[] bucketStarts;
+
+    // counters for the last frame drawn
+    private int queuedCount;
+    private int flushesAvoided;
+
+    private DrawQueue(Stage stage)
+    {
+        this.stage = stage;
+        this.enabled = false;
+
+        this.actors = new Array<Actor>(false, 64);
+        this.layers = new IntArray();
+        this.groups = new IntArray();
+
+        this.groupTextures = new Array<Texture>();
+        this.groupBlendSrc = new IntArray();
+        this.groupBlendDst = new IntArray();
+
+        this.sorted = new Actor[64];
+        this.sortedGroups = new int[64];
+        this.bucketStarts = new int[LAYER_COUNT * 8 + 1];
+    }
+
+    /**
+     * @param stage: stage to look up
+     * @return draw queue of the stage, created (off) if needed
+     */
+    public static DrawQueue get(Stage stage)
+    {
+        DrawQueue queue = stageQueues.get(stage);
+
+        if (queue == null)
+        {
+            queue = new DrawQueue(stage);
+            stageQueues.put(stage, queue);
+        }
+
+        return queue;
+    }
+
+    /**
+     * @param stage: stage to look up
+     * @return draw queue of the stage, or null if layered drawing was never turned on for it
+     */
+    public static DrawQueue find(Stage stage)
+    {
+        return stageQueues.get(stage);
+    }
+
+    /**
+     * Forgets the draw queue of a stage; called when the stage is disposed.
+     * @param stage: stage that is no longer used
+     */
+    public static void detach(Stage stage)
+    {
+        stageQueues.remove(stage);
+    }
+
+    /**
+     * Draws a stage, in layers if its draw queue is on and with Stage.draw otherwise.
+     * @param stage: stage to draw
+     */
+    public static void draw(Stage stage)
+    {
+        DrawQueue queue = stageQueues.get(stage);
+
+        if (queue != null && queue.enabled)
+        {
+            queue.draw();
+        } else
+        {
+            stage.draw();
+        }
+    }
+
+    /**
+     * Turn layered drawing on or off for this stage (off by default).
+     * @param enabled: true to draw the stage in layers, sorted by texture
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * @return number of actors drawn through the queue in the last frame
+     */
+    public int getQueuedCount()
+    {
+        return this.queuedCount;
+    }
+
+    /**
+     * @return batch flushes for a texture or blend switch saved in the last frame, compared to drawing the
+     *         same actors in stage order; negative if the layers forced more switches than they saved
+     */
+    public int getFlushesAvoided()
+    {
+        return this.flushesAvoided;
+    }
+
+    // Stage.draw, with the root's children drawn in layer and texture order; the root is not transformed,
+    // as the stages of a BaseScreen never are, and debug lines are not drawn
+    private void draw()
+    {
+        Camera camera = this.stage.getViewport().getCamera();
+        camera.update();
+
+        Group root = this.stage.getRoot();
+        if (!root.isVisible())
+        {
+            return;
+        }
+
+        this.collect(root);
+        this.sort();
+
+        Batch batch = this.stage.getBatch();
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        this.drawSorted(batch, root.getColor().a);
+        batch.end();
+
+        // actors are not kept between frames
+        this.actors.clear();
+    }
+
+    // the visible children of the root, in stage order, with their layer and draw group
+    private void collect(Group root)
+    {
+        this.actors.clear();
+        this.layers.clear();
+        this.groups.clear();
+        this.groupTextures.clear();
+        this.groupBlendSrc.clear();
+        this.groupBlendDst.clear();
+
+        int switches = 0;
+        int previousGroup = -1;
+
+        Actor[] children = root.getChildren().begin();
+        int n = root.getChildren().size;
+
+        for (int i = 0; i < n; i++)
+        {
+            Actor actor = children[i];
+
+            if (!actor.isVisible())
+            {
+                continue;
+            }
+
+            int layer = ACTORS;
+            int group;
+
+            if (actor instanceof BaseActor)
+            {
+                BaseActor baseActor = (BaseActor)actor;
+
+                // static actors are drawn by the StaticLayer
+                if (baseActor.isStatic())
+                {
+                    continue;
+                }
+
+                layer = baseActor.getDrawLayer();
+
+                // actors without an image may still draw something (e.g. by overriding draw)
+                Texture texture = baseActor.getDrawTexture();
+                if (texture == null)
+                {
+                    group = this.findGroup(null, -1, -1);
+                } else
+                {
+                    group = this.findGroup(texture, baseActor.getBlendSrcFunc(), baseActor.getBlendDstFunc());
+                }
+            } else
+            {
+                if (actor instanceof Layered)
+                {
+                    layer = ((Layered)actor).getDrawLayer();
+                }
+                group = this.findGroup(null, -1, -1);
+            }
+
+            this.actors.add(actor);
+            this.layers.add(layer);
+            this.groups.add(group);
+
+            // in stage order, the batch would flush at every change of texture or blend function
+            if (group != previousGroup && previousGroup != -1)
+            {
+                switches++;
+            }
+            previousGroup = group;
+        }
+
+        root.getChildren().end();
+
+        // the switches sorting removes are counted in sort, once the draw order is known
+        this.flushesAvoided = switches;
+    }
+
+    private int findGroup(Texture texture, int blendSrc, int blendDst)
+    {
+        // a level uses only a few textures, so a linear search is faster than hashing
+        for (int g = 0; g < this.groupTextures.size; g++)
+        {
+            if (this.groupTextures.get(g) == texture
+                    && this.groupBlendSrc.get(g) == blendSrc && this.groupBlendDst.get(g) == blendDst)
+            {
+                return g;
+            }
+        }
+
+        this.groupTextures.add(texture);
+        this.groupBlendSrc.add(blendSrc);
+        this.groupBlendDst.add(blendDst);
+        return this.groupTextures.size - 1;
+    }
+
+    // stable counting sort by layer, then draw group
+    private void sort()
+    {
+        int count = this.actors.size;
+        int groupCount = this.groupTextures.size;
+        int buckets = LAYER_COUNT * groupCount;
+
+        if (this.sorted.length < count)
+        {
+            this.sorted = new Actor[Math.max(count, this.sorted.length * 2)];
+            this.sortedGroups = new int[this.sorted.length];
+        }
+        if (this.bucketStarts.length < buckets + 1)
+        {
+            this.bucketStarts = new int[buckets + 1];
+        }
+
+        int[] starts = this.bucketStarts;
+        for (int b = 0; b <= buckets; b++)
+        {
+            starts[b] = 0;
+        }
+
+        int[] layers = this.layers.items;
+        int[] groups = this.groups.items;
+
+        for (int i = 0; i < count; i++)
+        {
+            starts[layers[i] * groupCount + groups[i] + 1]++;
+        }
+        for (int b = 0; b < buckets; b++)
+        {
+            starts[b + 1] += starts[b];
+        }
+
+        Object[] actors = this.actors.items;
+        for (int i = 0; i < count; i++)
+        {
+            int slot = starts[layers[i] * groupCount + groups[i]]++;
+            this.sorted[slot] = (Actor)actors[i];
+            this.sortedGroups[slot] = groups[i];
+        }
+
+        int switches = 0;
+        for (int i = 1; i < count; i++)
+        {
+            if (this.sortedGroups[i] != this.sortedGroups[i - 1])
+            {
+                switches++;
+            }
+        }
+
+        this.flushesAvoided -= switches;
+        this.queuedCount = count;
+    }
+
+    private void drawSorted(Batch batch, float parentAlpha)
+    {
+        int blendSrc = batch.getBlendSrcFunc();
+        int blendDst = batch.getBlendDstFunc();
+
+        for (int i = 0; i < this.queuedCount; i++)
+        {
+            // the group's blend function is set once, so its actors find it already set and draw without a flush
+            int group = this.sortedGroups[i];
+            int src = this.groupBlendSrc.get(group);
+            int dst = this.groupBlendDst.get(group);
+            if (src != -1 && (src != batch.getBlendSrcFunc() || dst != batch.getBlendDstFunc()))
+            {
+                batch.setBlendFunction(src, dst);
+            }
+
+            this.sorted[i].draw(batch, parentAlpha);
+            this.sorted[i] = null;
+        }
+
+        batch.setBlendFunction(blendSrc, blendDst);
+    }
+}
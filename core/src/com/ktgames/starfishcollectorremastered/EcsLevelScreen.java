@@ -0,0 +1,59 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.ktgames.starfishcollectorremastered.ecs.ActorAdapter;
+import com.ktgames.starfishcollectorremastered.ecs.CollectSystem;
+import com.ktgames.starfishcollectorremastered.ecs.Collectible;
+import com.ktgames.starfishcollectorremastered.ecs.EcsWorld;
+
+// Level 1 run on the entity-component-system backend (see EcsWorld) instead of BaseActors.
+// The level is loaded as usual, then ActorAdapter turns its turtle, starfish and rocks into entities;
+// only the ocean background stays an actor. Started from the menu with the E key.
+
+public class EcsLevelScreen extends BaseScreen
+{
+    private EcsWorld world;
+    private ImmutableArray<Entity> collectibles;
+    private boolean win;
+
+    @Override
+    public void declareAssets(Array<AssetDescriptor<?>> assets)
+    {
+        LevelScreen.addLevelAssets(assets);
+    }
+
+    @Override
+    public void initialize()
+    {
+        this.setFixedTimestep(1/60f, 5);
+
+        LevelScreen.createLoader().load(Gdx.files.internal("levels/level-1.bin"), this.mainStage);
+
+        // added after the background, so entities are drawn over it
+        this.world = new EcsWorld(this.mainStage, 64);
+        ActorAdapter.adopt(this.mainStage, this.world);
+
+        Animation<TextureRegion> whirlpool = ActorAdapter.holdAnimation(new Whirlpool(0, 0, this.mainStage), this.world);
+        this.world.getEngine().addSystem(new CollectSystem(this.world, whirlpool));
+
+        this.collectibles = this.world.getEngine().getEntitiesFor(Family.all(Collectible.class).get());
+
+        this.win = false;
+    }
+
+    public void update(float dt)
+    {
+        if (this.collectibles.size() == 0 && !this.win)
+        {
+            this.win = true;
+            LevelScreen.showWinMessage(this.uiStage);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+
+// On-screen frame profiler, drawn on a screen's uiStage.
+// BaseScreen reports how long each phase of its game loop took (acting both stages, update,
+// drawing both stages); the profiler shows the times of the last frame, batch render calls,
+// texture binds, texture memory, actor, culling, layered draw, static cache and chunk counts,
+// and a graph of recent frame times with the 50th and 99th percentile.
+// Toggled with F3 on any BaseScreen, so no screen needs code of its own for it.
+
+public class FrameProfiler extends Actor implements Disposable
+{
+    // game loop phases, in the order BaseScreen runs them
+    public static final int UI_ACT = 0;
+    public static final int MAIN_ACT = 1;
+    public static final int UPDATE = 2;
+    public static final int MAIN_DRAW = 3;
+    public static final int UI_DRAW = 4;
+    public static final int PHASE_COUNT = 5;
+
+    private static final String[] PHASE_NAMES = {"ui act", "main act", "update", "main draw", "ui draw"};
+
+    // number of frames kept for the graph and percentiles
+    private static final int HISTORY_SIZE = 240;
+
+    // 60 frames per second
+    private static final float FRAME_BUDGET_MS = 1000f / 60f;
+
+    private final Stage mainStage;
+    private final Stage uiStage;
+    // both stages, for counting texture memory without a varargs array per frame
+    private final Stage[] stages;
+
+    // phase times of the frame in progress and of the last complete frame (nanoseconds)
+    private final long[] phaseNanos;
+    private final long[] lastPhaseNanos;
+    private long frameStart;
+    private long lapStart;
+
+    private int mainRenderCalls;
+    private int uiRenderCalls;
+    private int lastMainRenderCalls;
+    private int lastUiRenderCalls;
+
+    // counts texture binds; only enabled while the profiler is shown since it wraps every GL call
+    private GLProfiler glProfiler;
+    private int lastTextureBindings;
+
+    // recent frame times (milliseconds), as a ring buffer, and a copy used to find percentiles
+    private final float[] history;
+    private final float[] sortedHistory;
+    private int historyIndex;
+    private int historyCount;
+
+    private final BitmapFont font;
+    private final Texture pixel;
+    private final StringBuilder text;
+
+    /**
+     * Creates the profiler and adds it (hidden) to the ui stage.
+     * @param mainStage: stage whose actors are counted and whose draw calls are reported
+     * @param uiStage: stage the profiler is drawn on
+     */
+    public FrameProfiler(Stage mainStage, Stage uiStage)
+    {
+        this.mainStage = mainStage;
+        this.uiStage = uiStage;
+        this.stages = new Stage[] {mainStage, uiStage};
+
+        this.phaseNanos = new long[PHASE_COUNT];
+        this.lastPhaseNanos = new long[PHASE_COUNT];
+
+        this.glProfiler = new GLProfiler(Gdx.graphics);
+
+        this.history = new float[HISTORY_SIZE];
+        this.sortedHistory = new float[HISTORY_SIZE];
+        this.historyIndex = 0;
+        this.historyCount = 0;
+
+        // the game's font and white pixel, stretched and tinted to draw the graph
+        this.font = BaseGame.getFont();
+        this.pixel = BaseGame.getPixel();
+
+        this.text = new StringBuilder(256);
+
+        this.setVisible(false);
+        uiStage.addActor(this);
+    }
+
+    /**
+     * Show or hide the profiler; texture binds are only counted while it is shown.
+     * @param visible: true to show the profiler
+     */
+    @Override
+    public void setVisible(boolean visible)
+    {
+        super.setVisible(visible);
+
+        if (this.glProfiler == null)
+        {
+            return;
+        }
+
+        if (visible)
+        {
+            this.glProfiler.enable();
+            this.glProfiler.reset();
+            this.toFront();
+        } else
+        {
+            this.glProfiler.disable();
+        }
+    }
+
+    //----------------------------
+    // Measurement, called by BaseScreen
+    //----------------------------
+
+    /**
+     * Starts timing a new frame.
+     */
+    public void beginFrame()
+    {
+        Arrays.fill(this.phaseNanos, 0);
+        this.mainRenderCalls = 0;
+        this.uiRenderCalls = 0;
+
+        this.frameStart = TimeUtils.nanoTime();
+        this.lapStart = this.frameStart;
+    }
+
+    /**
+     * Restarts the lap clock without counting the time since the last lap, e.g. for clearing the screen.
+     */
+    public void skip()
+    {
+        this.lapStart = TimeUtils.nanoTime();
+    }
+
+    /**
+     * Adds the time since the previous lap (or the start of the frame) to the given phase.
+     * A phase may be timed several times per frame, e.g. with a fixed timestep.
+     * @param phase: one of UI_ACT, MAIN_ACT, UPDATE, MAIN_DRAW, UI_DRAW
+     */
+    public void lap(int phase)
+    {
+        long now = TimeUtils.nanoTime();
+        this.phaseNanos[phase] += now - this.lapStart;
+        this.lapStart = now;
+
+        // SpriteBatch counts render calls since its last begin(), i.e. for the draw that just finished
+        if (phase == MAIN_DRAW)
+        {
+            this.mainRenderCalls = renderCalls(this.mainStage);
+        } else if (phase == UI_DRAW)
+        {
+            this.uiRenderCalls = renderCalls(this.uiStage);
+        }
+    }
+
+    /**
+     * Finishes the frame; its numbers are shown from the next frame on.
+     */
+    public void endFrame()
+    {
+        float frameMs = (TimeUtils.nanoTime() - this.frameStart) / 1000000f;
+
+        System.arraycopy(this.phaseNanos, 0, this.lastPhaseNanos, 0, PHASE_COUNT);
+        this.lastMainRenderCalls = this.mainRenderCalls;
+        this.lastUiRenderCalls = this.uiRenderCalls;
+
+        this.lastTextureBindings = this.glProfiler.getTextureBindings();
+        this.glProfiler.reset();
+
+        this.history[this.historyIndex] = frameMs;
+        this.historyIndex = (this.historyIndex + 1) % HISTORY_SIZE;
+        this.historyCount = Math.min(this.historyCount + 1, HISTORY_SIZE);
+
+        // stay above ui actors added after the profiler (e.g. messages)
+        if (this.getParent() != null && this.getParent().getChildren().peek() != this)
+        {
+            this.toFront();
+        }
+    }
+
+    /**
+     * @param percentile: value from 0 to 1
+     * @return frame time (milliseconds) below which the given fraction of recent frames fall
+     */
+    public float getFrameTimePercentile(float percentile)
+    {
+        if (this.historyCount == 0)
+        {
+            return 0;
+        }
+
+        System.arraycopy(this.history, 0, this.sortedHistory, 0, this.historyCount);
+        Arrays.sort(this.sortedHistory, 0, this.historyCount);
+
+        int index = Math.min((int)(percentile * this.historyCount), this.historyCount - 1);
+        return this.sortedHistory[index];
+    }
+
+    /**
+     * Stops counting texture binds; the font and pixel are the game's and stay loaded.
+     */
+    public void dispose()
+    {
+        this.glProfiler.disable();
+    }
+
+    //----------------------------
+    // Drawing
+    //----------------------------
+
+    @Override
+    public void draw(Batch batch, float parentAlpha)
+    {
+        float left = 10;
+        float top = this.uiStage.getHeight() - 10;
+
+        // -- text --
+        StringBuilder t = this.text;
+        t.setLength(0);
+
+        for (int i = 0; i < PHASE_COUNT; i++)
+        {
+            t.append(PHASE_NAMES[i]).append(": ");
+            appendMillis(t, this.lastPhaseNanos[i] / 1000000f);
+            t.append(" ms\n");
+        }
+
+        t.append("render calls: ").append(this.lastMainRenderCalls).append(" main, ")
+                .append(this.lastUiRenderCalls).append(" ui\n");
+        t.append("texture binds: ").append(this.lastTextureBindings).append('\n');
+        t.append("textures: ");
+        appendMillis(t, AssetRegistry.getTextureMemory(this.stages) / (1024f * 1024f));
+        t.append(" MB screen, ");
+        appendMillis(t, AssetRegistry.getTextureMemory() / (1024f * 1024f));
+        t.append(" MB loaded\n");
+        t.append("actors: ").append(this.mainStage.getActors().size).append(" main, ")
+                .append(this.uiStage.getActors().size).append(" ui\n");
+        ViewCuller culler = ViewCuller.get(this.mainStage);
+        t.append("culled: ").append(culler.getCulledCount()).append(" of ")
+                .append(culler.getCulledCount() + culler.getDrawnCount()).append(" main\n");
+
+        if (this.mainStage.getRoot() instanceof ParallelRoot && ((ParallelRoot)this.mainStage.getRoot()).isParallel())
+        {
+            t.append("parallel: ").append(((ParallelRoot)this.mainStage.getRoot()).getParallelCount())
+                    .append(ParallelAct.isAvailable() ? " actors\n" : " actors (one thread)\n");
+        }
+
+        DrawQueue queue = DrawQueue.find(this.mainStage);
+        if (queue != null && queue.isEnabled())
+        {
+            t.append("layered: ").append(queue.getQueuedCount()).append(" actors, ")
+                    .append(queue.getFlushesAvoided()).append(" flushes avoided\n");
+        }
+
+        StaticLayer layer = StaticLayer.find(this.mainStage);
+        if (layer != null)
+        {
+            t.append("static: ").append(layer.getCachedCount()).append(" cached, ")
+                    .append(layer.getRebuildCount()).append(" rebuilds\n");
+        }
+
+        ChunkedWorld world = ChunkedWorld.get(this.mainStage);
+        if (world != null)
+        {
+            t.append("chunks: ").append(world.getResidentChunkCount()).append(" resident, ")
+                    .append(world.getPendingChunkCount()).append(" pending, load ");
+            appendMillis(t, world.getAverageLoadLatency());
+            t.append(" ms avg, ");
+            appendMillis(t, world.getMaxLoadLatency());
+            t.append(" ms max\n");
+        }
+
+        t.append("frame p50: ");
+        appendMillis(t, this.getFrameTimePercentile(0.5f));
+        t.append(" ms  p99: ");
+        appendMillis(t, this.getFrameTimePercentile(0.99f));
+        t.append(" ms");
+
+        this.font.setColor(Color.WHITE);
+        float textHeight = this.font.draw(batch, t, left, top).height;
+
+        // -- frame time graph: one bar per frame, oldest on the left --
+        float graphHeight = 60;
+        float graphBottom = top - textHeight - 10 - graphHeight;
+        float msToPixels = graphHeight / (2 * FRAME_BUDGET_MS);
+
+        // background
+        batch.setColor(0, 0, 0, 0.5f);
+        batch.draw(this.pixel, left, graphBottom, HISTORY_SIZE, graphHeight);
+
+        for (int i = 0; i < this.historyCount; i++)
+        {
+            int index = (this.historyIndex - this.historyCount + i + HISTORY_SIZE) % HISTORY_SIZE;
+            float ms = this.history[index];
+
+            // green within the 60fps budget, red over it
+            if (ms <= FRAME_BUDGET_MS)
+            {
+                batch.setColor(0.2f, 0.9f, 0.2f, 0.9f);
+            } else
+            {
+                batch.setColor(0.9f, 0.2f, 0.2f, 0.9f);
+            }
+
+            batch.draw(this.pixel, left + i, graphBottom, 1, Math.min(ms * msToPixels, graphHeight));
+        }
+
+        // 16.7ms budget line
+        batch.setColor(1, 1, 1, 0.8f);
+        batch.draw(this.pixel, left, graphBottom + FRAME_BUDGET_MS * msToPixels, HISTORY_SIZE, 1);
+
+        batch.setColor(Color.WHITE);
+    }
+
+    private static int renderCalls(Stage stage)
+    {
+        if (stage.getBatch() instanceof SpriteBatch)
+        {
+            return ((SpriteBatch)stage.getBatch()).renderCalls;
+        }
+        return 0;
+    }
+
+    // appends a value with two decimals without creating a String
+    private static void appendMillis(StringBuilder t, float ms)
+    {
+        int hundredths = Math.round(ms * 100);
+        t.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10)
+        {
+            t.append('0');
+        }
+        t.append(fraction);
+    }
+}
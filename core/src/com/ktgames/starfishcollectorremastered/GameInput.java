@@ -0,0 +1,314 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Keyboard state and frame time for game code, in place of Gdx.input and Gdx.graphics.getDeltaTime.
+// BaseGame samples the keys the game uses once at the start of every frame; a session can be recorded
+// to a small binary log and replayed from it, frame for frame, so the same heavy session can be run on
+// every build and the frame times compared instead of playtesting by hand.
+//
+// Log format (big-endian, as DataOutputStream writes it):
+//   int   magic "SCIL"
+//   byte  version (1)
+//   long  seed MathUtils.random was given when recording started
+//   byte  number of keys, then a short key code for each
+//   then one entry per frame until the end of the file:
+//   float dt, short bit mask of the keys held down (bit i = key i)
+//
+// A replay feeds the recorded dt and keys back, reseeds MathUtils.random, and makes LoadingScreen load
+// in a single frame, so the game steps through the same states. The render time of every replayed
+// frame is written next to the log as <log>.frames.csv (milliseconds, one frame per line), and the game
+// exits when the log ends.
+
+public class GameInput
+{
+    private static final int MAGIC = 0x5343494C;
+    private static final int VERSION = 1;
+    // bytes per frame entry: float dt, short key mask
+    private static final int FRAME_SIZE = 6;
+
+    // keys the game reads; at most 16 fit the mask
+    private static final IntArray keys = new IntArray(new int[] {
+            Input.Keys.LEFT, Input.Keys.RIGHT, Input.Keys.UP, Input.Keys.DOWN,
+            Input.Keys.S, Input.Keys.E, Input.Keys.F3 });
+
+    private static final int LIVE = 0;
+    private static final int RECORDING = 1;
+    private static final int REPLAYING = 2;
+
+    private static int mode = LIVE;
+    private static String logFileName;
+    private static boolean started;
+
+    // keys held down this frame and last frame
+    private static int keyMask;
+    private static int previousKeyMask;
+
+    private static ByteArrayOutputStream recordBytes;
+    private static DataOutputStream recordOut;
+    private static int recordHeaderSize;
+    private static DataInputStream replayIn;
+
+    // render time of each replayed frame (milliseconds)
+    private static final FloatArray frameTimes = new FloatArray();
+    private static long frameStart;
+
+    private GameInput() {}
+
+    /**
+     * Adds a key to the ones sampled each frame; call before a recording or replay starts.
+     * @param key: key code from Input.Keys
+     */
+    public static void trackKey(int key)
+    {
+        if (keys.contains(key))
+        {
+            return;
+        }
+        if (keys.size == 16)
+        {
+            throw new GdxRuntimeException("At most 16 keys can be tracked");
+        }
+        keys.add(key);
+    }
+
+    /**
+     * Records the session, from the first frame until the game exits, to a local file.
+     * @param fileName: log file, relative to the local storage directory
+     */
+    public static void record(String fileName)
+    {
+        mode = RECORDING;
+        logFileName = fileName;
+        started = false;
+    }
+
+    /**
+     * Replays a recorded session from its first frame; the game exits when the log ends.
+     * @param fileName: log file, relative to the local storage directory
+     */
+    public static void replay(String fileName)
+    {
+        mode = REPLAYING;
+        logFileName = fileName;
+        started = false;
+    }
+
+    /**
+     * @return true while recording or replaying; timing-dependent code (such as loading assets over several
+     *          frames) should then behave the same in every run
+     */
+    public static boolean isDeterministic()
+    {
+        return mode != LIVE;
+    }
+
+    /**
+     * @return true while replaying a log
+     */
+    public static boolean isReplaying()
+    {
+        return mode == REPLAYING;
+    }
+
+    /**
+     * @param key: a tracked key code from Input.Keys
+     * @return true if the key is held down this frame
+     */
+    public static boolean isKeyPressed(int key)
+    {
+        return (keyMask & bit(key)) != 0;
+    }
+
+    /**
+     * @param key: a tracked key code from Input.Keys
+     * @return true if the key went down this frame
+     */
+    public static boolean isKeyJustPressed(int key)
+    {
+        int bit = bit(key);
+        return (keyMask & bit) != 0 && (previousKeyMask & bit) == 0;
+    }
+
+    /**
+     * Samples this frame's input (or reads it from the log); called by BaseGame before the screen renders.
+     * @param deltaTime: time since the last frame, as measured by the backend
+     * @return time the game should advance this frame: deltaTime, or the recorded one when replaying
+     */
+    static float beginFrame(float deltaTime)
+    {
+        if (!started)
+        {
+            start();
+        }
+
+        previousKeyMask = keyMask;
+        frameStart = TimeUtils.nanoTime();
+
+        try
+        {
+            if (mode == REPLAYING)
+            {
+                if (replayIn.available() == 0)
+                {
+                    finishReplay();
+                    return 0;
+                }
+
+                float dt = replayIn.readFloat();
+                keyMask = replayIn.readShort() & 0xFFFF;
+                return dt;
+            }
+
+            keyMask = 0;
+            for (int i = 0; i < keys.size; i++)
+            {
+                if (Gdx.input.isKeyPressed(keys.get(i)))
+                {
+                    keyMask |= 1 << i;
+                }
+            }
+
+            if (mode == RECORDING)
+            {
+                recordOut.writeFloat(deltaTime);
+                recordOut.writeShort(keyMask);
+            }
+        } catch (IOException e)
+        {
+            throw new GdxRuntimeException("Input log " + logFileName + " is unreadable", e);
+        }
+
+        return deltaTime;
+    }
+
+    /**
+     * Called by BaseGame after the screen has rendered; keeps the frame's render time while replaying.
+     */
+    static void endFrame()
+    {
+        if (mode == REPLAYING)
+        {
+            frameTimes.add((TimeUtils.nanoTime() - frameStart) / 1000000f);
+        }
+    }
+
+    /**
+     * Writes a recording to its file; called by BaseGame when the game exits.
+     */
+    static void finish()
+    {
+        if (mode == RECORDING && started)
+        {
+            Gdx.files.local(logFileName).writeBytes(recordBytes.toByteArray(), false);
+            int frames = (recordOut.size() - recordHeaderSize) / FRAME_SIZE;
+            Gdx.app.log("GameInput", "Recorded " + frames + " frames to " + logFileName);
+        }
+
+        mode = LIVE;
+    }
+
+    private static void start()
+    {
+        started = true;
+
+        try
+        {
+            if (mode == RECORDING)
+            {
+                long seed = TimeUtils.millis();
+                MathUtils.random.setSeed(seed);
+
+                recordBytes = new ByteArrayOutputStream();
+                recordOut = new DataOutputStream(recordBytes);
+                recordOut.writeInt(MAGIC);
+                recordOut.writeByte(VERSION);
+                recordOut.writeLong(seed);
+                recordOut.writeByte(keys.size);
+                for (int i = 0; i < keys.size; i++)
+                {
+                    recordOut.writeShort(keys.get(i));
+                }
+                recordHeaderSize = recordOut.size();
+            } else if (mode == REPLAYING)
+            {
+                FileHandle file = Gdx.files.local(logFileName);
+                replayIn = new DataInputStream(new ByteArrayInputStream(file.readBytes()));
+
+                if (replayIn.readInt() != MAGIC || replayIn.readByte() != VERSION)
+                {
+                    throw new GdxRuntimeException(logFileName + " is not an input log");
+                }
+                MathUtils.random.setSeed(replayIn.readLong());
+
+                // keys are replayed in the order they were recorded
+                int count = replayIn.readByte();
+                keys.clear();
+                for (int i = 0; i < count; i++)
+                {
+                    keys.add(replayIn.readShort());
+                }
+
+                frameTimes.clear();
+            }
+        } catch (IOException e)
+        {
+            throw new GdxRuntimeException("Input log " + logFileName + " is unreadable", e);
+        }
+    }
+
+    // writes the replay's frame times and a summary, then ends the game
+    private static void finishReplay()
+    {
+        keyMask = 0;
+
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < frameTimes.size; i++)
+        {
+            csv.append(frameTimes.get(i)).append('\n');
+        }
+        Gdx.files.local(logFileName + ".frames.csv").writeString(csv.toString(), false);
+
+        float[] sorted = frameTimes.toArray();
+        Arrays.sort(sorted);
+        if (sorted.length > 0)
+        {
+            Gdx.app.log("GameInput", "Replayed " + sorted.length + " frames: median " + percentile(sorted, 50)
+                    + " ms, 90th " + percentile(sorted, 90) + " ms, 99th " + percentile(sorted, 99)
+                    + " ms, max " + sorted[sorted.length - 1] + " ms");
+        }
+
+        mode = LIVE;
+        Gdx.app.exit();
+    }
+
+    private static float percentile(float[] sorted, float percentile)
+    {
+        int index = MathUtils.clamp((int)Math.ceil(percentile / 100 * sorted.length) - 1, 0, sorted.length - 1);
+        return sorted[index];
+    }
+
+    private static int bit(int key)
+    {
+        int index = keys.indexOf(key);
+        if (index < 0)
+        {
+            throw new GdxRuntimeException("Key " + Input.Keys.toString(key) + " is not tracked; see GameInput.trackKey");
+        }
+        return 1 << index;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+
+// Reports textures that were never disposed, in debug builds (the desktop debug task turns it on).
+// libGDX counts every texture loaded from a file; each of them should belong to AssetRegistry, to the
+// asset manager while a screen's declared assets load, to the game (its shared font) or to the active
+// screen (see BaseScreen.own).
+// BaseGame checks that count each time it has disposed a screen, and again when the game exits, when
+// no texture should be left at all. Textures made from a Pixmap are not counted by libGDX, so they are
+// not checked.
+
+public class LeakDetector
+{
+    private static boolean enabled;
+
+    // application whose list of textures has been started, see managedTextureCount
+    private static Application listedApp;
+
+    private LeakDetector() {}
+
+    /**
+     * Turn leak reports on or off (off by default); they cost a pass over the registry per screen change.
+     * @param enabled: true to check for undisposed textures
+     */
+    public static void setEnabled(boolean enabled)
+    {
+        LeakDetector.enabled = enabled;
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Checks that the textures still loaded once a screen has been disposed are all owned by someone;
+     * called by BaseGame.
+     * @param disposed: screen that was just disposed
+     * @param active: screen shown in its place
+     * @param assetManager: the game's asset manager, or null if it was never created
+     */
+    static void checkScreen(BaseScreen disposed, BaseScreen active, AssetManager assetManager)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        int owned = AssetRegistry.getLoadedTextureCount() + BaseGame.getSharedTextureCount()
+                + active.getOwnedTextureCount();
+
+        // assets declared for a screen that is still loading; the ones the registry took over are counted above
+        if (assetManager != null)
+        {
+            for (String fileName : assetManager.getAssetNames())
+            {
+                if (AssetRegistry.isAdopted(fileName))
+                {
+                    continue;
+                }
+
+                Class<?> type = assetManager.getAssetType(fileName);
+                if (type == Texture.class)
+                {
+                    owned++;
+                } else if (type == TextureAtlas.class)
+                {
+                    owned += assetManager.get(fileName, TextureAtlas.class).getTextures().size;
+                }
+            }
+        }
+
+        int leaked = managedTextureCount() - owned;
+        if (leaked > 0)
+        {
+            Gdx.app.error("LeakDetector", leaked + " textures were not disposed with "
+                    + disposed.getClass().getName() + "; " + Texture.getManagedStatus());
+        }
+    }
+
+    /**
+     * Checks that every texture has been disposed; called by BaseGame once the game itself is disposed.
+     */
+    static void checkExit()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        int leaked = managedTextureCount();
+        if (leaked > 0)
+        {
+            Gdx.app.error("LeakDetector", leaked + " textures were not disposed when the game exited; "
+                    + Texture.getManagedStatus());
+        }
+    }
+
+    private static int managedTextureCount()
+    {
+        // no texture can have been loaded without an application and a GL context
+        if (Gdx.app == null || Gdx.gl == null)
+        {
+            return 0;
+        }
+
+        // libGDX starts its list of an application's textures with the first one loaded from a file, and
+        // cannot count them before; a managed texture made and disposed right away starts the list empty
+        if (listedApp != Gdx.app)
+        {
+            Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+            new Texture(new PixmapTextureData(pixmap, null, false, true, true)).dispose();
+            listedApp = Gdx.app;
+        }
+
+        return Texture.getNumManagedTextures();
+    }
+}
@@ -0,0 +1,231 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+// Builds a level from a compiled level file instead of constructor calls written in a screen.
+// Levels are written as text (core/levels/*.txt) and compiled at build time by the tools module
+// into a compact binary file, so loading does no text parsing and no polygon math: the file holds
+// the world size, the background image, one collision shape per actor type and then every actor
+// as a type number and a position. Each type name is mapped to a factory that constructs the
+// matching BaseActor subclass; actors are created in file order, which is also their draw order.
+// Levels with a chunk size are streamed instead: the actors go into a ChunkedWorld, which creates them
+// as the camera comes near, except for types marked 'keep' (such as the player), which are created at once.
+//
+// Binary layout (big-endian, as written by DataOutputStream):
+//   int magic, short version
+//   float worldWidth, float worldHeight, UTF background (empty for none)
+//   float chunkSize (0 when not streamed), UTF tile (empty for none)
+//   short typeCount, then per type: UTF name, boolean keep, float width, float height, byte shape,
+//                                   short vertexCount, vertexCount x (float x, float y)
+//   int actorCount, then per actor: short type, float x, float y
+
+public class LevelLoader
+{
+    // "SCLV" - marks a Starfish Collector level file
+    public static final int MAGIC = 0x53434C56;
+    public static final short VERSION = 3;
+
+    // collision shape of an actor type: the type's polygon, or a circle, capsule or box fitted to each actor
+    public static final byte SHAPE_POLYGON = 0;
+    public static final byte SHAPE_CIRCLE = 1;
+    public static final byte SHAPE_CAPSULE = 2;
+    public static final byte SHAPE_BOX = 3;
+
+    /**
+     * Creates the actor for one entry of a level file; typically just calls the actor's constructor.
+     */
+    public interface Factory
+    {
+        BaseActor create(float x, float y, Stage stage);
+    }
+
+    // actor type name used in level files -> factory
+    private ObjectMap<String, Factory> factories;
+
+    public LevelLoader()
+    {
+        this.factories = new ObjectMap<String, Factory>();
+    }
+
+    /**
+     * Makes an actor type available to level files.
+     * @param typeName: name used for the type in level files, e.g. "Starfish"
+     * @param factory: creates actors of the type
+     */
+    public void register(String typeName, Factory factory)
+    {
+        this.factories.put(typeName, factory);
+    }
+
+    /**
+     * Loads a compiled level onto a stage: sets the world bounds, adds the background and creates every actor
+     * (or, for a streamed level, adds a ChunkedWorld holding them).
+     * @param file: compiled level file
+     * @param stage: stage the actors are added to
+     * @return number of actors in the level, not counting the background
+     */
+    public int load(FileHandle file, Stage stage)
+    {
+        // level files are build output, missing when a launcher ran without the tools module's tasks
+        if (!file.exists())
+        {
+            throw new GdxRuntimeException("Level " + file + " not found; compile it with ./gradlew :tools:compileLevels");
+        }
+
+        // read in one go; decoding from memory is much faster than many small reads from the file
+        byte[] bytes = file.readBytes();
+
+        try
+        {
+            return this.load(bytes, stage);
+        } catch (GdxRuntimeException e)
+        {
+            throw new GdxRuntimeException("Error loading level: " + file, e);
+        }
+    }
+
+    /**
+     * Loads a compiled level held in memory onto a stage.
+     * @param bytes: contents of a compiled level file
+     * @param stage: stage the actors are added to
+     * @return number of actors in the level, not counting the background
+     */
+    public int load(byte[] bytes, Stage stage)
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        try
+        {
+            if (in.readInt() != MAGIC)
+            {
+                throw new GdxRuntimeException("Not a level file");
+            }
+
+            short version = in.readShort();
+            if (version != VERSION)
+            {
+                throw new GdxRuntimeException("Unsupported level version " + version + ", expected " + VERSION);
+            }
+
+            // -- world --
+            float worldWidth = in.readFloat();
+            float worldHeight = in.readFloat();
+            String background = in.readUTF();
+            float chunkSize = in.readFloat();
+            String tile = in.readUTF();
+
+            if (background.length() > 0)
+            {
+                BaseActor backgroundActor = new BaseActor(0, 0, stage);
+                backgroundActor.loadTexture(background);
+                backgroundActor.setSize(worldWidth, worldHeight);
+                backgroundActor.setStatic(true);
+            }
+
+            BaseActor.setWorldBounds(worldWidth, worldHeight);
+
+            ChunkedWorld world = null;
+            if (chunkSize > 0)
+            {
+                world = new ChunkedWorld(stage, worldWidth, worldHeight, chunkSize, (tile.length() > 0) ? tile : null);
+            }
+
+            // -- actor types --
+            int typeCount = in.readShort();
+            Factory[] typeFactories = new Factory[typeCount];
+            float[] typeWidths = new float[typeCount];
+            float[] typeHeights = new float[typeCount];
+            byte[] typeShapes = new byte[typeCount];
+            float[][] typeVertices = new float[typeCount][];
+            boolean[] typeKept = new boolean[typeCount];
+            int[] worldTypes = new int[typeCount];
+
+            for (int t = 0; t < typeCount; t++)
+            {
+                String name = in.readUTF();
+                typeFactories[t] = this.factories.get(name);
+
+                if (typeFactories[t] == null)
+                {
+                    throw new GdxRuntimeException("No factory registered for actor type: " + name);
+                }
+
+                typeKept[t] = in.readBoolean();
+                typeWidths[t] = in.readFloat();
+                typeHeights[t] = in.readFloat();
+                typeShapes[t] = in.readByte();
+
+                // shared by every actor of the type
+                int vertexCount = in.readShort();
+                if (vertexCount > 0)
+                {
+                    float[] vertices = new float[2 * vertexCount];
+                    for (int v = 0; v < vertices.length; v++)
+                    {
+                        vertices[v] = in.readFloat();
+                    }
+                    typeVertices[t] = vertices;
+                }
+
+                if (world != null)
+                {
+                    worldTypes[t] = world.addType(name, typeFactories[t], typeShapes[t], typeVertices[t],
+                            typeWidths[t], typeHeights[t]);
+                }
+            }
+
+            // -- actors --
+            int actorCount = in.readInt();
+
+            for (int i = 0; i < actorCount; i++)
+            {
+                int type = in.readShort();
+                float x = in.readFloat();
+                float y = in.readFloat();
+
+                if (world != null && !typeKept[type])
+                {
+                    world.addSpawn(worldTypes[type], x, y);
+                } else
+                {
+                    BaseActor actor = typeFactories[type].create(x, y, stage);
+                    applyShape(actor, typeShapes[type], typeVertices[type], typeWidths[type], typeHeights[type]);
+                }
+            }
+
+            return actorCount;
+        } catch (IOException e)
+        {
+            throw new GdxRuntimeException("Truncated level file", e);
+        }
+    }
+
+    /**
+     * Gives a newly created actor the collision shape its level chose for its type. A circle, capsule or box is
+     * fitted to the actor's size. A polygon is precomputed for the size given in the level source; if the actor's
+     * image has changed size since, the actor keeps the polygon its constructor made instead.
+     */
+    static void applyShape(BaseActor actor, byte shape, float[] vertices, float width, float height)
+    {
+        if (shape == SHAPE_CIRCLE)
+        {
+            actor.setBoundaryCircle();
+        } else if (shape == SHAPE_CAPSULE)
+        {
+            actor.setBoundaryCapsule();
+        } else if (shape == SHAPE_BOX)
+        {
+            actor.setBoundaryBox();
+        } else if (vertices != null && actor.getWidth() == width && actor.getHeight() == height)
+        {
+            actor.setBoundaryPolygon(vertices);
+        }
+    }
+}
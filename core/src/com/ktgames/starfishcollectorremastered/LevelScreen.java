@@ -1,86 +1,226 @@
 package com.ktgames.starfishcollectorremastered;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
+import com.badlogic.gdx.utils.Array;
 
 public class LevelScreen extends BaseScreen
 {
     private Turtle turtle;
     private boolean win;
 
+    // streams the level in chunks, or null if the whole level is on the stage
+    private ChunkedWorld world;
+
+    // reused every frame to collect collision candidates near the turtle
+    private Array<Rock> nearbyRocks;
+    private Array<Starfish> nearbyStarfish;
+
+    // whirlpool effects are reused rather than created for every starfish collected
+    private BaseActorPool<Whirlpool> whirlpools;
+
+    // images used by the level, loaded behind a loading screen before initialize runs
+    @Override
+    public void declareAssets(Array<AssetDescriptor<?>> assets)
+    {
+        addLevelAssets(assets);
+    }
+
+    /**
+     * Adds the images of level 1, or the atlas or compressed files they are loaded from; shared with EcsLevelScreen.
+     * @param assets: list to add asset descriptors to
+     */
+    static void addLevelAssets(Array<AssetDescriptor<?>> assets)
+    {
+        String folder = "/Users/katherineohalloran/Documents/GameDev/libGDX-Learning/Starfish-Collector-Remastered/core/assets/";
+
+        addImage(assets, folder + "water-border.jpg");
+        addImage(assets, folder + "NPCs/starfish.png");
+        addImage(assets, folder + "NPCs/rock.png");
+        addImage(assets, folder + "Messages/you-win.png");
+
+        for (int n = 1; n <= 6; n++)
+        {
+            addImage(assets, folder + "Turtle/turtle-" + n + ".png");
+        }
+
+        addImage(assets, folder + "NPCs/Whirlpool/whirlpool.png");
+    }
+
+    // declares an image the way AssetRegistry loads it (the atlas it is packed into only once)
+    private static void addImage(Array<AssetDescriptor<?>> assets, String fileName)
+    {
+        AssetDescriptor<?> asset = AssetRegistry.getAssetDescriptor(fileName);
+
+        for (AssetDescriptor<?> declared : assets)
+        {
+            if (declared.fileName.equals(asset.fileName))
+            {
+                return;
+            }
+        }
+        assets.add(asset);
+    }
+
     @Override
     public void initialize()
     {
-        // recall constructor for BaseActor takes x, y coordinates and stage
-        BaseActor ocean = new BaseActor(0, 0, this.mainStage);
+        // simulate at a steady 60 steps per second so the turtle moves the same on any display
+        this.setFixedTimestep(1/60f, 5);
 
-        //-- set image and size of ocean post initialization
-        // using 1 image loadTexture shortcut
-        ocean.loadTexture("/Users/katherineohalloran/Documents/GameDev/libGDX-Learning/Starfish-Collector-Remastered/core/assets/water-border.jpg");
-        ocean.setSize(1200, 900);
+        // index the main stage so collision checks only look at actors near the turtle
+        SpatialHash.attach(this.mainStage, 128);
 
-        // establish the size of the game world - setWorldBounds is static method of BaseActor
-        BaseActor.setWorldBounds(ocean);
+        // starfish and whirlpools only change themselves in act, so they are acted on every core
+        this.setParallelAct(true);
 
-        // adding multiple starfish, note that constructor of BaseActor will add them to our stage so the
-        // initialization is not lost by not having a variable
-        new Starfish(400, 400, this.mainStage);
-        new Starfish(500, 100, this.mainStage);
-        new Starfish(100, 450, this.mainStage);
-        new Starfish(200, 250, this.mainStage);
+        // draw the background, starfish, turtle and whirlpools in layers, so each layer binds its texture once
+        this.setLayeredDraw(true);
 
-        // multiple rocks
-        new Rock(200, 150, this.mainStage);
-        new Rock(100, 300, this.mainStage);
-        new Rock(300, 350, this.mainStage);
-        new Rock(450, 200, this.mainStage);
+        this.nearbyRocks = new Array<Rock>();
+        this.nearbyStarfish = new Array<Starfish>();
 
-        this.turtle = new Turtle(20, 20, this.mainStage);
+        // the ocean, starfish, rocks and turtle are listed in a level file (core/levels/level-1.txt),
+        // compiled at build time; the loader also sets the world bounds from it
+        LevelLoader loader = createLoader();
+        loader.load(Gdx.files.internal("levels/level-1.bin"), this.mainStage);
+
+        this.turtle = BaseActor.getList(this.mainStage, Turtle.class).first();
+        this.world = ChunkedWorld.get(this.mainStage);
+        this.setCameraTarget(this.turtle);
+
+        // a whirlpool lasts one second, so a handful covers collecting several starfish in a row
+        this.whirlpools = new BaseActorPool<Whirlpool>(8)
+        {
+            @Override
+            protected Whirlpool newObject(float x, float y, Stage stage)
+            {
+                return new Whirlpool(x, y, stage);
+            }
+        };
+        this.whirlpools.fill(4, this.mainStage);
 
         this.win = false;
 
     }
 
-    public void update(float dt)
+    @Override
+    public void dispose()
     {
+        super.dispose();
 
-        // for rockActor in the instances of the rock class in the stage..
-        for (BaseActor rockActor : BaseActor.getList(this.mainStage, "com.ktgames.starfishcollectorremastered.Rock"))
+        // whirlpools that left the stage wait in the pool, still holding their animation
+        if (this.whirlpools != null)
         {
+            this.whirlpools.clear();
+        }
+    }
+
+    public void update(float dt)
+    {
+        // a turtle that moved further than its own size this step was stopped at the first rock it hit
+        // (in Turtle.act); collect the starfish it swam through before that
+        boolean fast = this.turtle.isFastStep();
 
-            this.turtle.preventOverlap(rockActor);
+        // for rock near the turtle in the stage..
+        this.turtle.getOverlapCandidates(Rock.class, this.nearbyRocks);
+        for (int i = 0; i < this.nearbyRocks.size; i++)
+        {
+            this.turtle.preventOverlap(this.nearbyRocks.get(i));
         }
 
 
-        for (BaseActor starfishActor : BaseActor.getList(this.mainStage, "com.ktgames.starfishcollectorremastered.Starfish"))
+        if (fast)
         {
-            Starfish starfish = (Starfish)starfishActor;
+            this.turtle.getSweepCandidates(Starfish.class, this.nearbyStarfish);
+        } else
+        {
+            this.turtle.getOverlapCandidates(Starfish.class, this.nearbyStarfish);
+        }
+        for (int i = 0; i < this.nearbyStarfish.size; i++)
+        {
+            Starfish starfish = this.nearbyStarfish.get(i);
+            boolean touched = this.turtle.overlaps(starfish) || (fast && this.turtle.timeOfImpact(starfish) >= 0);
 
-            if (this.turtle.overlaps(starfish) && !starfish.isCollected())
+            if (touched && !starfish.isCollected())
             {
                 starfish.collect();
 
-                Whirlpool whirl = new Whirlpool(0, 0, this.mainStage);
+                Whirlpool whirl = this.whirlpools.obtain(0, 0, this.mainStage);
                 whirl.centerAtActor(starfish);
                 whirl.setOpacity(0.25f);
             }
         }
 
-        if (BaseActor.count(this.mainStage, "com.ktgames.starfishcollectorremastered.Starfish") == 0 && !win)
+        // in a streamed level, starfish in chunks out of range are not on the stage but still to be collected
+        int starfishLeft = BaseActor.count(this.mainStage, Starfish.class);
+        if (this.world != null)
+        {
+            starfishLeft += this.world.getWaitingCount("Starfish");
+        }
+
+        if (starfishLeft == 0 && !win)
         {
             this.win = true;
 
-            // win message is a UI element
-            BaseActor youWinMessage = new BaseActor(0, 0, this.uiStage);
+            showWinMessage(this.uiStage);
+        }
 
-            youWinMessage.loadTexture("/Users/katherineohalloran/Documents/GameDev/libGDX-Learning/Starfish-Collector-Remastered/core/assets/Messages/you-win.png");
-            youWinMessage.centerAtPosition(400, 300);
 
-            // starts transparent, loads in after second delay to correspond with starfish disappearing
-            youWinMessage.setOpacity(0);
-            youWinMessage.addAction(Actions.delay(1));
-            youWinMessage.addAction(Actions.after(Actions.fadeIn(1)));
-        }
+    }
+
+    /**
+     * Creates a level loader that knows the Starfish, Rock and Turtle types; shared with EcsLevelScreen.
+     * @return level loader
+     */
+    static LevelLoader createLoader()
+    {
+        LevelLoader loader = new LevelLoader();
+        loader.register("Starfish", new LevelLoader.Factory()
+        {
+            @Override
+            public BaseActor create(float x, float y, Stage stage)
+            {
+                return new Starfish(x, y, stage);
+            }
+        });
+        loader.register("Rock", new LevelLoader.Factory()
+        {
+            @Override
+            public BaseActor create(float x, float y, Stage stage)
+            {
+                return new Rock(x, y, stage);
+            }
+        });
+        loader.register("Turtle", new LevelLoader.Factory()
+        {
+            @Override
+            public BaseActor create(float x, float y, Stage stage)
+            {
+                return new Turtle(x, y, stage);
+            }
+        });
+
+        return loader;
+    }
+
+    /**
+     * Fades in the "you win" message; shared with EcsLevelScreen.
+     * @param uiStage: stage to show the message on
+     */
+    static void showWinMessage(Stage uiStage)
+    {
+        // win message is a UI element
+        BaseActor youWinMessage = new BaseActor(0, 0, uiStage);
 
+        youWinMessage.loadTexture("/Users/katherineohalloran/Documents/GameDev/libGDX-Learning/Starfish-Collector-Remastered/core/assets/Messages/you-win.png");
+        youWinMessage.centerAtPosition(400, 300);
 
+        // starts transparent, loads in after second delay to correspond with starfish disappearing
+        youWinMessage.setOpacity(0);
+        youWinMessage.addAction(Actions.delay(1));
+        youWinMessage.addAction(Actions.after(Actions.fadeIn(1)));
     }
 }
@@ -0,0 +1,157 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.utils.Array;
+
+// Shown by BaseGame.setActiveScreen while the assets a screen declared are loaded.
+// Loading goes through the game's AssetManager a little each frame: images are decoded on a
+// background thread and only the upload to the GPU happens on the render thread, within a
+// time budget, so the window keeps drawing a progress bar instead of freezing. Once every asset
+// is loaded the next screen is initialized (its actors find their textures already loaded)
+// and shown, and BaseGame disposes the loading screen.
+
+public class LoadingScreen extends BaseScreen
+{
+    private static final float BAR_WIDTH = 400;
+    private static final float BAR_HEIGHT = 20;
+
+    private final BaseScreen nextScreen;
+    private final Array<AssetDescriptor<?>> assets;
+    private final AssetManager assetManager;
+
+    // time per frame the asset manager may spend finishing loaded assets (milliseconds)
+    private int loadBudget;
+
+    private boolean loaded;
+
+    private Texture pixel;
+    private BitmapFont font;
+    private Image barFill;
+    private Label progressLabel;
+
+    /**
+     * Creates a loading screen; normally done by BaseGame.setActiveScreen.
+     * @param nextScreen: screen shown once loading is complete
+     * @param assets: assets the next screen declared
+     * @param assetManager: manager that loads them
+     */
+    public LoadingScreen(BaseScreen nextScreen, Array<AssetDescriptor<?>> assets, AssetManager assetManager)
+    {
+        super();
+
+        this.nextScreen = nextScreen;
+        this.assets = assets;
+        this.assetManager = assetManager;
+        this.loadBudget = 10;
+        this.loaded = false;
+    }
+
+    @Override
+    public void initialize()
+    {
+        for (AssetDescriptor<?> asset : this.assets)
+        {
+            this.assetManager.load(asset);
+        }
+
+        // the game's white pixel, stretched and tinted to draw the bar
+        this.pixel = BaseGame.getPixel();
+
+        float barX = (this.uiStage.getWidth() - BAR_WIDTH) / 2;
+        float barY = (this.uiStage.getHeight() - BAR_HEIGHT) / 2;
+
+        Image barBackground = new Image(this.pixel);
+        barBackground.setBounds(barX, barY, BAR_WIDTH, BAR_HEIGHT);
+        barBackground.setColor(0.1f, 0.2f, 0.4f, 1);
+        this.uiStage.addActor(barBackground);
+
+        this.barFill = new Image(this.pixel);
+        this.barFill.setBounds(barX, barY, 0, BAR_HEIGHT);
+        this.barFill.setColor(0.3f, 0.7f, 1, 1);
+        this.uiStage.addActor(this.barFill);
+
+        // the game's font, so showing a loading screen creates no textures of its own
+        this.font = BaseGame.getFont();
+        this.progressLabel = new Label("Loading", new Label.LabelStyle(this.font, Color.WHITE));
+        this.progressLabel.setPosition(barX, barY + BAR_HEIGHT + 10);
+        this.uiStage.addActor(this.progressLabel);
+    }
+
+    /**
+     * Set how much time per frame may be spent on loading.
+     * @param millis: time budget (milliseconds); default is 10
+     */
+    public void setLoadBudget(int millis)
+    {
+        this.loadBudget = millis;
+    }
+
+    public void update(float dt)
+    {
+        if (this.loaded)
+        {
+            return;
+        }
+
+        // recorded and replayed sessions load in one frame, so every run takes the same number of frames
+        if (GameInput.isDeterministic())
+        {
+            this.assetManager.finishLoading();
+            this.loaded = true;
+        } else
+        {
+            this.loaded = this.assetManager.update(this.loadBudget);
+        }
+
+        float progress = this.loaded ? 1 : this.assetManager.getProgress();
+        this.barFill.setWidth(BAR_WIDTH * progress);
+        this.progressLabel.setText("Loading " + Math.round(progress * 100) + "%");
+    }
+
+    // the switch happens after the frame is drawn, so this screen is not drawn after being disposed
+    @Override
+    public void render(float dt)
+    {
+        super.render(dt);
+
+        if (this.loaded)
+        {
+            this.showNextScreen();
+        }
+    }
+
+    private void showNextScreen()
+    {
+        // textures the registry already held copies of before this load are not taken over again
+        boolean[] adoptedBefore = new boolean[this.assets.size];
+        for (int i = 0; i < this.assets.size; i++)
+        {
+            adoptedBefore[i] = AssetRegistry.isAdopted(this.assets.get(i).fileName);
+        }
+
+        this.nextScreen.start();
+
+        // the registry now holds the manager's reference to every texture and atlas it took over;
+        // declared ones that it did not take are released again
+        for (int i = 0; i < this.assets.size; i++)
+        {
+            AssetDescriptor<?> asset = this.assets.get(i);
+            boolean image = asset.type == Texture.class || asset.type == TextureAtlas.class;
+
+            if (image && (adoptedBefore[i] || !AssetRegistry.isAdopted(asset.fileName)))
+            {
+                this.assetManager.unload(asset.fileName);
+            }
+        }
+
+        // BaseGame disposes this screen once the next one is shown
+        BaseGame.showScreen(this.nextScreen);
+    }
+}
@@ -1,6 +1,5 @@
 package com.ktgames.starfishcollectorremastered;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 
 public class MenuScreen extends BaseScreen
@@ -30,10 +29,16 @@ public class MenuScreen extends BaseScreen
     public void update(float dt)
     {
         // if the user hits the 'S' key start the game
-        if (Gdx.input.isKeyPressed(Input.Keys.S))
+        if (GameInput.isKeyPressed(Input.Keys.S))
         {
             StarfishGame.setActiveScreen(new LevelScreen());
         }
 
+        // the same level, run on the entity-component-system backend
+        if (GameInput.isKeyPressed(Input.Keys.E))
+        {
+            StarfishGame.setActiveScreen(new EcsLevelScreen());
+        }
+
     }
 }
@@ -0,0 +1,169 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+
+// Runs the act methods of thread-safe BaseActors on several threads (see BaseScreen.setParallelAct).
+// Core code cannot create threads (the html backend has none), so the launcher of a backend that can
+// supplies an Executor; the desktop launcher installs one backed by a ForkJoinPool. Without one,
+// parallel mode simply acts every actor on the render thread.
+//
+// While a parallel pass runs, changes to the stage are not safe: removing an actor (including through
+// Actions.removeActor) is queued instead, and other changes such as spawning actors must be handed to
+// defer. Both are applied on the render thread as soon as the pass ends.
+
+public class ParallelAct
+{
+    /**
+     * Runs a task over a range of indices, possibly splitting it across threads.
+     */
+    public interface Executor
+    {
+        /**
+         * Calls <code>task.run</code> on disjoint sub-ranges that together cover 0 to count,
+         * and returns once every sub-range is done.
+         * @param count: number of indices
+         * @param task: work to do for a sub-range
+         */
+        void execute(int count, Task task);
+    }
+
+    /**
+     * Work for a sub-range of indices.
+     */
+    public interface Task
+    {
+        /**
+         * @param from: first index (inclusive)
+         * @param to: last index (exclusive)
+         */
+        void run(int from, int to);
+    }
+
+    private static Executor executor;
+
+    // true while a parallel pass is running; the render thread waits for the pass, so any stage change
+    // made meanwhile comes from an actor's act method
+    private static volatile boolean running = false;
+
+    // stage changes made during the pass, applied in order once it ends
+    private static final Array<Actor> deferredRemovals = new Array<Actor>();
+    private static final Array<Runnable> deferredMutations = new Array<Runnable>();
+
+    // reused while applying, so a deferred change can itself defer more
+    private static final Array<Actor> applyingRemovals = new Array<Actor>();
+    private static final Array<Runnable> applyingMutations = new Array<Runnable>();
+
+    // the class is static only, like AssetRegistry
+    private ParallelAct() {}
+
+    /**
+     * Set how parallel passes are split across threads; called by a backend's launcher.
+     * @param parallelExecutor: executor, or null to act every actor on the render thread
+     */
+    public static void setExecutor(Executor parallelExecutor)
+    {
+        executor = parallelExecutor;
+    }
+
+    /**
+     * @return true if this backend can act actors on more than one thread
+     */
+    public static boolean isAvailable()
+    {
+        return executor != null;
+    }
+
+    /**
+     * @return true while a parallel pass is running
+     */
+    public static boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * Runs a change to the stage (e.g. spawning an actor) on the render thread: right away outside a parallel
+     * pass, after the pass otherwise. Actors must not be created during a pass, since loading their
+     * images needs the render thread.
+     * @param mutation: change to make
+     */
+    public static void defer(Runnable mutation)
+    {
+        if (!running)
+        {
+            mutation.run();
+            return;
+        }
+
+        synchronized (deferredMutations)
+        {
+            deferredMutations.add(mutation);
+        }
+    }
+
+    /**
+     * Queues an actor's removal from its stage until the current pass ends; called by BaseActor.remove.
+     */
+    static void deferRemove(Actor actor)
+    {
+        synchronized (deferredRemovals)
+        {
+            deferredRemovals.add(actor);
+        }
+    }
+
+    /**
+     * Acts actors with the installed executor (or on this thread if there is none), then applies
+     * the stage changes they deferred.
+     * @param count: number of actors
+     * @param task: acts the actors in a sub-range
+     */
+    static void run(int count, Task task)
+    {
+        running = true;
+
+        try
+        {
+            if (executor == null)
+            {
+                task.run(0, count);
+            } else
+            {
+                executor.execute(count, task);
+            }
+        } finally
+        {
+            running = false;
+        }
+    }
+
+    /**
+     * Applies the removals and other changes deferred by the last pass; called on the render thread.
+     */
+    static void applyDeferred()
+    {
+        synchronized (deferredRemovals)
+        {
+            applyingRemovals.addAll(deferredRemovals);
+            deferredRemovals.clear();
+        }
+        synchronized (deferredMutations)
+        {
+            applyingMutations.addAll(deferredMutations);
+            deferredMutations.clear();
+        }
+
+        for (int i = 0; i < applyingRemovals.size; i++)
+        {
+            applyingRemovals.get(i).remove();
+        }
+        for (int i = 0; i < applyingMutations.size; i++)
+        {
+            applyingMutations.get(i).run();
+        }
+
+        applyingRemovals.clear();
+        applyingMutations.clear();
+    }
+}
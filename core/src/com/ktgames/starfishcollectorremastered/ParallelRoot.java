@@ -0,0 +1,158 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Action;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.utils.Array;
+
+// Root group of BaseScreen's main stage. Acts exactly like the default root until parallel mode is on;
+// then the thread-safe BaseActors among its children (see BaseActor.isThreadSafe) are acted first,
+// split across threads by ParallelAct, and every other child is acted afterwards on the render thread,
+// in stage order, once the changes the parallel actors deferred have been applied.
+
+public class ParallelRoot extends Group
+{
+    private boolean parallel;
+
+    // thread-safe actors of the current pass, and the time step they are acted with
+    private final Array<BaseActor> parallelActors;
+    private float delta;
+
+    private final ParallelAct.Task actTask;
+
+    // number of actors acted in parallel during the last act
+    private int parallelCount;
+
+    public ParallelRoot()
+    {
+        super();
+
+        this.parallel = false;
+        this.parallelActors = new Array<BaseActor>();
+        this.parallelCount = 0;
+
+        this.actTask = new ParallelAct.Task()
+        {
+            @Override
+            public void run(int from, int to)
+            {
+                Object[] actors = parallelActors.items;
+                for (int i = from; i < to; i++)
+                {
+                    ((BaseActor)actors[i]).act(delta);
+                }
+            }
+        };
+    }
+
+    /**
+     * @param enabled: true to act thread-safe children in parallel
+     */
+    public void setParallel(boolean enabled)
+    {
+        this.parallel = enabled;
+    }
+
+    /**
+     * @return true if thread-safe children are acted in parallel
+     */
+    public boolean isParallel()
+    {
+        return this.parallel;
+    }
+
+    /**
+     * @return number of actors acted in parallel during the last act
+     */
+    public int getParallelCount()
+    {
+        return this.parallelCount;
+    }
+
+    @Override
+    public void act(float delta)
+    {
+        if (!this.parallel)
+        {
+            this.parallelCount = 0;
+            super.act(delta);
+            return;
+        }
+
+        this.actActions(delta);
+
+        Actor[] actors = this.getChildren().begin();
+        int n = this.getChildren().size;
+
+        for (int i = 0; i < n; i++)
+        {
+            if (actors[i] instanceof BaseActor && ((BaseActor)actors[i]).isThreadSafe())
+            {
+                BaseActor actor = (BaseActor)actors[i];
+                actor.actedInParallel = true;
+                this.parallelActors.add(actor);
+            }
+        }
+        this.parallelCount = this.parallelActors.size;
+
+        if (this.parallelActors.size > 0)
+        {
+            this.delta = delta;
+            ParallelAct.run(this.parallelActors.size, this.actTask);
+
+            // the broadphase index is not thread-safe, so parallel actors are re-indexed here
+            for (int i = 0; i < this.parallelActors.size; i++)
+            {
+                BaseActor actor = this.parallelActors.get(i);
+                if (actor.spatialHash != null)
+                {
+                    actor.spatialHash.update(actor);
+                }
+            }
+
+            ParallelAct.applyDeferred();
+        }
+
+        // remaining children, skipping parallel ones and any removed by deferred changes
+        for (int i = 0; i < n; i++)
+        {
+            Actor actor = actors[i];
+
+            if (actor.getParent() != this || (actor instanceof BaseActor && ((BaseActor)actor).actedInParallel))
+            {
+                continue;
+            }
+            actor.act(delta);
+        }
+
+        this.getChildren().end();
+
+        for (int i = 0; i < this.parallelActors.size; i++)
+        {
+            this.parallelActors.get(i).actedInParallel = false;
+        }
+        this.parallelActors.clear();
+    }
+
+    // the root's own actions, processed the way Actor.act does
+    private void actActions(float delta)
+    {
+        Array<Action> actions = this.getActions();
+
+        for (int i = 0; i < actions.size; i++)
+        {
+            Action action = actions.get(i);
+
+            if (action.act(delta) && i < actions.size)
+            {
+                int index = (actions.get(i) == action) ? i : actions.indexOf(action, true);
+                if (index != -1)
+                {
+                    actions.removeIndex(index);
+                    action.setActor(null);
+                    i--;
+                }
+            }
+        }
+    }
+}
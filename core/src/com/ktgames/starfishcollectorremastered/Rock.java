@@ -16,5 +16,9 @@ public class Rock extends BaseActor
 
         // set up boundaryPolygon for more precise collisions
         this.setBoundaryPolygon(8);
+
+        // rocks never move, so they are drawn from the stage's static cache
+        this.setStatic(true);
+        this.setDrawLayer(DrawQueue.PROPS);
     }
 }
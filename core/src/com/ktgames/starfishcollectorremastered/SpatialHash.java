@@ -0,0 +1,391 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+// Uniform-grid spatial hash used as a broadphase for BaseActor collisions.
+// The world is divided into square cells; every BaseActor on a stage with a hash attached
+// is listed in each cell its bounds touch. Asking "what could this actor be touching?" then
+// only looks at the few cells around the actor instead of every actor on the stage, so
+// collision cost grows with how crowded an area is, not with how big the level is.
+// Actors keep themselves up to date as they are added, removed, moved or resized.
+
+public class SpatialHash
+{
+    // hashes attached to stages, looked up by BaseActor when it joins a stage
+    private static ObjectMap<Stage, SpatialHash> stageHashes = new ObjectMap<Stage, SpatialHash>();
+
+    private final float cellSize;
+
+    // cell key -> actors whose bounds touch that cell
+    private LongMap<Array<BaseActor>> cells;
+
+    // incremented for every query; actors remember the last query that returned them
+    // so an actor spanning several cells is only reported once
+    private int queryStamp;
+
+    private int actorCount;
+
+    // reused bounds so queries do not allocate
+    private final Rectangle queryBounds;
+
+    /**
+     * Creates an empty spatial hash.
+     * @param cellSize: width and height of each grid cell (pixels); roughly the size of a typical actor works well
+     */
+    public SpatialHash(float cellSize)
+    {
+        this.cellSize = cellSize;
+        this.cells = new LongMap<Array<BaseActor>>();
+        this.queryStamp = 0;
+        this.actorCount = 0;
+        this.queryBounds = new Rectangle();
+    }
+
+    //----------------------------
+    // Stage attachment
+    //----------------------------
+
+    /**
+     * Attaches a spatial hash to a stage. BaseActors already on the stage, including those inside groups,
+     * are indexed immediately; BaseActors added later register themselves.
+     * @param stage: stage whose actors should be indexed
+     * @param cellSize: width and height of each grid cell (pixels)
+     * @return spatial hash attached to the stage
+     */
+    public static SpatialHash attach(Stage stage, float cellSize)
+    {
+        detach(stage);
+
+        SpatialHash hash = new SpatialHash(cellSize);
+        stageHashes.put(stage, hash);
+
+        hash.addAll(stage.getRoot());
+
+        return hash;
+    }
+
+    private void addAll(Group group)
+    {
+        for (Actor a : group.getChildren())
+        {
+            if (a instanceof BaseActor)
+            {
+                this.add((BaseActor)a);
+            }
+            if (a instanceof Group)
+            {
+                this.addAll((Group)a);
+            }
+        }
+    }
+
+    /**
+     * Removes the spatial hash from a stage, if one was attached.
+     * @param stage: stage to stop indexing
+     */
+    public static void detach(Stage stage)
+    {
+        SpatialHash hash = stageHashes.remove(stage);
+
+        if (hash != null)
+        {
+            hash.clear();
+        }
+    }
+
+    /**
+     * @param stage: stage to look up (may be null)
+     * @return spatial hash attached to the stage, or null if the stage is not indexed
+     */
+    public static SpatialHash get(Stage stage)
+    {
+        if (stage == null)
+        {
+            return null;
+        }
+        return stageHashes.get(stage);
+    }
+
+    //----------------------------
+    // Index maintenance
+    //----------------------------
+
+    /**
+     * Adds an actor to the index. Called by BaseActor when it joins an indexed stage.
+     * @param actor: actor to index
+     */
+    public void add(BaseActor actor)
+    {
+        if (actor.spatialHash == this)
+        {
+            return;
+        }
+
+        if (actor.spatialHash != null)
+        {
+            actor.spatialHash.remove(actor);
+        }
+
+        actor.spatialHash = this;
+        this.actorCount++;
+
+        computeCellRange(actor);
+        insert(actor, actor.cellMinX, actor.cellMinY, actor.cellMaxX, actor.cellMaxY);
+    }
+
+    /**
+     * Removes an actor from the index. Called by BaseActor when it leaves its stage.
+     * @param actor: actor to remove
+     */
+    public void remove(BaseActor actor)
+    {
+        if (actor.spatialHash != this)
+        {
+            return;
+        }
+
+        erase(actor, actor.cellMinX, actor.cellMinY, actor.cellMaxX, actor.cellMaxY);
+
+        actor.spatialHash = null;
+        this.actorCount--;
+    }
+
+    /**
+     * Moves an actor to the cells matching its current bounds. Nothing changes (and nothing is allocated)
+     * when the actor stays within the same cells, which is the common case for small movements.
+     * @param actor: actor whose position, size, origin or scale may have changed
+     */
+    public void update(BaseActor actor)
+    {
+        if (actor.spatialHash != this)
+        {
+            return;
+        }
+
+        int oldMinX = actor.cellMinX;
+        int oldMinY = actor.cellMinY;
+        int oldMaxX = actor.cellMaxX;
+        int oldMaxY = actor.cellMaxY;
+
+        computeCellRange(actor);
+
+        if (oldMinX == actor.cellMinX && oldMinY == actor.cellMinY
+                && oldMaxX == actor.cellMaxX && oldMaxY == actor.cellMaxY)
+        {
+            return;
+        }
+
+        erase(actor, oldMinX, oldMinY, oldMaxX, oldMaxY);
+        insert(actor, actor.cellMinX, actor.cellMinY, actor.cellMaxX, actor.cellMaxY);
+    }
+
+    /**
+     * Removes every actor from the index.
+     */
+    public void clear()
+    {
+        for (Array<BaseActor> cell : this.cells.values())
+        {
+            for (int i = 0; i < cell.size; i++)
+            {
+                cell.get(i).spatialHash = null;
+            }
+        }
+
+        this.cells.clear();
+        this.actorCount = 0;
+    }
+
+    //----------------------------
+    // Queries
+    //----------------------------
+
+    /**
+     * Collects actors of the given type whose bounds share a cell with the bounds of the given actor.
+     * These are only candidates: use <code>overlaps</code> or <code>preventOverlap</code> for the exact test.
+     * @param actor: actor to find neighbours of (never included in the results)
+     * @param type: class (or superclass) of actors to collect
+     * @param results: array the candidates are added to; it is cleared first
+     * @return the results array
+     */
+    public <T extends BaseActor> Array<T> query(BaseActor actor, Class<T> type, Array<T> results)
+    {
+        computeBounds(actor, this.queryBounds);
+        return query(this.queryBounds, type, results, actor);
+    }
+
+    /**
+     * Collects actors of the given type near the path of an actor's last move: the area covering its bounds
+     * where the move started as well as where it is now. Used for swept collision of fast-moving actors.
+     * @param actor: actor that moved (never included in the results)
+     * @param moveX: horizontal distance the actor moved
+     * @param moveY: vertical distance the actor moved
+     * @param type: class (or superclass) of actors to collect
+     * @param results: array the candidates are added to; it is cleared first
+     * @return the results array
+     */
+    public <T extends BaseActor> Array<T> querySwept(BaseActor actor, float moveX, float moveY, Class<T> type, Array<T> results)
+    {
+        Rectangle b = this.queryBounds;
+        computeBounds(actor, b);
+        b.set(Math.min(b.x, b.x - moveX), Math.min(b.y, b.y - moveY), b.width + Math.abs(moveX), b.height + Math.abs(moveY));
+
+        return query(b, type, results, actor);
+    }
+
+    /**
+     * Collects actors of the given type whose bounds share a cell with the given area.
+     * @param area: world-space rectangle to search
+     * @param type: class (or superclass) of actors to collect
+     * @param results: array the candidates are added to; it is cleared first
+     * @return the results array
+     */
+    public <T extends BaseActor> Array<T> query(Rectangle area, Class<T> type, Array<T> results)
+    {
+        return query(area, type, results, null);
+    }
+
+    private <T extends BaseActor> Array<T> query(Rectangle area, Class<T> type, Array<T> results, BaseActor exclude)
+    {
+        results.clear();
+        this.queryStamp++;
+
+        int minX = cellCoord(area.x);
+        int minY = cellCoord(area.y);
+        int maxX = cellCoord(area.x + area.width);
+        int maxY = cellCoord(area.y + area.height);
+
+        for (int cx = minX; cx <= maxX; cx++)
+        {
+            for (int cy = minY; cy <= maxY; cy++)
+            {
+                Array<BaseActor> cell = this.cells.get(cellKey(cx, cy));
+
+                if (cell == null)
+                {
+                    continue;
+                }
+
+                for (int i = 0; i < cell.size; i++)
+                {
+                    BaseActor candidate = cell.get(i);
+
+                    if (candidate == exclude || candidate.queryStamp == this.queryStamp)
+                    {
+                        continue;
+                    }
+
+                    candidate.queryStamp = this.queryStamp;
+
+                    if (ActorRegistry.isInstance(type, candidate))
+                    {
+                        // checked by isInstance just above
+                        @SuppressWarnings("unchecked")
+                        T match = (T)candidate;
+                        results.add(match);
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * @return number of actors currently indexed
+     */
+    public int getActorCount()
+    {
+        return this.actorCount;
+    }
+
+    /**
+     * @return width and height of each grid cell (pixels)
+     */
+    public float getCellSize()
+    {
+        return this.cellSize;
+    }
+
+    //----------------------------
+    // Internal helpers
+    //----------------------------
+
+    /**
+     * Conservative world-space bounds of an actor: a square around its rotation origin that contains the
+     * actor at any rotation. Rotating an actor therefore never moves it to different cells.
+     */
+    static void computeBounds(BaseActor actor, Rectangle out)
+    {
+        float radius = actor.getBoundingRadius();
+
+        float centerX = actor.getX() + actor.getOriginX();
+        float centerY = actor.getY() + actor.getOriginY();
+
+        out.set(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+    }
+
+    private void computeCellRange(BaseActor actor)
+    {
+        computeBounds(actor, this.queryBounds);
+
+        actor.cellMinX = cellCoord(this.queryBounds.x);
+        actor.cellMinY = cellCoord(this.queryBounds.y);
+        actor.cellMaxX = cellCoord(this.queryBounds.x + this.queryBounds.width);
+        actor.cellMaxY = cellCoord(this.queryBounds.y + this.queryBounds.height);
+    }
+
+    private void insert(BaseActor actor, int minX, int minY, int maxX, int maxY)
+    {
+        for (int cx = minX; cx <= maxX; cx++)
+        {
+            for (int cy = minY; cy <= maxY; cy++)
+            {
+                long key = cellKey(cx, cy);
+                Array<BaseActor> cell = this.cells.get(key);
+
+                if (cell == null)
+                {
+                    // cells are kept once created, so an actor moving back and forth does not allocate
+                    cell = new Array<BaseActor>(false, 8);
+                    this.cells.put(key, cell);
+                }
+
+                cell.add(actor);
+            }
+        }
+    }
+
+    private void erase(BaseActor actor, int minX, int minY, int maxX, int maxY)
+    {
+        for (int cx = minX; cx <= maxX; cx++)
+        {
+            for (int cy = minY; cy <= maxY; cy++)
+            {
+                Array<BaseActor> cell = this.cells.get(cellKey(cx, cy));
+
+                if (cell != null)
+                {
+                    cell.removeValue(actor, true);
+                }
+            }
+        }
+    }
+
+    private int cellCoord(float worldCoord)
+    {
+        return (int)Math.floor(worldCoord / this.cellSize);
+    }
+
+    // packs two cell coordinates into a single map key; 32 bits each, so distinct cells never share a key
+    private static long cellKey(int cx, int cy)
+    {
+        return ((long)cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
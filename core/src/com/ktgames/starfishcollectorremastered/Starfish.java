@@ -31,6 +31,9 @@ public class Starfish extends BaseActor
         // 8 is accurate enough for simple game while preserving performance
         this.setBoundaryPolygon(8);
 
+        // starfish lie under the turtle swimming over them
+        this.setDrawLayer(DrawQueue.PROPS);
+
         this.collected = false;
     }
 
@@ -39,6 +42,14 @@ public class Starfish extends BaseActor
         return collected;
     }
 
+    // the spin only turns this starfish, so it can be acted in parallel with other actors;
+    // once collected, the finished fade and removal actions go back to shared pools, so it cannot
+    @Override
+    public boolean isThreadSafe()
+    {
+        return !this.collected;
+    }
+
     // sets isCollected to true and applies an animated fading-out effect, after which the Starfish
     // is removed from the stage
     public void collect()
@@ -5,6 +5,11 @@ public class StarfishGame extends BaseGame
     @Override
     public void create()
     {
+        // sprites packed at build time by the tools module's packAtlas task
+        AssetRegistry.addAtlas("atlas/sprites.atlas");
+        // how other images are stored on the GPU, written by the tools module's compressTextures task
+        AssetRegistry.loadTexturePolicy("compressed/textures.txt");
+
         // setActiveScreen method of BaseGame is static, hence no 'this' reference
         setActiveScreen(new MenuScreen());
     }
@@ -0,0 +1,347 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.SnapshotArray;
+
+// Draws the static BaseActors of a stage (see BaseActor.setStatic) from a prebuilt SpriteCache.
+// Backgrounds and obstacles never move, so instead of sending their vertices to the SpriteBatch
+// every frame, they are written to a SpriteCache once, which keeps them on the GPU and draws them
+// all with a single call. The cache is only rebuilt when the set of static actors changes (or one
+// of them moves, resizes or rotates).
+//
+// Every layer keeps its actors in the game's one SpriteCache (see BaseGame.getSpriteCache), so a new
+// screen creates no vertex buffer or shader for its layer. Each layer has its own part of that cache,
+// with room for some more actors, so when one layer changes only its part is written again; the whole
+// cache is only written again when a layer is added or outgrows its part, or textures are reloaded.
+//
+// The layer is an invisible actor at the back of the stage, so static actors are drawn behind every
+// dynamic actor, in their stage order. The cache holds the image an actor shows when it is built,
+// so static actors should use a single image; call invalidate after changing one's color.
+
+public class StaticLayer extends Actor implements DrawQueue.Layered
+{
+    // layers on stages, created the first time an actor on the stage becomes static
+    private static ObjectMap<Stage, StaticLayer> stageLayers = new ObjectMap<Stage, StaticLayer>();
+
+    // spare room given to each layer's part of the shared cache, so it can be rewritten in place with more actors
+    private static final int MIN_SPARE = 16;
+
+    // true when every layer must be written to the shared cache again
+    private static boolean cacheInvalid = true;
+
+    // the shared cache the layers were last written to; the game replaces it when it needs a bigger one
+    private static SpriteCache builtCache;
+
+    // id of this layer's actors in the shared cache, or -1 if they are not in it
+    private int cacheId;
+
+    // number of images this layer's part of the cache has room for
+    private int capacity;
+
+    // true when this layer has changed since its part of the cache was written
+    private boolean dirty;
+
+    // static actors currently on the stage, and how many were in the cache when it was built
+    private int actorCount;
+    private int cachedCount;
+
+    private int rebuilds;
+
+    // reused when collecting static actors in draw order
+    private final Array<BaseActor> collected;
+
+    private StaticLayer()
+    {
+        this.cacheId = -1;
+        this.actorCount = 0;
+        this.collected = new Array<BaseActor>();
+    }
+
+    /**
+     * @param stage: stage to look up
+     * @return static layer of the stage, created (at the back of the stage) if needed
+     */
+    public static StaticLayer get(Stage stage)
+    {
+        StaticLayer layer = stageLayers.get(stage);
+
+        if (layer == null)
+        {
+            layer = new StaticLayer();
+            stageLayers.put(stage, layer);
+            stage.getRoot().addActorAt(0, layer);
+        }
+
+        return layer;
+    }
+
+    /**
+     * @param stage: stage to look up
+     * @return static layer of the stage, or null if no actor on it has been static
+     */
+    public static StaticLayer find(Stage stage)
+    {
+        return stageLayers.get(stage);
+    }
+
+    /**
+     * Removes the layer of a stage, if it has one; its actors leave the shared cache at the next rebuild.
+     * @param stage: stage that is no longer used
+     */
+    public static void detach(Stage stage)
+    {
+        StaticLayer layer = stageLayers.remove(stage);
+
+        if (layer != null)
+        {
+            layer.remove();
+        }
+    }
+
+    /**
+     * Rebuilds the cache of every layer the next time it is drawn; called by BaseGame after AssetRegistry
+     * has loaded released textures again, as the cache refers to the textures it was built with.
+     */
+    static void invalidateAll()
+    {
+        cacheInvalid = true;
+    }
+
+    // a layer taken off its stage (e.g. by Stage.clear) is forgotten, so a new one is made when needed
+    @Override
+    protected void setStage(Stage stage)
+    {
+        Stage oldStage = this.getStage();
+        super.setStage(stage);
+
+        if (stage == null && oldStage != null && stageLayers.get(oldStage) == this)
+        {
+            stageLayers.remove(oldStage);
+            this.cacheId = -1;
+        }
+    }
+
+    /**
+     * Called by BaseActor when a static actor joins the stage.
+     */
+    void add(BaseActor actor)
+    {
+        this.actorCount++;
+        this.dirty = true;
+    }
+
+    /**
+     * Called by BaseActor when a static actor leaves the stage or stops being static.
+     */
+    void remove(BaseActor actor)
+    {
+        this.actorCount--;
+        this.dirty = true;
+    }
+
+    // static actors are backgrounds and obstacles, drawn behind everything else in a layered stage
+    @Override
+    public int getDrawLayer()
+    {
+        return DrawQueue.BACKGROUND;
+    }
+
+    /**
+     * Rebuilds the cache before the next draw; needed after changing the color or image of a static actor.
+     * Moving, resizing or rotating one does this automatically.
+     */
+    public void invalidate()
+    {
+        this.dirty = true;
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha)
+    {
+        if (this.actorCount == 0)
+        {
+            return;
+        }
+
+        SpriteCache cache = BaseGame.getSpriteCache(0);
+
+        if (cacheInvalid || cache != builtCache || this.cacheId < 0)
+        {
+            cache = rebuildAll();
+        } else if (this.dirty && !this.rebuild(cache))
+        {
+            cache = rebuildAll();
+        }
+
+        // the cache draws with its own shader, so the batch is paused around it
+        batch.end();
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        cache.setProjectionMatrix(this.getStage().getCamera().combined);
+        cache.begin();
+        cache.draw(this.cacheId);
+        cache.end();
+
+        batch.begin();
+    }
+
+    // writes this layer's actors over its part of the shared cache; returns false if they no longer fit in it
+    private boolean rebuild(SpriteCache cache)
+    {
+        this.collected.clear();
+        collect(this.getStage().getRoot(), this.collected);
+
+        if (this.collected.size > this.capacity)
+        {
+            return false;
+        }
+
+        cache.beginCache(this.cacheId);
+        this.write(cache, 0);
+        this.cacheId = cache.endCache();
+        this.written();
+
+        return true;
+    }
+
+    // writes the static actors of every layer to the shared cache, each with room to spare
+    private static SpriteCache rebuildAll()
+    {
+        int total = 0;
+        for (StaticLayer layer : stageLayers.values())
+        {
+            layer.collected.clear();
+            layer.capacity = 0;
+            if (layer.actorCount > 0)
+            {
+                collect(layer.getStage().getRoot(), layer.collected);
+                if (layer.collected.size > 0)
+                {
+                    layer.capacity = layer.collected.size + Math.max(MIN_SPARE, layer.collected.size / 2);
+                }
+                total += layer.capacity;
+            }
+        }
+
+        // the game replaces its cache with a bigger one when there are more static actors than it holds
+        SpriteCache cache = BaseGame.getSpriteCache(total);
+        cache.clear();
+
+        // a part of the cache can later be rewritten with at most as many images as it was first written
+        // with, so every part is first filled up to its layer's capacity, then written again as it is
+        for (StaticLayer layer : stageLayers.values())
+        {
+            if (layer.actorCount == 0)
+            {
+                layer.cacheId = -1;
+                layer.dirty = false;
+                continue;
+            }
+
+            cache.beginCache();
+            layer.write(cache, layer.capacity - layer.collected.size);
+            layer.cacheId = cache.endCache();
+        }
+
+        for (StaticLayer layer : stageLayers.values())
+        {
+            if (layer.cacheId >= 0)
+            {
+                cache.beginCache(layer.cacheId);
+                layer.write(cache, 0);
+                layer.cacheId = cache.endCache();
+                layer.written();
+            }
+        }
+
+        builtCache = cache;
+        cacheInvalid = false;
+        return cache;
+    }
+
+    // adds the collected actors to the cache being written, followed by empty images to reserve room
+    private void write(SpriteCache cache, int spare)
+    {
+        for (int i = 0; i < this.collected.size; i++)
+        {
+            BaseActor actor = this.collected.get(i);
+            TextureRegion region = actor.getStaticImage();
+
+            cache.setColor(actor.getColor());
+            cache.add(region, actor.getX(), actor.getY(), actor.getOriginX(), actor.getOriginY(),
+                    actor.getWidth(), actor.getHeight(), actor.getScaleX(), actor.getScaleY(), actor.getRotation());
+        }
+
+        if (spare > 0)
+        {
+            TextureRegion region = this.collected.first().getStaticImage();
+            for (int i = 0; i < spare; i++)
+            {
+                cache.add(region, 0, 0, 0, 0);
+            }
+        }
+    }
+
+    // records that this layer's part of the cache now holds the collected actors
+    private void written()
+    {
+        this.cachedCount = this.collected.size;
+        this.collected.clear();
+        this.dirty = false;
+        this.rebuilds++;
+    }
+
+    // static, visible actors with an image, in the order the stage draws them
+    private static void collect(Group group, Array<BaseActor> results)
+    {
+        SnapshotArray<Actor> children = group.getChildren();
+
+        for (int i = 0; i < children.size; i++)
+        {
+            Actor child = children.get(i);
+
+            if (!child.isVisible())
+            {
+                continue;
+            }
+
+            if (child instanceof BaseActor && ((BaseActor)child).isStatic())
+            {
+                if (((BaseActor)child).getStaticImage() != null)
+                {
+                    results.add((BaseActor)child);
+                }
+            } else if (child instanceof Group)
+            {
+                collect((Group)child, results);
+            }
+        }
+    }
+
+    /**
+     * @return number of actors drawn from the cache
+     */
+    public int getCachedCount()
+    {
+        return this.cachedCount;
+    }
+
+    /**
+     * @return number of times this layer's actors have been written to the cache
+     */
+    public int getRebuildCount()
+    {
+        return this.rebuilds;
+    }
+}
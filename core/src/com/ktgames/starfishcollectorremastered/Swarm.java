@@ -0,0 +1,562 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+// Thousands of identical, simple creatures (ambient starfish, schools of fish) as one BaseActor.
+// A BaseActor per creature costs an Actor, two Vector2s, a Polygon and Action objects each; a swarm keeps
+// only what its members need - position, velocity, rotation, spin and animation clock - in primitive float
+// arrays, one array per value. Each frame the arrays are advanced by simple loops with no branches or
+// method calls in them, which the JIT can unroll and vectorize, and all visible members are written into one
+// vertex array and sent to the batch in a single draw call per texture (one call for a sprite sheet).
+//
+// Members share one animation, size and collision polygon. Collision code works as for BaseActors:
+// getOverlapCandidates finds members near an actor through a grid, overlaps and preventOverlap then test
+// the same polygons with the same Intersector calls BaseActor.overlaps and preventOverlap use.
+
+public class Swarm extends BaseActor
+{
+    // members are stored at indices 0 to size - 1
+    private int size;
+    private float[] memberX, memberY;
+    private float[] velocityX, velocityY;
+    private float[] memberRotation, spin;
+    private float[] clock;
+
+    // size of every member, and its collision polygon relative to the member's bottom-left corner
+    private float memberWidth, memberHeight;
+    private float[] memberVertices;
+
+    // members leaving the world come back on the opposite side
+    private boolean wrapToWorld;
+
+    // -- drawing --
+    private float[] vertices;
+    private final Array<Texture> frameTextures;
+    private int drawnCount;
+
+    // -- collision grid, rebuilt when a query follows a change --
+    private float cellSize;
+    private int[] cellOf;
+    private int[] cellStart;
+    private int[] cursor;
+    private int[] sorted;
+    private int cellMask;
+    private boolean gridDirty;
+    private final Polygon memberPolygon;
+    private final Intersector.MinimumTranslationVector mtv;
+    private final Vector2 pushNormal;
+
+    /**
+     * Creates an empty swarm (an invisible actor covering nothing) and adds it to a stage.
+     * Give it an animation with <code>loadTexture</code> or <code>loadAnimationFromSheet</code> before adding members.
+     * @param stage: stage the swarm is drawn on
+     * @param capacity: expected number of members (the arrays grow as needed)
+     */
+    public Swarm(Stage stage, int capacity)
+    {
+        super(0, 0, stage);
+
+        this.size = 0;
+        this.resize(Math.max(16, capacity));
+
+        this.wrapToWorld = false;
+        this.frameTextures = new Array<Texture>();
+        this.vertices = new float[0];
+
+        this.cellStart = new int[1];
+        this.cursor = new int[0];
+        this.gridDirty = true;
+        this.memberPolygon = new Polygon();
+        this.mtv = new Intersector.MinimumTranslationVector();
+        this.pushNormal = new Vector2();
+    }
+
+    /**
+     * Uses the size of the animation's first frame for every member, with an 8-sided collision polygon.
+     * The swarm actor itself keeps a size of zero, so it never collides or gets culled as a whole.
+     * @param anim: animation drawn for every member
+     */
+    @Override
+    public void setAnimation(Animation<TextureRegion> anim)
+    {
+        super.setAnimation(anim);
+
+        this.memberWidth = this.getWidth();
+        this.memberHeight = this.getHeight();
+        this.memberVertices = BaseActor.ellipseVertices(this.memberWidth, this.memberHeight, 8);
+        this.setSize(0, 0);
+        this.setBoundaryRectangle();
+
+        // the textures frames come from, drawn one after another; animations made from an untyped Array
+        // (as AssetRegistry's are) keep their frames in an Object[], so each frame is cast on its own
+        this.frameTextures.clear();
+        for (Object frame : (Object[])anim.getKeyFrames())
+        {
+            Texture texture = ((TextureRegion)frame).getTexture();
+            if (!this.frameTextures.contains(texture, true))
+            {
+                this.frameTextures.add(texture);
+            }
+        }
+    }
+
+    /**
+     * @param wrap: true to bring members leaving the world bounds back on the opposite side
+     */
+    public void setWrapToWorld(boolean wrap)
+    {
+        this.wrapToWorld = wrap;
+    }
+
+    //----------------------------
+    // Members
+    //----------------------------
+
+    /**
+     * Adds a member.
+     * @param x: x-coordinate of its bottom-left corner
+     * @param y: y-coordinate of its bottom-left corner
+     * @param velocityX: horizontal speed (pixels/second)
+     * @param velocityY: vertical speed (pixels/second)
+     * @param spin: rotation speed (degrees/second)
+     * @return index of the new member
+     */
+    public int addMember(float x, float y, float velocityX, float velocityY, float spin)
+    {
+        if (this.size == this.memberX.length)
+        {
+            this.resize(this.size * 2);
+        }
+
+        int i = this.size++;
+        this.memberX[i] = x;
+        this.memberY[i] = y;
+        this.velocityX[i] = velocityX;
+        this.velocityY[i] = velocityY;
+        this.memberRotation[i] = 0;
+        this.spin[i] = spin;
+
+        // start at a random point of the animation, so members do not all move in step
+        this.clock[i] = MathUtils.random(10f);
+
+        this.gridDirty = true;
+        return i;
+    }
+
+    /**
+     * Removes a member by moving the last member into its place, so the last member's index changes to i.
+     * @param i: index of the member to remove
+     */
+    public void removeMember(int i)
+    {
+        int last = --this.size;
+
+        this.memberX[i] = this.memberX[last];
+        this.memberY[i] = this.memberY[last];
+        this.velocityX[i] = this.velocityX[last];
+        this.velocityY[i] = this.velocityY[last];
+        this.memberRotation[i] = this.memberRotation[last];
+        this.spin[i] = this.spin[last];
+        this.clock[i] = this.clock[last];
+
+        this.gridDirty = true;
+    }
+
+    /**
+     * Removes every member.
+     */
+    public void clearMembers()
+    {
+        this.size = 0;
+        this.gridDirty = true;
+    }
+
+    /**
+     * @return number of members
+     */
+    public int getMemberCount()
+    {
+        return this.size;
+    }
+
+    /**
+     * @param i: index of a member
+     * @return x-coordinate of the member's bottom-left corner
+     */
+    public float getMemberX(int i)
+    {
+        return this.memberX[i];
+    }
+
+    /**
+     * @param i: index of a member
+     * @return y-coordinate of the member's bottom-left corner
+     */
+    public float getMemberY(int i)
+    {
+        return this.memberY[i];
+    }
+
+    /**
+     * Moves a member.
+     * @param i: index of a member
+     * @param x: x-coordinate of its bottom-left corner
+     * @param y: y-coordinate of its bottom-left corner
+     */
+    public void setMemberPosition(int i, float x, float y)
+    {
+        this.memberX[i] = x;
+        this.memberY[i] = y;
+        this.gridDirty = true;
+    }
+
+    /**
+     * @return number of members drawn last frame (the rest were outside the camera)
+     */
+    public int getDrawnCount()
+    {
+        return this.drawnCount;
+    }
+
+    //----------------------------
+    // Update
+    //----------------------------
+
+    @Override
+    public void act(float dt)
+    {
+        super.act(dt);
+
+        int n = this.size;
+        float[] x = this.memberX, y = this.memberY, vx = this.velocityX, vy = this.velocityY;
+        float[] rotation = this.memberRotation, spin = this.spin, clock = this.clock;
+
+        // one value per loop, nothing but arithmetic on consecutive elements
+        for (int i = 0; i < n; i++)
+        {
+            x[i] += vx[i] * dt;
+        }
+        for (int i = 0; i < n; i++)
+        {
+            y[i] += vy[i] * dt;
+        }
+        for (int i = 0; i < n; i++)
+        {
+            rotation[i] += spin[i] * dt;
+        }
+        for (int i = 0; i < n; i++)
+        {
+            clock[i] += dt;
+        }
+
+        Rectangle bounds = BaseActor.getWorldBounds();
+        if (this.wrapToWorld && bounds != null)
+        {
+            float width = bounds.width;
+            float height = bounds.height;
+
+            for (int i = 0; i < n; i++)
+            {
+                x[i] -= (float)Math.floor(x[i] / width) * width;
+            }
+            for (int i = 0; i < n; i++)
+            {
+                y[i] -= (float)Math.floor(y[i] / height) * height;
+            }
+        }
+
+        if (n > 0)
+        {
+            this.gridDirty = true;
+        }
+    }
+
+    //----------------------------
+    // Drawing
+    //----------------------------
+
+    @Override
+    public void draw(Batch batch, float parentAlpha)
+    {
+        Animation<TextureRegion> anim = this.getAnimation();
+        this.drawnCount = 0;
+
+        if (anim == null || this.size == 0 || !this.isVisible())
+        {
+            return;
+        }
+
+        // tinted by the swarm's color, as BaseActor.draw tints by the actor's color
+        Color color = this.getColor();
+        float packedColor = Color.toFloatBits(color.r, color.g, color.b, color.a * parentAlpha);
+
+        // visible area, widened by a member's half diagonal so rotated members at the edge still show
+        Camera cam = this.getStage().getCamera();
+        float reach = (float)Math.sqrt(this.memberWidth * this.memberWidth + this.memberHeight * this.memberHeight) / 2;
+        float left = cam.position.x - cam.viewportWidth / 2 - reach;
+        float right = cam.position.x + cam.viewportWidth / 2 + reach;
+        float bottom = cam.position.y - cam.viewportHeight / 2 - reach;
+        float top = cam.position.y + cam.viewportHeight / 2 + reach;
+
+        if (this.vertices.length < this.size * 20)
+        {
+            this.vertices = new float[this.size * 20];
+        }
+
+        for (int t = 0; t < this.frameTextures.size; t++)
+        {
+            Texture texture = this.frameTextures.get(t);
+            int count = 0;
+
+            for (int i = 0; i < this.size; i++)
+            {
+                float centerX = this.memberX[i] + this.memberWidth / 2;
+                float centerY = this.memberY[i] + this.memberHeight / 2;
+
+                if (centerX < left || centerX > right || centerY < bottom || centerY > top)
+                {
+                    continue;
+                }
+
+                TextureRegion frame = anim.getKeyFrame(this.clock[i]);
+                if (frame.getTexture() != texture)
+                {
+                    continue;
+                }
+
+                this.writeQuad(count * 20, i, frame, centerX, centerY, packedColor);
+                count++;
+            }
+
+            // every visible member showing a frame of this texture, in one call
+            if (count > 0)
+            {
+                batch.draw(texture, this.vertices, 0, count * 20);
+                this.drawnCount += count;
+            }
+        }
+    }
+
+    // the four corners of a member, rotated about its center, in the batch's vertex layout (x, y, color, u, v)
+    private void writeQuad(int offset, int i, TextureRegion frame, float centerX, float centerY, float packedColor)
+    {
+        float halfWidth = this.memberWidth / 2;
+        float halfHeight = this.memberHeight / 2;
+        float cos = MathUtils.cosDeg(this.memberRotation[i]);
+        float sin = MathUtils.sinDeg(this.memberRotation[i]);
+
+        float cosW = cos * halfWidth, sinW = sin * halfWidth;
+        float cosH = cos * halfHeight, sinH = sin * halfHeight;
+
+        float[] v = this.vertices;
+
+        // bottom left
+        v[offset] = centerX - cosW + sinH;
+        v[offset + 1] = centerY - sinW - cosH;
+        v[offset + 2] = packedColor;
+        v[offset + 3] = frame.getU();
+        v[offset + 4] = frame.getV2();
+
+        // top left
+        v[offset + 5] = centerX - cosW - sinH;
+        v[offset + 6] = centerY - sinW + cosH;
+        v[offset + 7] = packedColor;
+        v[offset + 8] = frame.getU();
+        v[offset + 9] = frame.getV();
+
+        // top right
+        v[offset + 10] = centerX + cosW - sinH;
+        v[offset + 11] = centerY + sinW + cosH;
+        v[offset + 12] = packedColor;
+        v[offset + 13] = frame.getU2();
+        v[offset + 14] = frame.getV();
+
+        // bottom right
+        v[offset + 15] = centerX + cosW + sinH;
+        v[offset + 16] = centerY + sinW - cosH;
+        v[offset + 17] = packedColor;
+        v[offset + 18] = frame.getU2();
+        v[offset + 19] = frame.getV2();
+    }
+
+    //----------------------------
+    // Collision
+    //----------------------------
+
+    /**
+     * Collects members that might overlap an actor; use <code>overlaps</code> or <code>preventOverlap</code>
+     * on the results for the exact test.
+     * @param actor: actor to test, e.g. the Turtle
+     * @param results: array to fill with member indices (cleared first)
+     * @return the results array
+     */
+    public IntArray getOverlapCandidates(BaseActor actor, IntArray results)
+    {
+        results.clear();
+
+        if (this.size == 0 || this.memberVertices == null)
+        {
+            return results;
+        }
+        if (this.gridDirty)
+        {
+            this.buildGrid();
+        }
+
+        Rectangle bounds = actor.getBoundaryBounds();
+
+        // a rotated member reaches up to half its diagonal from its center
+        float reach = (float)Math.sqrt(this.memberWidth * this.memberWidth + this.memberHeight * this.memberHeight) / 2;
+        float left = bounds.x - reach - this.memberWidth / 2;
+        float right = bounds.x + bounds.width + reach - this.memberWidth / 2;
+        float bottom = bounds.y - reach - this.memberHeight / 2;
+        float top = bounds.y + bounds.height + reach - this.memberHeight / 2;
+
+        int minX = cell(bounds.x, this.cellSize) - 1;
+        int minY = cell(bounds.y, this.cellSize) - 1;
+        int maxX = cell(bounds.x + bounds.width, this.cellSize);
+        int maxY = cell(bounds.y + bounds.height, this.cellSize);
+
+        for (int cx = minX; cx <= maxX; cx++)
+        {
+            for (int cy = minY; cy <= maxY; cy++)
+            {
+                int bucket = this.bucket(cx, cy);
+
+                for (int k = this.cellStart[bucket]; k < this.cellStart[bucket + 1]; k++)
+                {
+                    int i = this.sorted[k];
+
+                    // buckets are shared by distant cells, so check the member's own position
+                    if (this.memberX[i] > left && this.memberX[i] < right
+                            && this.memberY[i] > bottom && this.memberY[i] < top
+                            && !results.contains(i))
+                    {
+                        results.add(i);
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * @param i: index of a member
+     * @return the member's collision polygon, positioned and rotated; shared, so only valid until the next call
+     */
+    public Polygon getBoundaryPolygon(int i)
+    {
+        this.memberPolygon.setVertices(this.memberVertices);
+        this.memberPolygon.setPosition(this.memberX[i], this.memberY[i]);
+        this.memberPolygon.setOrigin(this.memberWidth / 2, this.memberHeight / 2);
+        this.memberPolygon.setRotation(this.memberRotation[i]);
+        return this.memberPolygon;
+    }
+
+    /**
+     * Determine if an actor overlaps a member (according to collision polygons), as BaseActor.overlaps does.
+     * @param actor: actor to test
+     * @param i: index of a member
+     * @return true if the collision polygons overlap
+     */
+    public boolean overlaps(BaseActor actor, int i)
+    {
+        return Intersector.overlapConvexPolygons(actor.getBoundaryPolygon(), this.getBoundaryPolygon(i));
+    }
+
+    /**
+     * Treat a member as solid: if an actor overlaps it, move the actor out along the minimum translation
+     * vector, as BaseActor.preventOverlap does.
+     * @param actor: actor to move
+     * @param i: index of a member
+     * @return direction the actor was moved, null if there was no overlap; overwritten by the next call
+     */
+    public Vector2 preventOverlap(BaseActor actor, int i)
+    {
+        if (!Intersector.overlapConvexPolygons(actor.getBoundaryPolygon(), this.getBoundaryPolygon(i), this.mtv))
+        {
+            return null;
+        }
+
+        actor.moveBy(this.mtv.normal.x * this.mtv.depth, this.mtv.normal.y * this.mtv.depth);
+        return this.pushNormal.set(this.mtv.normal);
+    }
+
+    // members sorted into a hashed grid of cells about a member in size (a counting sort, no allocation once grown)
+    private void buildGrid()
+    {
+        int n = this.size;
+
+        if (this.cellOf == null || this.cellOf.length < n)
+        {
+            this.cellOf = new int[this.memberX.length];
+            this.sorted = new int[this.memberX.length];
+        }
+
+        int buckets = MathUtils.nextPowerOfTwo(Math.max(16, n));
+        if (this.cellStart.length != buckets + 1)
+        {
+            this.cellStart = new int[buckets + 1];
+            this.cursor = new int[buckets];
+        }
+        this.cellMask = buckets - 1;
+        this.cellSize = Math.max(32, Math.max(this.memberWidth, this.memberHeight));
+
+        Arrays.fill(this.cellStart, 0);
+        for (int i = 0; i < n; i++)
+        {
+            int bucket = this.bucket(cell(this.memberX[i], this.cellSize), cell(this.memberY[i], this.cellSize));
+            this.cellOf[i] = bucket;
+            this.cellStart[bucket + 1]++;
+        }
+        for (int k = 0; k < buckets; k++)
+        {
+            this.cellStart[k + 1] += this.cellStart[k];
+        }
+
+        System.arraycopy(this.cellStart, 0, this.cursor, 0, buckets);
+        for (int i = 0; i < n; i++)
+        {
+            this.sorted[this.cursor[this.cellOf[i]]++] = i;
+        }
+
+        this.gridDirty = false;
+    }
+
+    private static int cell(float coordinate, float size)
+    {
+        return MathUtils.floor(coordinate / size);
+    }
+
+    private int bucket(int cellX, int cellY)
+    {
+        return ((cellX * 73856093) ^ (cellY * 19349663)) & this.cellMask;
+    }
+
+    private void resize(int capacity)
+    {
+        this.memberX = Arrays.copyOf(this.memberX == null ? new float[0] : this.memberX, capacity);
+        this.memberY = Arrays.copyOf(this.memberY == null ? new float[0] : this.memberY, capacity);
+        this.velocityX = Arrays.copyOf(this.velocityX == null ? new float[0] : this.velocityX, capacity);
+        this.velocityY = Arrays.copyOf(this.velocityY == null ? new float[0] : this.velocityY, capacity);
+        this.memberRotation = Arrays.copyOf(this.memberRotation == null ? new float[0] : this.memberRotation, capacity);
+        this.spin = Arrays.copyOf(this.spin == null ? new float[0] : this.spin, capacity);
+        this.clock = Arrays.copyOf(this.clock == null ? new float[0] : this.clock, capacity);
+    }
+}
@@ -1,11 +1,17 @@
 package com.ktgames.starfishcollectorremastered;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
 
 public class Turtle extends BaseActor
 {
+    // true when the last step moved further than the turtle's size, so it may have swum through things
+    private boolean fastStep;
+
+    // reused when looking for rocks the turtle swam into
+    private final Array<Rock> nearbyRocks = new Array<Rock>();
+
     public Turtle(float x, float y, Stage stage)
     {
         super(x, y, stage);
@@ -46,22 +52,22 @@ public class Turtle extends BaseActor
     {
         super.act(dt);
 
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT))
+        if (GameInput.isKeyPressed(Input.Keys.LEFT))
         {
             // accelerate at angle that corresponds to key pressed keeping in mind that
             // turtle starts off facing right. a 180 degree flip will reverse it to face
             // left
             this.accelerateAtAngle(180);
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT))
+        if (GameInput.isKeyPressed(Input.Keys.RIGHT))
         {
             this.accelerateAtAngle(0);
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.UP))
+        if (GameInput.isKeyPressed(Input.Keys.UP))
         {
             this.accelerateAtAngle(90);
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.DOWN))
+        if (GameInput.isKeyPressed(Input.Keys.DOWN))
         {
             this.accelerateAtAngle(270);
         }
@@ -70,6 +76,14 @@ public class Turtle extends BaseActor
         // must be called
         this.applyPhysics(dt);
 
+        // a turtle that moved further than its own size this step may have passed through rocks:
+        // stop it where it first hit one, before it is kept in the world and the camera follows it
+        this.fastStep = this.isFastMoving();
+        if (this.fastStep)
+        {
+            this.stopAtFirstRock();
+        }
+
         // Pause the animation when the Turtle is not moving,
         this.setAnimationPaused(!this.isMoving());
 
@@ -82,9 +96,34 @@ public class Turtle extends BaseActor
         // make sure Turtle stays within the boundaries of the game world
         this.boundToWorld();
 
-        // align the camera to focus on the Turtle as the game world is larger than the camera focus area
-        // mainStage camera (GameBeta stage) is being adjusted to align with the turtle
-        this.alignCamera();
+        // the camera follows the turtle where it is drawn; the screen aligns it before drawing (see BaseScreen.setCameraTarget)
+    }
+
+    /**
+     * @return true if the last step moved the turtle further than its own size (measured before a rock
+     *          stopped it), so starfish it passed have to be found with getSweepCandidates and timeOfImpact
+     */
+    public boolean isFastStep()
+    {
+        return this.fastStep;
+    }
+
+    private void stopAtFirstRock()
+    {
+        float firstHit = 1;
+
+        this.getSweepCandidates(Rock.class, this.nearbyRocks);
+        for (int i = 0; i < this.nearbyRocks.size; i++)
+        {
+            float t = this.timeOfImpact(this.nearbyRocks.get(i));
+            if (t >= 0 && t < firstHit)
+            {
+                firstHit = t;
+            }
+        }
+        this.nearbyRocks.clear();
+
+        this.rewindMove(firstHit);
     }
 }
 
@@ -0,0 +1,132 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.ObjectMap;
+
+// Skips drawing BaseActors that are completely outside the camera of their stage.
+// The world is larger than the screen (and later levels larger still), so many actors are
+// off camera at any moment; BaseActor.draw asks the culler of its stage before sending an
+// actor to the batch. The culler also counts how many actors were drawn and culled in the
+// last frame, which the frame profiler shows.
+
+public class ViewCuller
+{
+    // one culler per stage, created the first time a BaseActor joins the stage
+    private static ObjectMap<Stage, ViewCuller> stageCullers = new ObjectMap<Stage, ViewCuller>();
+
+    private final Stage stage;
+    private boolean enabled;
+
+    // counters for the most recent frame this stage was drawn in
+    private long frameId;
+    private int drawnCount;
+    private int culledCount;
+
+    private ViewCuller(Stage stage)
+    {
+        this.stage = stage;
+        this.enabled = true;
+        this.frameId = -1;
+    }
+
+    /**
+     * @param stage: stage to look up
+     * @return culler of the stage, created if needed
+     */
+    public static ViewCuller get(Stage stage)
+    {
+        ViewCuller culler = stageCullers.get(stage);
+
+        if (culler == null)
+        {
+            culler = new ViewCuller(stage);
+            stageCullers.put(stage, culler);
+        }
+
+        return culler;
+    }
+
+    /**
+     * Forgets the culler of a stage; called when the stage is disposed.
+     * @param stage: stage that is no longer used
+     */
+    public static void detach(Stage stage)
+    {
+        stageCullers.remove(stage);
+    }
+
+    /**
+     * Turn culling on or off for this stage (on by default). Counters are still kept when off.
+     * @param enabled: true to skip drawing actors outside the camera
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * Decides whether an actor drawn at the given position can be seen by the stage's camera,
+     * using a circle around its rotation origin that contains it at any rotation and scale.
+     * Called by BaseActor.draw for every visible actor.
+     * @param actor: actor about to be drawn
+     * @param x: x-coordinate the actor is drawn at
+     * @param y: y-coordinate the actor is drawn at
+     * @return true if the actor should be drawn
+     */
+    public boolean isInView(BaseActor actor, float x, float y)
+    {
+        // counters restart with each new frame
+        long currentFrame = Gdx.graphics.getFrameId();
+        if (currentFrame != this.frameId)
+        {
+            this.drawnCount = 0;
+            this.culledCount = 0;
+            this.frameId = currentFrame;
+        }
+
+        if (!this.enabled)
+        {
+            this.drawnCount++;
+            return true;
+        }
+
+        Camera camera = this.stage.getCamera();
+        float radius = actor.getBoundingRadius();
+
+        // the frustum planes are updated by camera.update(), which alignCamera and the viewport call
+        boolean inView = camera.frustum.sphereInFrustum(x + actor.getOriginX(), y + actor.getOriginY(), 0, radius);
+
+        if (inView)
+        {
+            this.drawnCount++;
+        } else
+        {
+            this.culledCount++;
+        }
+
+        return inView;
+    }
+
+    /**
+     * @return number of actors culled the last time this stage was drawn
+     */
+    public int getCulledCount()
+    {
+        return this.culledCount;
+    }
+
+    /**
+     * @return number of actors that passed the test and were drawn the last time this stage was drawn
+     */
+    public int getDrawnCount()
+    {
+        return this.drawnCount;
+    }
+}
@@ -16,9 +16,14 @@ public class Whirlpool extends BaseActor
         // Whirlpool creates animation from Sprite sheet
         this.loadAnimationFromSheet("/Users/katherineohalloran/Documents/GameDev/libGDX-Learning/Starfish-Collector-Remastered/core/assets/NPCs/Whirlpool/whirlpool.png",
                 2, 5, 0.1f, false);
+
+        // drawn over the starfish it replaces and the turtle swimming through it
+        this.setDrawLayer(DrawQueue.EFFECTS);
     }
 
-    // overriding the act method to remove the image if the animation is finished
+    // overriding the act method to remove the image if the animation is finished.
+    // when the Whirlpool came from a BaseActorPool, removing it returns it to the pool
+    // (and reset() rewinds the animation for its next use)
     public void act(float dt)
     {
         super.act(dt);
@@ -28,4 +33,11 @@ public class Whirlpool extends BaseActor
             this.remove();
         }
     }
+
+    // act only advances this whirlpool's animation; the removal is deferred during a parallel act
+    @Override
+    public boolean isThreadSafe()
+    {
+        return true;
+    }
 }
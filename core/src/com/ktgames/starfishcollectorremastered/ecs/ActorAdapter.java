@@ -0,0 +1,151 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import com.ktgames.starfishcollectorremastered.Rock;
+import com.ktgames.starfishcollectorremastered.Starfish;
+import com.ktgames.starfishcollectorremastered.Turtle;
+import com.ktgames.starfishcollectorremastered.Whirlpool;
+
+// Turns Turtle, Starfish, Rock and Whirlpool actors into EcsWorld entities that behave the same way,
+// so levels built from actors (e.g. by LevelLoader) can run on the ECS. Each actor's position, size,
+// rotation, opacity, physics settings and animation are copied into the world's packed arrays, its
+// behaviour becomes flags and components handled by the systems, and the actor is removed:
+//   Turtle    - PlayerControl; a mover that faces its motion and stays in the world
+//   Starfish  - Collectible; spins 30 degrees per second, like its forever rotateBy action
+//   Rock      - a solid collider
+//   Whirlpool - removed once its animation is finished
+// The entity retains the actor's animation before the actor releases it, so no texture is reloaded.
+
+public class ActorAdapter
+{
+    // draw layers, in the order LevelScreen adds the actors
+    public static final int PROP_LAYER = 0;
+    public static final int PLAYER_LAYER = 1;
+    public static final int EFFECT_LAYER = 2;
+
+    // the adapter is static only, like AssetRegistry
+    private ActorAdapter() {}
+
+    /**
+     * Replaces every Turtle, Starfish, Rock and Whirlpool on a stage with an entity; other actors are left alone.
+     * @param stage: stage holding the actors
+     * @param world: world to add the entities to
+     * @return number of actors replaced
+     */
+    public static int adopt(Stage stage, EcsWorld world)
+    {
+        int count = 0;
+        count += adoptAll(BaseActor.getList(stage, Starfish.class), world);
+        count += adoptAll(BaseActor.getList(stage, Rock.class), world);
+        count += adoptAll(BaseActor.getList(stage, Turtle.class), world);
+        count += adoptAll(BaseActor.getList(stage, Whirlpool.class), world);
+        return count;
+    }
+
+    // the instance lists are live, so they are copied before their actors are removed
+    private static int adoptAll(Array<? extends BaseActor> actors, EcsWorld world)
+    {
+        Array<BaseActor> copy = new Array<BaseActor>(actors);
+
+        for (BaseActor actor : copy)
+        {
+            adopt(actor, world);
+        }
+
+        return copy.size;
+    }
+
+    /**
+     * Replaces one actor with an equivalent entity.
+     * @param actor: a Turtle, Starfish, Rock or Whirlpool (any other BaseActor becomes a plain image)
+     * @param world: world to add the entity to
+     * @return the new entity
+     */
+    public static Entity adopt(BaseActor actor, EcsWorld world)
+    {
+        Entity entity = world.spawn(actor.getAnimation(), actor.getX(), actor.getY(), actor.getWidth(), actor.getHeight());
+
+        BodyArrays b = world.getBodies();
+        int i = world.indexOf(entity);
+
+        b.rotation[i] = actor.getRotation();
+        b.opacity[i] = actor.getColor().a;
+        b.acceleration[i] = actor.getAcceleration();
+        b.deceleration[i] = actor.getDeceleration();
+        b.maxSpeed[i] = actor.getMaxSpeed();
+        b.layer[i] = PROP_LAYER;
+
+        // a circle inside the image, like the 8-sided boundary polygon
+        float radius = Math.min(actor.getWidth(), actor.getHeight()) / 2;
+
+        if (actor instanceof Turtle)
+        {
+            b.flags[i] = BodyArrays.MOVER | BodyArrays.FACE_MOTION | BodyArrays.BOUND_TO_WORLD;
+            b.radius[i] = radius;
+            b.layer[i] = PLAYER_LAYER;
+            entity.add(new PlayerControl());
+        } else if (actor instanceof Starfish)
+        {
+            b.radius[i] = radius;
+            Collectible collectible = new Collectible();
+            entity.add(collectible);
+
+            if (((Starfish)actor).isCollected())
+            {
+                collect(world, entity);
+            } else
+            {
+                b.spin[i] = 30;
+            }
+        } else if (actor instanceof Rock)
+        {
+            b.flags[i] = BodyArrays.SOLID;
+            b.radius[i] = radius;
+        } else if (actor instanceof Whirlpool)
+        {
+            b.layer[i] = EFFECT_LAYER;
+            Lifetime lifetime = new Lifetime();
+            lifetime.untilAnimationFinished = true;
+            entity.add(lifetime);
+        }
+
+        actor.remove();
+        return entity;
+    }
+
+    /**
+     * Marks a collectible entity as collected: it stops spinning and fades out over a second, then is removed,
+     * as Starfish.collect does.
+     * @param world: world holding the entity
+     * @param entity: entity with a Collectible component
+     */
+    public static void collect(EcsWorld world, Entity entity)
+    {
+        entity.getComponent(Collectible.class).collected = true;
+        world.getBodies().spin[world.indexOf(entity)] = 0;
+
+        Lifetime lifetime = new Lifetime();
+        lifetime.fadeDuration = 1;
+        entity.add(lifetime);
+    }
+
+    /**
+     * Takes the animation of an actor for entities spawned later, keeping it loaded while the world exists,
+     * and removes the actor; e.g. <code>holdAnimation(new Whirlpool(0, 0, stage), world)</code>.
+     * @param actor: actor showing the animation
+     * @param world: world that keeps the animation loaded
+     * @return the animation
+     */
+    public static Animation<TextureRegion> holdAnimation(BaseActor actor, EcsWorld world)
+    {
+        Animation<TextureRegion> anim = actor.getAnimation();
+        world.hold(anim);
+        actor.remove();
+        return anim;
+    }
+}
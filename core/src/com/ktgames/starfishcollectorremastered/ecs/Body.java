@@ -0,0 +1,11 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+// Gives an entity position, velocity, collider and animation data; the data itself is stored in the
+// world's BodyArrays, at the index kept here (which changes when other entities are removed).
+
+public class Body implements Component
+{
+    public int index = -1;
+}
@@ -0,0 +1,197 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+// Position, velocity, collider and animation data of every entity in an EcsWorld, stored as parallel
+// primitive arrays ("structure of arrays") instead of one object per entity. Entity n's data sits at index n
+// of every array, and the used indices are always 0 to size - 1: removing an entity moves the last one into
+// its place. Systems therefore walk straight through memory instead of chasing a Vector2, a Polygon and an
+// Actor per entity, which is what keeps 100k entities fast.
+//
+// The arrays are public for the systems' loops; an entity finds its index in its Body component.
+
+public class BodyArrays
+{
+    // -- flags --
+    /** Other colliders are pushed out of this one (e.g. rocks). */
+    public static final int SOLID = 1;
+    /** Is pushed out of solid colliders and reports what it touches (e.g. the turtle). */
+    public static final int MOVER = 2;
+    /** Faces its direction of motion, with its animation paused while not moving. */
+    public static final int FACE_MOTION = 4;
+    /** Kept inside the world bounds. */
+    public static final int BOUND_TO_WORLD = 8;
+
+    public int size;
+
+    public Entity[] entities;
+    public int[] flags;
+
+    // -- position component --
+    public float[] x, y, rotation;
+    public float[] width, height;
+    // draw order; lower layers are drawn first
+    public int[] layer;
+
+    // -- velocity component --
+    public float[] velocityX, velocityY;
+    public float[] accelerationX, accelerationY;
+    public float[] acceleration, deceleration, maxSpeed;
+    // degrees per second
+    public float[] spin;
+
+    // -- collider component: a circle at the center of the entity (radius 0 means no collider) --
+    public float[] radius;
+
+    // -- animation component --
+    public Animation<TextureRegion>[] animation;
+    public float[] elapsedTime;
+    public boolean[] animationPaused;
+    public float[] opacity;
+
+    public BodyArrays(int capacity)
+    {
+        this.size = 0;
+        this.resize(Math.max(16, capacity));
+    }
+
+    /**
+     * Adds an entity with every value zeroed (opacity 1, no animation).
+     * @param entity: entity owning the new data
+     * @return index of the entity's data
+     */
+    public int add(Entity entity)
+    {
+        if (this.size == this.x.length)
+        {
+            this.resize(this.size * 2);
+        }
+
+        int i = this.size++;
+
+        this.entities[i] = entity;
+        this.flags[i] = 0;
+        this.x[i] = 0;
+        this.y[i] = 0;
+        this.rotation[i] = 0;
+        this.width[i] = 0;
+        this.height[i] = 0;
+        this.layer[i] = 0;
+        this.velocityX[i] = 0;
+        this.velocityY[i] = 0;
+        this.accelerationX[i] = 0;
+        this.accelerationY[i] = 0;
+        this.acceleration[i] = 0;
+        this.deceleration[i] = 0;
+        this.maxSpeed[i] = 1000;
+        this.spin[i] = 0;
+        this.radius[i] = 0;
+        this.animation[i] = null;
+        this.elapsedTime[i] = 0;
+        this.animationPaused[i] = false;
+        this.opacity[i] = 1;
+
+        return i;
+    }
+
+    /**
+     * Removes the data at an index by moving the last entity's data into it.
+     * @param i: index to remove
+     * @return entity whose data moved to index i, or null if i was the last index
+     */
+    public Entity remove(int i)
+    {
+        int last = --this.size;
+        Entity moved = null;
+
+        if (i != last)
+        {
+            moved = this.entities[last];
+
+            this.entities[i] = moved;
+            this.flags[i] = this.flags[last];
+            this.x[i] = this.x[last];
+            this.y[i] = this.y[last];
+            this.rotation[i] = this.rotation[last];
+            this.width[i] = this.width[last];
+            this.height[i] = this.height[last];
+            this.layer[i] = this.layer[last];
+            this.velocityX[i] = this.velocityX[last];
+            this.velocityY[i] = this.velocityY[last];
+            this.accelerationX[i] = this.accelerationX[last];
+            this.accelerationY[i] = this.accelerationY[last];
+            this.acceleration[i] = this.acceleration[last];
+            this.deceleration[i] = this.deceleration[last];
+            this.maxSpeed[i] = this.maxSpeed[last];
+            this.spin[i] = this.spin[last];
+            this.radius[i] = this.radius[last];
+            this.animation[i] = this.animation[last];
+            this.elapsedTime[i] = this.elapsedTime[last];
+            this.animationPaused[i] = this.animationPaused[last];
+            this.opacity[i] = this.opacity[last];
+        }
+
+        // no references kept to removed entities and animations
+        this.entities[last] = null;
+        this.animation[last] = null;
+
+        return moved;
+    }
+
+    /**
+     * @param i: index of an entity's data
+     * @return x-coordinate of the entity's center
+     */
+    public float centerX(int i)
+    {
+        return this.x[i] + this.width[i] / 2;
+    }
+
+    /**
+     * @param i: index of an entity's data
+     * @return y-coordinate of the entity's center
+     */
+    public float centerY(int i)
+    {
+        return this.y[i] + this.height[i] / 2;
+    }
+
+    // Java cannot create an array of Animation<TextureRegion>; the new one only ever holds such animations
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity)
+    {
+        this.entities = copy(this.entities, new Entity[capacity]);
+        this.flags = copy(this.flags, new int[capacity]);
+        this.x = copy(this.x, new float[capacity]);
+        this.y = copy(this.y, new float[capacity]);
+        this.rotation = copy(this.rotation, new float[capacity]);
+        this.width = copy(this.width, new float[capacity]);
+        this.height = copy(this.height, new float[capacity]);
+        this.layer = copy(this.layer, new int[capacity]);
+        this.velocityX = copy(this.velocityX, new float[capacity]);
+        this.velocityY = copy(this.velocityY, new float[capacity]);
+        this.accelerationX = copy(this.accelerationX, new float[capacity]);
+        this.accelerationY = copy(this.accelerationY, new float[capacity]);
+        this.acceleration = copy(this.acceleration, new float[capacity]);
+        this.deceleration = copy(this.deceleration, new float[capacity]);
+        this.maxSpeed = copy(this.maxSpeed, new float[capacity]);
+        this.spin = copy(this.spin, new float[capacity]);
+        this.radius = copy(this.radius, new float[capacity]);
+        this.animation = copy(this.animation, (Animation<TextureRegion>[])new Animation<?>[capacity]);
+        this.elapsedTime = copy(this.elapsedTime, new float[capacity]);
+        this.animationPaused = copy(this.animationPaused, new boolean[capacity]);
+        this.opacity = copy(this.opacity, new float[capacity]);
+    }
+
+    // copies the used part of an old array (if any) into its replacement
+    private <T> T copy(T from, T to)
+    {
+        if (from != null)
+        {
+            System.arraycopy(from, 0, to, 0, this.size);
+        }
+        return to;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+
+// Centers the stage camera on the player, kept within the world bounds, as BaseActor.alignCamera does.
+
+public class CameraSystem extends IteratingSystem
+{
+    private final EcsWorld world;
+
+    public CameraSystem(EcsWorld world)
+    {
+        super(Family.all(Body.class, PlayerControl.class).get(), EcsWorld.CAMERA);
+        this.world = world;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float dt)
+    {
+        if (this.world.getStage() == null)
+        {
+            return;
+        }
+
+        BodyArrays b = this.world.getBodies();
+        int i = this.world.indexOf(entity);
+        Camera cam = this.world.getStage().getCamera();
+        Rectangle bounds = BaseActor.getWorldBounds();
+
+        cam.position.set(b.centerX(i), b.centerY(i), 0);
+
+        if (bounds != null)
+        {
+            cam.position.x = MathUtils.clamp(cam.position.x, cam.viewportWidth/2, bounds.width - cam.viewportWidth/2);
+            cam.position.y = MathUtils.clamp(cam.position.y, cam.viewportHeight/2, bounds.height - cam.viewportHeight/2);
+        }
+
+        cam.update();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+// Game rule of LevelScreen.update for the ECS: a player touching a collectible collects it, and a
+// faint one-shot effect (the whirlpool) plays where it was.
+
+public class CollectSystem extends EntitySystem
+{
+    private final EcsWorld world;
+    private final Animation<TextureRegion> effect;
+
+    private final ComponentMapper<PlayerControl> playerMapper;
+    private final ComponentMapper<Collectible> collectibleMapper;
+
+    /**
+     * @param world: world holding the entities
+     * @param effect: animation played where something is collected (see ActorAdapter.holdAnimation)
+     */
+    public CollectSystem(EcsWorld world, Animation<TextureRegion> effect)
+    {
+        super(EcsWorld.RULES);
+
+        this.world = world;
+        this.effect = effect;
+        this.playerMapper = ComponentMapper.getFor(PlayerControl.class);
+        this.collectibleMapper = ComponentMapper.getFor(Collectible.class);
+    }
+
+    @Override
+    public void update(float dt)
+    {
+        Array<Entity> contacts = this.getEngine().getSystem(CollisionSystem.class).getContacts();
+
+        for (int k = 0; k < contacts.size; k += 2)
+        {
+            Entity player = contacts.get(k);
+            Entity other = contacts.get(k + 1);
+
+            if (!this.playerMapper.has(player) || !this.collectibleMapper.has(other)
+                    || this.collectibleMapper.get(other).collected)
+            {
+                continue;
+            }
+
+            ActorAdapter.collect(this.world, other);
+
+            BodyArrays b = this.world.getBodies();
+            int i = this.world.indexOf(other);
+            TextureRegion frame = this.effect.getKeyFrame(0);
+            float w = frame.getRegionWidth();
+            float h = frame.getRegionHeight();
+
+            Entity effectEntity = this.world.spawn(this.effect, b.centerX(i) - w / 2, b.centerY(i) - h / 2, w, h);
+            int e = this.world.indexOf(effectEntity);
+            b.opacity[e] = 0.25f;
+            b.layer[e] = ActorAdapter.EFFECT_LAYER;
+
+            Lifetime lifetime = new Lifetime();
+            lifetime.untilAnimationFinished = true;
+            effectEntity.add(lifetime);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+// Entity the player picks up by touching it, like a Starfish; it can only be collected once.
+
+public class Collectible implements Component
+{
+    public boolean collected = false;
+}
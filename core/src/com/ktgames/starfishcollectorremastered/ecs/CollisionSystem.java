@@ -0,0 +1,211 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+// Collision between entities' circle colliders. Each update the colliders are sorted into a hashed grid
+// (a counting sort into flat int arrays, so rebuilding it for 100k entities allocates nothing), then every
+// MOVER checks the 3x3 cells around it: it is pushed out of SOLID colliders, as BaseActor.preventOverlap
+// does, and every collider it touches is recorded as a contact for game rule systems.
+//
+// Circles approximate the 8-sided polygons BaseActor uses; the radius is half the smaller side, so
+// the circle fits inside the actor's image like the polygon does.
+
+public class CollisionSystem extends EntitySystem
+{
+    private final EcsWorld world;
+    private final float minCellSize;
+
+    // grid: bucket of each collider, start of each bucket in sorted, colliders ordered by bucket
+    private int[] bucketOf;
+    private int[] bucketStart;
+    private int[] sorted;
+    private int[] cursor;
+    private int bucketMask;
+    private float cellSize;
+
+    // last mover that saw each collider, so a collider found through two cells counts once
+    private int[] seenBy;
+
+    // pairs of (mover, other) touching after this update
+    private final Array<Entity> contacts;
+
+    /**
+     * @param world: world whose entities collide
+     * @param cellSize: smallest grid cell size (pixels); cells grow to fit the largest collider
+     */
+    public CollisionSystem(EcsWorld world, float cellSize)
+    {
+        super(EcsWorld.COLLISION);
+
+        this.world = world;
+        this.minCellSize = cellSize;
+        this.bucketOf = new int[0];
+        this.bucketStart = new int[1];
+        this.cursor = new int[0];
+        this.sorted = new int[0];
+        this.seenBy = new int[0];
+        this.contacts = new Array<Entity>();
+    }
+
+    /**
+     * @return contacts of the last update, as consecutive pairs: a mover, then the entity it touches
+     */
+    public Array<Entity> getContacts()
+    {
+        return this.contacts;
+    }
+
+    @Override
+    public void update(float dt)
+    {
+        BodyArrays b = this.world.getBodies();
+        this.contacts.clear();
+
+        this.buildGrid(b);
+
+        int[] flags = b.flags;
+        for (int i = 0; i < b.size; i++)
+        {
+            if ((flags[i] & BodyArrays.MOVER) != 0 && b.radius[i] > 0)
+            {
+                this.collide(b, i);
+            }
+        }
+    }
+
+    private void buildGrid(BodyArrays b)
+    {
+        int n = b.size;
+
+        if (this.bucketOf.length < n)
+        {
+            int capacity = Math.max(n, this.bucketOf.length * 2);
+            this.bucketOf = new int[capacity];
+            this.sorted = new int[capacity];
+            this.seenBy = new int[capacity];
+        }
+
+        // about two buckets per entity keeps buckets short
+        int buckets = MathUtils.nextPowerOfTwo(Math.max(16, n * 2));
+        if (this.bucketStart.length != buckets + 1)
+        {
+            this.bucketStart = new int[buckets + 1];
+            this.cursor = new int[buckets];
+        }
+        this.bucketMask = buckets - 1;
+
+        float maxRadius = 0;
+        for (int i = 0; i < n; i++)
+        {
+            maxRadius = Math.max(maxRadius, b.radius[i]);
+        }
+        this.cellSize = Math.max(this.minCellSize, maxRadius * 2);
+
+        int[] start = this.bucketStart;
+        Arrays.fill(start, 0);
+
+        for (int i = 0; i < n; i++)
+        {
+            this.seenBy[i] = -1;
+
+            if (b.radius[i] > 0)
+            {
+                int bucket = this.bucket(cell(b.centerX(i), this.cellSize), cell(b.centerY(i), this.cellSize));
+                this.bucketOf[i] = bucket;
+                start[bucket + 1]++;
+            } else
+            {
+                this.bucketOf[i] = -1;
+            }
+        }
+
+        for (int k = 0; k < buckets; k++)
+        {
+            start[k + 1] += start[k];
+        }
+
+        // place each collider at the next free spot of its bucket
+        System.arraycopy(start, 0, this.cursor, 0, buckets);
+        for (int i = 0; i < n; i++)
+        {
+            if (this.bucketOf[i] >= 0)
+            {
+                this.sorted[this.cursor[this.bucketOf[i]]++] = i;
+            }
+        }
+    }
+
+    private void collide(BodyArrays b, int i)
+    {
+        int cellX = cell(b.centerX(i), this.cellSize);
+        int cellY = cell(b.centerY(i), this.cellSize);
+
+        for (int dx = -1; dx <= 1; dx++)
+        {
+            for (int dy = -1; dy <= 1; dy++)
+            {
+                int bucket = this.bucket(cellX + dx, cellY + dy);
+
+                for (int k = this.bucketStart[bucket]; k < this.bucketStart[bucket + 1]; k++)
+                {
+                    int j = this.sorted[k];
+
+                    if (j == i || this.seenBy[j] == i)
+                    {
+                        continue;
+                    }
+                    this.seenBy[j] = i;
+
+                    this.touch(b, i, j);
+                }
+            }
+        }
+    }
+
+    private void touch(BodyArrays b, int i, int j)
+    {
+        float distX = b.centerX(i) - b.centerX(j);
+        float distY = b.centerY(i) - b.centerY(j);
+        float reach = b.radius[i] + b.radius[j];
+        float distSquared = distX * distX + distY * distY;
+
+        if (distSquared >= reach * reach)
+        {
+            return;
+        }
+
+        if ((b.flags[j] & BodyArrays.SOLID) != 0)
+        {
+            float dist = (float)Math.sqrt(distSquared);
+            float push = reach - dist;
+
+            // exactly on top of each other: push along the x-axis
+            if (dist == 0)
+            {
+                b.x[i] += push;
+            } else
+            {
+                b.x[i] += distX / dist * push;
+                b.y[i] += distY / dist * push;
+            }
+        }
+
+        this.contacts.add(b.entities[i]);
+        this.contacts.add(b.entities[j]);
+    }
+
+    private static int cell(float coordinate, float size)
+    {
+        return MathUtils.floor(coordinate / size);
+    }
+
+    private int bucket(int cellX, int cellY)
+    {
+        return ((cellX * 73856093) ^ (cellY * 19349663)) & this.bucketMask;
+    }
+}
@@ -0,0 +1,231 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.ktgames.starfishcollectorremastered.AssetRegistry;
+
+// Entity-component-system alternative to BaseActor, built on Ashley. An entity is a handful of small
+// Ashley components (Body, PlayerControl, Collectible, Lifetime) while its position, velocity, collider
+// and animation live in packed arrays (see BodyArrays), which the systems iterate:
+//   PlayerSystem    - arrow keys accelerate PlayerControl entities
+//   PhysicsSystem   - velocity, position, spin and animation clocks
+//   CollisionSystem - movers are pushed out of solid colliders and contacts are recorded
+//   LifetimeSystem  - fading and finished one-shot entities are removed
+//   CameraSystem    - the stage camera follows the player
+//   RenderSystem    - entities are drawn, layer by layer, with the stage's batch
+// Game rules (such as collecting starfish) are further systems added to the engine.
+//
+// Like ChunkedWorld, the world is an invisible actor on a stage: acting it updates the engine and
+// drawing it draws the entities, at its place in the stage's draw order. ActorAdapter turns existing
+// Turtle, Starfish, Rock and Whirlpool actors into entities.
+
+public class EcsWorld extends Actor
+{
+    // system priorities (Ashley runs lower numbers first)
+    public static final int INPUT = 0;
+    public static final int PHYSICS = 10;
+    public static final int COLLISION = 20;
+    public static final int RULES = 30;
+    public static final int LIFETIME = 40;
+    public static final int CAMERA = 50;
+
+    private final Engine engine;
+    private final BodyArrays bodies;
+    private final ComponentMapper<Body> bodyMapper;
+
+    private final RenderSystem renderSystem;
+
+    // animations kept loaded for entities spawned later (see hold)
+    private final Array<Animation<TextureRegion>> heldAnimations;
+
+    /**
+     * Creates a world with the standard systems and adds it to a stage.
+     * @param stage: stage whose camera and batch the world uses
+     * @param capacity: expected number of entities (the arrays grow as needed)
+     */
+    public EcsWorld(Stage stage, int capacity)
+    {
+        super();
+
+        this.engine = new Engine();
+        this.bodies = new BodyArrays(capacity);
+        this.bodyMapper = ComponentMapper.getFor(Body.class);
+        this.heldAnimations = new Array<Animation<TextureRegion>>();
+
+        // an entity's data is removed with it; the entity moved into its place learns its new index
+        this.engine.addEntityListener(Family.all(Body.class).get(), new EntityListener()
+        {
+            @Override
+            public void entityAdded(Entity entity) {}
+
+            @Override
+            public void entityRemoved(Entity entity)
+            {
+                freeBody(entity);
+            }
+        });
+
+        this.engine.addSystem(new PlayerSystem(this));
+        this.engine.addSystem(new PhysicsSystem(this));
+        this.engine.addSystem(new CollisionSystem(this, 128));
+        this.engine.addSystem(new LifetimeSystem(this));
+        this.engine.addSystem(new CameraSystem(this));
+
+        // drawing happens in draw, not in engine updates
+        this.renderSystem = new RenderSystem(this);
+        this.renderSystem.setProcessing(false);
+        this.engine.addSystem(this.renderSystem);
+
+        stage.addActor(this);
+    }
+
+    /**
+     * @return the Ashley engine; add game rule systems to it
+     */
+    public Engine getEngine()
+    {
+        return this.engine;
+    }
+
+    /**
+     * @return packed data of every entity
+     */
+    public BodyArrays getBodies()
+    {
+        return this.bodies;
+    }
+
+    /**
+     * @param entity: entity with a Body component
+     * @return index of the entity's data in getBodies()
+     */
+    public int indexOf(Entity entity)
+    {
+        return this.bodyMapper.get(entity).index;
+    }
+
+    /**
+     * @return number of entities with data
+     */
+    public int getEntityCount()
+    {
+        return this.bodies.size;
+    }
+
+    /**
+     * Creates an entity with a Body, showing an animation (which may be null).
+     * Its data can be filled in right away through the returned index, even during an engine update,
+     * when Ashley only adds the entity itself once the current system is done.
+     * @param anim: animation from AssetRegistry, retained while the entity exists
+     * @param x: x-coordinate of the bottom left corner
+     * @param y: y-coordinate of the bottom left corner
+     * @param width: width (pixels)
+     * @param height: height (pixels)
+     * @return the new entity; add further components before it is updated
+     */
+    public Entity spawn(Animation<TextureRegion> anim, float x, float y, float width, float height)
+    {
+        Entity entity = new Entity();
+        Body body = new Body();
+        body.index = this.bodies.add(entity);
+        entity.add(body);
+
+        int i = body.index;
+        this.bodies.x[i] = x;
+        this.bodies.y[i] = y;
+        this.bodies.width[i] = width;
+        this.bodies.height[i] = height;
+
+        if (anim != null)
+        {
+            AssetRegistry.retain(anim);
+            this.bodies.animation[i] = anim;
+        }
+
+        this.engine.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Removes an entity (after the current system, during an engine update).
+     * @param entity: entity to remove
+     */
+    public void destroy(Entity entity)
+    {
+        this.engine.removeEntity(entity);
+    }
+
+    /**
+     * Keeps an animation's textures loaded until the world is removed, so entities spawned later
+     * (e.g. effects) do not load them again each time the last one disappears.
+     * @param anim: animation from AssetRegistry
+     */
+    public void hold(Animation<TextureRegion> anim)
+    {
+        AssetRegistry.retain(anim);
+        this.heldAnimations.add(anim);
+    }
+
+    private void freeBody(Entity entity)
+    {
+        Body body = this.bodyMapper.get(entity);
+
+        if (body == null || body.index < 0)
+        {
+            return;
+        }
+
+        if (this.bodies.animation[body.index] != null)
+        {
+            AssetRegistry.release(this.bodies.animation[body.index]);
+        }
+
+        Entity moved = this.bodies.remove(body.index);
+        if (moved != null)
+        {
+            this.bodyMapper.get(moved).index = body.index;
+        }
+        body.index = -1;
+    }
+
+    @Override
+    public void act(float dt)
+    {
+        super.act(dt);
+        this.engine.update(dt);
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha)
+    {
+        this.renderSystem.draw(batch, parentAlpha);
+    }
+
+    // removing the world from its stage (e.g. by Stage.clear) removes its entities and lets go of their textures
+    @Override
+    protected void setStage(Stage stage)
+    {
+        Stage oldStage = this.getStage();
+        super.setStage(stage);
+
+        if (stage == null && oldStage != null)
+        {
+            this.engine.removeAllEntities();
+
+            for (Animation<TextureRegion> anim : this.heldAnimations)
+            {
+                AssetRegistry.release(anim);
+            }
+            this.heldAnimations.clear();
+        }
+    }
+}
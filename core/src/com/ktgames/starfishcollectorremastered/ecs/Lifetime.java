@@ -0,0 +1,15 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+// Removes an entity after a while: when its (non-looping) animation is finished, like a Whirlpool,
+// and/or after fading out, like a collected Starfish.
+
+public class Lifetime implements Component
+{
+    public boolean untilAnimationFinished = false;
+
+    // fade out over this many seconds (0 for no fade)
+    public float fadeDuration = 0;
+    public float fadeTime = 0;
+}
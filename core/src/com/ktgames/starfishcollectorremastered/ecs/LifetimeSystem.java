@@ -0,0 +1,48 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+// Fades out and removes entities with a Lifetime: the ECS version of Whirlpool removing itself when its
+// animation is finished and of Starfish's fadeOut and removeActor actions.
+
+public class LifetimeSystem extends IteratingSystem
+{
+    private final EcsWorld world;
+    private final ComponentMapper<Lifetime> lifetimeMapper;
+
+    public LifetimeSystem(EcsWorld world)
+    {
+        super(Family.all(Body.class, Lifetime.class).get(), EcsWorld.LIFETIME);
+        this.world = world;
+        this.lifetimeMapper = ComponentMapper.getFor(Lifetime.class);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float dt)
+    {
+        BodyArrays b = this.world.getBodies();
+        int i = this.world.indexOf(entity);
+        Lifetime lifetime = this.lifetimeMapper.get(entity);
+
+        if (lifetime.untilAnimationFinished && b.animation[i] != null
+                && b.animation[i].isAnimationFinished(b.elapsedTime[i]))
+        {
+            this.world.destroy(entity);
+            return;
+        }
+
+        if (lifetime.fadeDuration > 0)
+        {
+            lifetime.fadeTime += dt;
+            b.opacity[i] = Math.max(0, 1 - lifetime.fadeTime / lifetime.fadeDuration);
+
+            if (lifetime.fadeTime >= lifetime.fadeDuration)
+            {
+                this.world.destroy(entity);
+            }
+        }
+    }
+}
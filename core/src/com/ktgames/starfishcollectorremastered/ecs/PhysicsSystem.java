@@ -0,0 +1,114 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+
+// Moves every entity, the way BaseActor.applyPhysics moves an actor, in one pass over the packed arrays:
+// acceleration changes velocity (deceleration applies when not accelerating, speed is capped at maxSpeed),
+// velocity changes position, spin changes rotation and animation clocks advance.
+
+public class PhysicsSystem extends EntitySystem
+{
+    private final EcsWorld world;
+
+    public PhysicsSystem(EcsWorld world)
+    {
+        super(EcsWorld.PHYSICS);
+        this.world = world;
+    }
+
+    @Override
+    public void update(float dt)
+    {
+        BodyArrays b = this.world.getBodies();
+        int n = b.size;
+
+        float[] x = b.x, y = b.y, rotation = b.rotation;
+        float[] vx = b.velocityX, vy = b.velocityY, ax = b.accelerationX, ay = b.accelerationY;
+        float[] deceleration = b.deceleration, maxSpeed = b.maxSpeed, spin = b.spin;
+
+        for (int i = 0; i < n; i++)
+        {
+            vx[i] += ax[i] * dt;
+            vy[i] += ay[i] * dt;
+
+            float currentSpeed = (float)Math.sqrt(vx[i] * vx[i] + vy[i] * vy[i]);
+            float speed = currentSpeed;
+
+            if (ax[i] == 0 && ay[i] == 0)
+            {
+                speed -= deceleration[i] * dt;
+            }
+            speed = MathUtils.clamp(speed, 0, maxSpeed[i]);
+
+            if (currentSpeed == 0)
+            {
+                vx[i] = speed;
+                vy[i] = 0;
+            } else
+            {
+                float scale = speed / currentSpeed;
+                vx[i] *= scale;
+                vy[i] *= scale;
+            }
+
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            rotation[i] += spin[i] * dt;
+
+            ax[i] = 0;
+            ay[i] = 0;
+        }
+
+        this.updateAnimations(b, n, dt);
+        this.applyFlags(b, n);
+    }
+
+    private void updateAnimations(BodyArrays b, int n, float dt)
+    {
+        float[] elapsedTime = b.elapsedTime;
+        boolean[] paused = b.animationPaused;
+
+        for (int i = 0; i < n; i++)
+        {
+            if (!paused[i])
+            {
+                elapsedTime[i] += dt;
+            }
+        }
+    }
+
+    // facing the direction of motion and staying inside the world, as Turtle.act does
+    private void applyFlags(BodyArrays b, int n)
+    {
+        Rectangle bounds = BaseActor.getWorldBounds();
+        int[] flags = b.flags;
+
+        for (int i = 0; i < n; i++)
+        {
+            if (flags[i] == 0)
+            {
+                continue;
+            }
+
+            if ((flags[i] & BodyArrays.FACE_MOTION) != 0)
+            {
+                boolean moving = (b.velocityX[i] != 0 || b.velocityY[i] != 0);
+                b.animationPaused[i] = !moving;
+
+                if (moving)
+                {
+                    b.rotation[i] = MathUtils.atan2(b.velocityY[i], b.velocityX[i]) * MathUtils.radiansToDegrees;
+                }
+            }
+
+            if ((flags[i] & BodyArrays.BOUND_TO_WORLD) != 0 && bounds != null)
+            {
+                b.x[i] = MathUtils.clamp(b.x[i], 0, bounds.width - b.width[i]);
+                b.y[i] = MathUtils.clamp(b.y[i], 0, bounds.height - b.height[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Component;
+
+// Entity steered with the arrow keys and followed by the camera, like the Turtle.
+
+public class PlayerControl implements Component
+{
+}
@@ -0,0 +1,51 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.math.MathUtils;
+import com.ktgames.starfishcollectorremastered.GameInput;
+
+// Arrow keys accelerate PlayerControl entities, as Turtle.act does.
+
+public class PlayerSystem extends IteratingSystem
+{
+    private final EcsWorld world;
+
+    public PlayerSystem(EcsWorld world)
+    {
+        super(Family.all(Body.class, PlayerControl.class).get(), EcsWorld.INPUT);
+        this.world = world;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float dt)
+    {
+        BodyArrays b = this.world.getBodies();
+        int i = this.world.indexOf(entity);
+
+        if (GameInput.isKeyPressed(Input.Keys.LEFT))
+        {
+            accelerateAtAngle(b, i, 180);
+        }
+        if (GameInput.isKeyPressed(Input.Keys.RIGHT))
+        {
+            accelerateAtAngle(b, i, 0);
+        }
+        if (GameInput.isKeyPressed(Input.Keys.UP))
+        {
+            accelerateAtAngle(b, i, 90);
+        }
+        if (GameInput.isKeyPressed(Input.Keys.DOWN))
+        {
+            accelerateAtAngle(b, i, 270);
+        }
+    }
+
+    private static void accelerateAtAngle(BodyArrays b, int i, float angle)
+    {
+        b.accelerationX[i] += b.acceleration[i] * MathUtils.cosDeg(angle);
+        b.accelerationY[i] += b.acceleration[i] * MathUtils.sinDeg(angle);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+// Draws every entity with an animation, with the batch of the world's stage. Entities are drawn layer
+// by layer (one pass over the packed arrays per layer in use), and those outside the camera are skipped
+// with a bounding-circle test.
+
+public class RenderSystem extends EntitySystem
+{
+    private final EcsWorld world;
+
+    // number of entities drawn and skipped by the last draw
+    private int drawnCount;
+    private int culledCount;
+
+    public RenderSystem(EcsWorld world)
+    {
+        super();
+        this.world = world;
+    }
+
+    /**
+     * @return number of entities drawn last frame
+     */
+    public int getDrawnCount()
+    {
+        return this.drawnCount;
+    }
+
+    /**
+     * @return number of entities outside the camera last frame
+     */
+    public int getCulledCount()
+    {
+        return this.culledCount;
+    }
+
+    /**
+     * Draws the entities; called by EcsWorld.draw.
+     * @param batch: batch of the stage, between begin and end
+     * @param parentAlpha: opacity of the world actor's parent
+     */
+    public void draw(Batch batch, float parentAlpha)
+    {
+        BodyArrays b = this.world.getBodies();
+        int n = b.size;
+
+        this.drawnCount = 0;
+        this.culledCount = 0;
+
+        int maxLayer = 0;
+        for (int i = 0; i < n; i++)
+        {
+            maxLayer = Math.max(maxLayer, b.layer[i]);
+        }
+
+        Camera cam = this.world.getStage().getCamera();
+        float viewLeft = cam.position.x - cam.viewportWidth / 2;
+        float viewBottom = cam.position.y - cam.viewportHeight / 2;
+        float viewRight = viewLeft + cam.viewportWidth;
+        float viewTop = viewBottom + cam.viewportHeight;
+
+        Color color = batch.getColor();
+        float r = color.r, g = color.g, bl = color.b, a = color.a;
+
+        for (int layer = 0; layer <= maxLayer; layer++)
+        {
+            for (int i = 0; i < n; i++)
+            {
+                if (b.layer[i] != layer || b.animation[i] == null)
+                {
+                    continue;
+                }
+
+                // half the diagonal covers any rotation
+                float w = b.width[i], h = b.height[i];
+                float reach = (float)Math.sqrt(w * w + h * h) / 2;
+                float cx = b.x[i] + w / 2, cy = b.y[i] + h / 2;
+
+                if (cx + reach < viewLeft || cx - reach > viewRight || cy + reach < viewBottom || cy - reach > viewTop)
+                {
+                    this.culledCount++;
+                    continue;
+                }
+
+                TextureRegion frame = b.animation[i].getKeyFrame(b.elapsedTime[i]);
+
+                batch.setColor(r, g, bl, a * parentAlpha * b.opacity[i]);
+                batch.draw(frame, b.x[i], b.y[i], w / 2, h / 2, w, h, 1, 1, b.rotation[i]);
+                this.drawnCount++;
+            }
+        }
+
+        batch.setColor(r, g, bl, a);
+    }
+}
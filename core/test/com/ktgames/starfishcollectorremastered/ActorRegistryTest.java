@@ -0,0 +1,110 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// Class buckets: an actor is listed under its own class and every superclass up to BaseActor,
+// leaves all of them when it leaves the stage, and actors inside groups are listed too.
+
+public class ActorRegistryTest
+{
+    static class Fish extends BaseActor
+    {
+        Fish(Stage stage)
+        {
+            super(0, 0, stage);
+        }
+    }
+
+    static class Shark extends Fish
+    {
+        Shark(Stage stage)
+        {
+            super(stage);
+        }
+    }
+
+    private Stage stage;
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+    }
+
+    @After
+    public void tearDown()
+    {
+        ActorRegistry.detach(this.stage);
+    }
+
+    @Test
+    public void listsActorsUnderTheirClassAndSuperclasses()
+    {
+        BaseActor plain = TestStages.createActor(0, 0, 8, 8, this.stage);
+        Fish fish = new Fish(this.stage);
+        Shark shark = new Shark(this.stage);
+
+        assertEquals(3, BaseActor.count(this.stage, BaseActor.class));
+        assertEquals(2, BaseActor.count(this.stage, Fish.class));
+        assertEquals(1, BaseActor.count(this.stage, Shark.class));
+
+        Array<Fish> fishes = BaseActor.getList(this.stage, Fish.class);
+        assertTrue(fishes.contains(fish, true));
+        assertTrue(fishes.contains(shark, true));
+        assertEquals(1, BaseActor.getList(this.stage, Shark.class).size);
+        assertTrue(BaseActor.getList(this.stage, BaseActor.class).contains(plain, true));
+        assertEquals(1, BaseActor.count(this.stage, Shark.class.getName()));
+    }
+
+    @Test
+    public void removedActorsLeaveEveryBucket()
+    {
+        Fish fish = new Fish(this.stage);
+        Shark shark = new Shark(this.stage);
+
+        shark.remove();
+        assertEquals(1, BaseActor.count(this.stage, Fish.class));
+        assertEquals(0, BaseActor.count(this.stage, Shark.class));
+        assertEquals(1, BaseActor.count(this.stage, BaseActor.class));
+
+        // the live list follows the stage
+        Array<Fish> fishes = BaseActor.getList(this.stage, Fish.class);
+        fish.remove();
+        assertEquals(0, fishes.size);
+
+        this.stage.addActor(shark);
+        assertEquals(1, fishes.size);
+        assertSame(shark, fishes.first());
+    }
+
+    @Test
+    public void listsActorsInsideGroups()
+    {
+        Group group = new Group();
+        this.stage.addActor(group);
+
+        Fish fish = new Fish(this.stage);
+        group.addActor(fish);
+        assertEquals(1, BaseActor.count(this.stage, Fish.class));
+
+        group.remove();
+        assertEquals(0, BaseActor.count(this.stage, Fish.class));
+    }
+
+    @Test
+    public void unknownClassesCountZero()
+    {
+        assertEquals(0, BaseActor.count(this.stage, Shark.class));
+        assertEquals(0, BaseActor.getList(this.stage, Shark.class).size);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+// Atlas lookup: an image file is found in an atlas by its path below the assets folder without the
+// extension, wherever that folder is, so packed images share the atlas page; other images still load
+// from their own files.
+
+public class AtlasRegionTest
+{
+    private static final String ROCK =
+            "/Users/katherineohalloran/Documents/GameDev/libGDX-Learning/Starfish-Collector-Remastered/core/assets/NPCs/rock.png";
+    private static final String LOOSE = "build/tmp/atlas-region-test.png";
+
+    @Before
+    public void setUp()
+    {
+        TestStages.createStage();
+        TestAssets.addAtlas();
+
+        Pixmap pixmap = new Pixmap(16, 8, Pixmap.Format.RGBA8888);
+        PixmapIO.writePNG(Gdx.files.local(LOOSE), pixmap);
+        pixmap.dispose();
+    }
+
+    @After
+    public void tearDown()
+    {
+        AssetRegistry.disposeAll();
+    }
+
+    @Test
+    public void packedImagesShareTheAtlasPage()
+    {
+        Animation<TextureRegion> rock = AssetRegistry.obtainAnimationFromFiles(new String[] { ROCK }, 0, false);
+        Animation<TextureRegion> relative = AssetRegistry.obtainAnimationFromFiles(new String[] { "NPCs/starfish.png" }, 0, false);
+
+        TextureRegion frame = rock.getKeyFrame(0);
+        assertEquals(TestAssets.IMAGE_SIZE, frame.getRegionWidth());
+        assertEquals(TestAssets.IMAGE_SIZE, frame.getRegionHeight());
+        assertSame(frame.getTexture(), relative.getKeyFrame(0).getTexture());
+        assertEquals(1, AssetRegistry.getLoadedTextureCount());
+
+        AssetDescriptor<?> descriptor = AssetRegistry.getAssetDescriptor(ROCK);
+        assertSame(TextureAtlas.class, descriptor.type);
+        assertEquals(TestAssets.ATLAS, descriptor.fileName);
+
+        // the page is disposed with the last image using it
+        AssetRegistry.release(rock);
+        assertEquals(1, AssetRegistry.getLoadedTextureCount());
+        AssetRegistry.release(relative);
+        assertEquals(0, AssetRegistry.getLoadedTextureCount());
+    }
+
+    @Test
+    public void sheetsAreSplitWithinTheirRegion()
+    {
+        Animation<TextureRegion> sheet = AssetRegistry.obtainAnimationFromSheet("Turtle/turtle-1.png", 2, 2, 0.1f, true);
+
+        assertEquals(3, sheet.getKeyFrameIndex(0.35f));
+        TextureRegion last = sheet.getKeyFrame(0.35f);
+        assertEquals(TestAssets.IMAGE_SIZE / 2, last.getRegionWidth());
+        assertEquals(TestAssets.IMAGE_SIZE / 2, last.getRegionX());
+        assertEquals(TestAssets.IMAGE_SIZE / 2, last.getRegionY());
+    }
+
+    @Test
+    public void otherImagesLoadFromTheirOwnFiles()
+    {
+        Animation<TextureRegion> rock = AssetRegistry.obtainAnimationFromFiles(new String[] { ROCK }, 0, false);
+        Animation<TextureRegion> loose = AssetRegistry.obtainAnimationFromFiles(new String[] { LOOSE }, 0, false);
+
+        Texture texture = loose.getKeyFrame(0).getTexture();
+        assertNotSame(rock.getKeyFrame(0).getTexture(), texture);
+        assertEquals(16, texture.getWidth());
+        assertEquals(8, texture.getHeight());
+        assertEquals(2, AssetRegistry.getLoadedTextureCount());
+
+        AssetDescriptor<?> descriptor = AssetRegistry.getAssetDescriptor(LOOSE);
+        assertSame(Texture.class, descriptor.type);
+        assertEquals(LOOSE, descriptor.fileName);
+    }
+}
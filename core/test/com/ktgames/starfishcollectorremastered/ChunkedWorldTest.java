@@ -0,0 +1,90 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+// Streaming: actors of chunks out of range are counted as waiting until their chunk loads,
+// count again once it unloads, and actors that left the stage on their own are not counted.
+
+public class ChunkedWorldTest
+{
+    private static final float CHUNK_SIZE = 100;
+
+    private Stage stage;
+    private ChunkedWorld world;
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+        this.world = new ChunkedWorld(this.stage, 1000, 1000, CHUNK_SIZE, null);
+        this.world.setLoadMargin(0);
+        this.world.setLoadBudget(1000);
+
+        int prop = this.world.addType("Prop", new LevelLoader.Factory()
+        {
+            @Override
+            public BaseActor create(float x, float y, Stage stage)
+            {
+                return TestStages.createActor(x, y, 8, 8, stage);
+            }
+        }, LevelLoader.SHAPE_POLYGON, null, 8, 8);
+
+        // two near the origin, one in the far corner
+        this.world.addSpawn(prop, 10, 10);
+        this.world.addSpawn(prop, 20, 20);
+        this.world.addSpawn(prop, 950, 950);
+    }
+
+    @After
+    public void tearDown()
+    {
+        this.stage.clear();
+        ActorRegistry.detach(this.stage);
+    }
+
+    @Test
+    public void countsActorsOutOfRangeAsWaiting()
+    {
+        assertEquals(3, this.world.getWaitingCount("Prop"));
+        assertEquals(0, this.world.getWaitingCount("Other"));
+
+        this.moveCamera(50, 50);
+        assertEquals(2, BaseActor.count(this.stage, BaseActor.class));
+        assertEquals(1, this.world.getWaitingCount("Prop"));
+
+        // out of range again: both come back as spawn data
+        this.moveCamera(550, 550);
+        assertEquals(0, BaseActor.count(this.stage, BaseActor.class));
+        assertEquals(3, this.world.getWaitingCount("Prop"));
+    }
+
+    @Test
+    public void actorsThatLeftAreNotCounted()
+    {
+        this.moveCamera(50, 50);
+        BaseActor.getList(this.stage, BaseActor.class).first().remove();
+
+        assertEquals(1, BaseActor.count(this.stage, BaseActor.class));
+        assertEquals(1, this.world.getWaitingCount("Prop"));
+
+        this.moveCamera(550, 550);
+        assertEquals(2, this.world.getWaitingCount("Prop"));
+
+        // the removed actor is not created again
+        this.moveCamera(50, 50);
+        assertEquals(1, BaseActor.count(this.stage, BaseActor.class));
+        assertEquals(1, this.world.getWaitingCount("Prop"));
+    }
+
+    private void moveCamera(float x, float y)
+    {
+        this.stage.getCamera().position.set(x, y, 0);
+        this.stage.act(1/60f);
+    }
+}
@@ -0,0 +1,123 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+// Minimum translation vectors of every pair of collision shapes, in both orders and from both sides.
+// Every shape spans its actor's full rectangle, and all actors are 64 high and side by side, so two
+// actors overlapping horizontally by DEPTH must be pushed apart horizontally by exactly DEPTH.
+
+public class CollisionsTest
+{
+    private static final float DEPTH = 10;
+    private static final float EPSILON = 0.01f;
+
+    // shapes: polygon (the rectangle), circle, box and capsule (twice as wide as it is high)
+    private static final int SHAPE_COUNT = 4;
+    private static final String[] SHAPE_NAMES = {"polygon", "circle", "box", "capsule"};
+
+    private Stage stage;
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+    }
+
+    @Test
+    public void pushesOutToTheRight()
+    {
+        for (int a = 0; a < SHAPE_COUNT; a++)
+        {
+            for (int b = 0; b < SHAPE_COUNT; b++)
+            {
+                BaseActor fixed = this.createShape(b, 0);
+                BaseActor pushed = this.createShape(a, fixed.getWidth() - DEPTH);
+                this.assertPushed(pushed, fixed, 1, SHAPE_NAMES[a] + " right of " + SHAPE_NAMES[b]);
+            }
+        }
+    }
+
+    @Test
+    public void pushesOutToTheLeft()
+    {
+        for (int a = 0; a < SHAPE_COUNT; a++)
+        {
+            for (int b = 0; b < SHAPE_COUNT; b++)
+            {
+                BaseActor fixed = this.createShape(b, 0);
+                BaseActor pushed = this.createShape(a, 0);
+                pushed.setX(-pushed.getWidth() + DEPTH);
+                this.assertPushed(pushed, fixed, -1, SHAPE_NAMES[a] + " left of " + SHAPE_NAMES[b]);
+            }
+        }
+    }
+
+    @Test
+    public void separateShapesDoNotMove()
+    {
+        for (int a = 0; a < SHAPE_COUNT; a++)
+        {
+            for (int b = 0; b < SHAPE_COUNT; b++)
+            {
+                BaseActor fixed = this.createShape(b, 0);
+                BaseActor other = this.createShape(a, fixed.getWidth() + 1);
+                String pair = SHAPE_NAMES[a] + " beside " + SHAPE_NAMES[b];
+
+                assertFalse(pair, other.overlaps(fixed));
+                assertNull(pair, other.preventOverlap(fixed));
+                assertEquals(pair, fixed.getWidth() + 1, other.getX(), 0);
+            }
+        }
+    }
+
+    // the shape's x extent is its actor's rectangle; its y extent is 0 to 64
+    private BaseActor createShape(int shape, float x)
+    {
+        float width = (shape == 3) ? 128 : 64;
+        BaseActor actor = TestStages.createActor(x, 0, width, 64, this.stage);
+
+        if (shape == 1)
+        {
+            actor.setBoundaryCircle();
+        } else if (shape == 2)
+        {
+            actor.setBoundaryBox();
+        } else if (shape == 3)
+        {
+            actor.setBoundaryCapsule();
+        }
+
+        return actor;
+    }
+
+    private void assertPushed(BaseActor pushed, BaseActor fixed, int direction, String pair)
+    {
+        float startX = pushed.getX();
+
+        assertTrue(pair, pushed.overlaps(fixed));
+
+        Vector2 normal = pushed.preventOverlap(fixed);
+        assertNotNull(pair, normal);
+        assertEquals(pair + ": normal x", direction, normal.x, EPSILON);
+        assertEquals(pair + ": normal y", 0, normal.y, EPSILON);
+        assertEquals(pair + ": depth", direction * DEPTH, pushed.getX() - startX, EPSILON);
+        assertEquals(pair + ": moved vertically", 0, pushed.getY(), EPSILON);
+
+        // pushed out to touching, so a second check finds at most a rounding error's overlap
+        Vector2 again = pushed.preventOverlap(fixed);
+        if (again != null)
+        {
+            assertEquals(pair + ": second push", startX + direction * DEPTH, pushed.getX(), EPSILON);
+        }
+    }
+}
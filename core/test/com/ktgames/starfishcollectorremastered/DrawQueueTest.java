@@ -0,0 +1,115 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+// Layered drawing: actors are drawn back to front by layer, grouped by texture inside a layer in the order
+// each texture first appears, and actors without an image are drawn too, while static actors are left
+// to the static layer.
+
+public class DrawQueueTest
+{
+    // records the order actors are drawn in instead of drawing
+    class Recorder extends BaseActor
+    {
+        Recorder(int layer, Texture texture)
+        {
+            super(0, 0, DrawQueueTest.this.stage);
+            this.setDrawLayer(layer);
+            if (texture != null)
+            {
+                this.setAnimation(new Animation<TextureRegion>(1, new TextureRegion(texture)));
+            }
+        }
+
+        @Override
+        public void draw(Batch batch, float parentAlpha)
+        {
+            DrawQueueTest.this.drawn.add(this);
+        }
+    }
+
+    private Stage stage;
+    private Texture water;
+    private Texture rock;
+    private final Array<BaseActor> drawn = new Array<BaseActor>();
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+        this.water = TestStages.createTexture(4, 4);
+        this.rock = TestStages.createTexture(4, 4);
+        DrawQueue.get(this.stage).setEnabled(true);
+    }
+
+    @After
+    public void tearDown()
+    {
+        DrawQueue.detach(this.stage);
+        StaticLayer.detach(this.stage);
+        ActorRegistry.detach(this.stage);
+        this.water.dispose();
+        this.rock.dispose();
+    }
+
+    @Test
+    public void drawsByLayerThenTexture()
+    {
+        Recorder first = new Recorder(DrawQueue.ACTORS, this.water);
+        Recorder second = new Recorder(DrawQueue.ACTORS, this.rock);
+        Recorder third = new Recorder(DrawQueue.ACTORS, this.water);
+        Recorder prop = new Recorder(DrawQueue.PROPS, this.rock);
+        Recorder effect = new Recorder(DrawQueue.EFFECTS, null);
+        Recorder background = new Recorder(DrawQueue.BACKGROUND, this.rock);
+
+        DrawQueue.draw(this.stage);
+
+        assertEquals(6, this.drawn.size);
+        assertEquals(background, this.drawn.get(0));
+        assertEquals(prop, this.drawn.get(1));
+        assertEquals(first, this.drawn.get(2));
+        assertEquals(third, this.drawn.get(3));
+        assertEquals(second, this.drawn.get(4));
+        assertEquals(effect, this.drawn.get(5));
+
+        // five texture switches in stage order, three once sorted
+        assertEquals(2, DrawQueue.find(this.stage).getFlushesAvoided());
+    }
+
+    @Test
+    public void drawsActorsWithoutAnImage()
+    {
+        Recorder plain = new Recorder(DrawQueue.ACTORS, null);
+        Recorder textured = new Recorder(DrawQueue.ACTORS, this.water);
+
+        DrawQueue.draw(this.stage);
+
+        assertEquals(2, this.drawn.size);
+        assertEquals(plain, this.drawn.get(0));
+        assertEquals(textured, this.drawn.get(1));
+    }
+
+    @Test
+    public void leavesStaticActorsToTheStaticLayer()
+    {
+        Recorder still = new Recorder(DrawQueue.BACKGROUND, this.water);
+        still.setStatic(true);
+        Recorder moving = new Recorder(DrawQueue.ACTORS, this.water);
+
+        DrawQueue.draw(this.stage);
+
+        assertEquals(1, this.drawn.size);
+        assertEquals(moving, this.drawn.get(0));
+    }
+}
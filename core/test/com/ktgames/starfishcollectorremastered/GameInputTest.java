@@ -0,0 +1,122 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// Records a session of scripted key presses and frame times, replays the log with no key held down,
+// and checks that every frame gets back the same time, the same keys and the same random numbers.
+
+public class GameInputTest
+{
+    private static final String LOG = "build/tmp/game-input-test.log";
+    private static final int FRAMES = 120;
+
+    // keys the fake keyboard reports as held down
+    private final IntSet keysDown = new IntSet();
+
+    private Input originalInput;
+
+    @Before
+    public void setUp()
+    {
+        TestStages.createStage();
+
+        this.originalInput = Gdx.input;
+        Gdx.input = (Input)Proxy.newProxyInstance(Input.class.getClassLoader(), new Class<?>[] { Input.class },
+                new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args)
+                    {
+                        if (method.getName().equals("isKeyPressed"))
+                        {
+                            return GameInputTest.this.keysDown.contains((Integer)args[0]);
+                        }
+                        return method.getReturnType() == boolean.class ? (Object)false : null;
+                    }
+                });
+    }
+
+    @After
+    public void tearDown()
+    {
+        Gdx.input = this.originalInput;
+        Gdx.files.local(LOG).delete();
+        Gdx.files.local(LOG + ".frames.csv").delete();
+    }
+
+    @Test
+    public void replayRepeatsTheRecordedSession()
+    {
+        float[] times = new float[FRAMES];
+        boolean[] left = new boolean[FRAMES];
+        boolean[] upPressed = new boolean[FRAMES];
+        int[] randoms = new int[FRAMES];
+
+        GameInput.record(LOG);
+        assertTrue(GameInput.isDeterministic());
+
+        for (int frame = 0; frame < FRAMES; frame++)
+        {
+            this.keysDown.clear();
+            if (frame % 2 == 0)
+            {
+                this.keysDown.add(Input.Keys.LEFT);
+            }
+            if (frame % 5 < 2)
+            {
+                this.keysDown.add(Input.Keys.UP);
+            }
+
+            float dt = 0.01f + frame * 0.0001f;
+            assertEquals(dt, GameInput.beginFrame(dt), 0);
+
+            times[frame] = dt;
+            left[frame] = GameInput.isKeyPressed(Input.Keys.LEFT);
+            upPressed[frame] = GameInput.isKeyJustPressed(Input.Keys.UP);
+            randoms[frame] = MathUtils.random(1000000);
+
+            GameInput.endFrame();
+        }
+
+        GameInput.finish();
+        assertFalse(GameInput.isDeterministic());
+        assertTrue(Gdx.files.local(LOG).exists());
+
+        // nothing is held down while replaying; keys and times come from the log only
+        this.keysDown.clear();
+        GameInput.replay(LOG);
+
+        for (int frame = 0; frame < FRAMES; frame++)
+        {
+            String where = "frame " + frame;
+
+            assertEquals(where, times[frame], GameInput.beginFrame(0.5f), 0);
+            assertEquals(where, left[frame], GameInput.isKeyPressed(Input.Keys.LEFT));
+            assertEquals(where, upPressed[frame], GameInput.isKeyJustPressed(Input.Keys.UP));
+            assertEquals(where, randoms[frame], MathUtils.random(1000000));
+
+            GameInput.endFrame();
+        }
+
+        // the frame after the last one ends the replay, having written the frame times
+        assertEquals(0, GameInput.beginFrame(0.5f), 0);
+        assertFalse(GameInput.isDeterministic());
+        assertFalse(GameInput.isKeyPressed(Input.Keys.LEFT));
+        assertEquals(FRAMES, Gdx.files.local(LOG + ".frames.csv").readString().split("\n").length);
+    }
+}
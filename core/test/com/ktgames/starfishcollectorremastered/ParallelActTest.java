@@ -0,0 +1,167 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// Parallel act: thread-safe actors are acted on other threads, and the removals and changes they
+// defer are applied once each, on the thread that acts the stage, after the pass.
+
+public class ParallelActTest
+{
+    private static final int ACTOR_COUNT = 200;
+
+    // removes itself and defers a change on its first act
+    static class Leaver extends BaseActor
+    {
+        final ParallelActTest test;
+        int acted;
+        Thread actThread;
+
+        Leaver(ParallelActTest test, Stage stage)
+        {
+            super(0, 0, stage);
+            this.test = test;
+        }
+
+        @Override
+        public boolean isThreadSafe()
+        {
+            return true;
+        }
+
+        @Override
+        public void act(float dt)
+        {
+            super.act(dt);
+            this.acted++;
+            this.actThread = Thread.currentThread();
+
+            this.remove();
+            ParallelAct.defer(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    Leaver.this.test.deferred(Leaver.this);
+                }
+            });
+        }
+    }
+
+    private Stage stage;
+    private ExecutorService threads;
+
+    private final List<Leaver> deferredFor = new ArrayList<Leaver>();
+    private final List<Thread> deferredOn = new ArrayList<Thread>();
+    private boolean deferredDuringPass;
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+        ParallelRoot root = new ParallelRoot();
+        root.setParallel(true);
+        this.stage.setRoot(root);
+
+        // splits every pass into four ranges acted on other threads
+        this.threads = Executors.newFixedThreadPool(4);
+        ParallelAct.setExecutor(new ParallelAct.Executor()
+        {
+            @Override
+            public void execute(final int count, final ParallelAct.Task task)
+            {
+                List<Future<Object>> ranges = new ArrayList<Future<Object>>();
+                for (int r = 0; r < 4; r++)
+                {
+                    final int from = count * r / 4;
+                    final int to = count * (r + 1) / 4;
+                    ranges.add(ParallelActTest.this.threads.submit(new Callable<Object>()
+                    {
+                        @Override
+                        public Object call()
+                        {
+                            task.run(from, to);
+                            return null;
+                        }
+                    }));
+                }
+                try
+                {
+                    for (Future<Object> range : ranges)
+                    {
+                        range.get();
+                    }
+                } catch (Exception e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    @After
+    public void tearDown()
+    {
+        ParallelAct.setExecutor(null);
+        this.threads.shutdown();
+        ActorRegistry.detach(this.stage);
+    }
+
+    synchronized void deferred(Leaver actor)
+    {
+        this.deferredFor.add(actor);
+        this.deferredOn.add(Thread.currentThread());
+        this.deferredDuringPass |= ParallelAct.isRunning();
+    }
+
+    @Test
+    public void deferredChangesApplyOnceOnTheActingThread()
+    {
+        List<Leaver> actors = new ArrayList<Leaver>();
+        for (int i = 0; i < ACTOR_COUNT; i++)
+        {
+            actors.add(new Leaver(this, this.stage));
+        }
+
+        this.stage.act(1/60f);
+
+        assertEquals(0, this.stage.getActors().size);
+        assertEquals(0, BaseActor.count(this.stage, Leaver.class));
+        assertEquals(ACTOR_COUNT, this.deferredFor.size());
+        assertFalse(this.deferredDuringPass);
+
+        boolean otherThreads = false;
+        for (Leaver actor : actors)
+        {
+            assertEquals(1, actor.acted);
+            assertFalse(actor.hasParent());
+            assertTrue(this.deferredFor.contains(actor));
+            otherThreads |= actor.actThread != Thread.currentThread();
+        }
+        assertTrue(otherThreads);
+
+        for (Thread thread : this.deferredOn)
+        {
+            assertSame(Thread.currentThread(), thread);
+        }
+
+        // nothing is left queued for the next pass
+        this.stage.act(1/60f);
+        assertEquals(ACTOR_COUNT, this.deferredFor.size());
+    }
+}
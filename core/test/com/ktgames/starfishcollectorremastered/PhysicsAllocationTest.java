@@ -0,0 +1,107 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.sun.management.ThreadMXBean;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Runs the physics and collision hot path of BaseActor for thousands of frames and checks, with the
+// JVM's per-thread allocation counter, that not a single byte is allocated on the way in any round after
+// the warm-up.
+
+public class PhysicsAllocationTest
+{
+    private static final int WARM_UP_FRAMES = 100000;
+    private static final int FRAMES = 5000;
+    private static final int ROUNDS = 5;
+    private static final float DT = 1 / 60f;
+
+    private BaseActor turtle;
+    private BaseActor[] rocks;
+    private int overlapCount;
+
+    @Test
+    public void physicsAndCollisionDoNotAllocate()
+    {
+        ThreadMXBean threads = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Stage stage = TestStages.createStage();
+
+        this.turtle = TestStages.createActor(0, 0, 100, 93, stage);
+        this.turtle.setBoundaryPolygon(8);
+        this.turtle.setAcceleration(400);
+        this.turtle.setMaxSpeed(100);
+        this.turtle.setDeceleration(400);
+
+        // one rock of each collider type, on the circle the turtle swims along
+        this.rocks = new BaseActor[4];
+        for (int i = 0; i < this.rocks.length; i++)
+        {
+            float angle = i * 90;
+            this.rocks[i] = TestStages.createActor(300 + 150 * cos(angle), 300 + 150 * sin(angle), 64, 64, stage);
+        }
+        this.rocks[0].setBoundaryPolygon(8);
+        this.rocks[1].setBoundaryCircle();
+        this.rocks[2].setBoundaryBox();
+        this.rocks[3].setBoundaryCapsule();
+
+        // a single warm-up round loads classes and sets up scratch state that is created on first use;
+        // it is long so the JIT compiler is done with the hot path, as recompiling it while a round
+        // is measured can leave a few hundred bytes on this thread
+        this.runFrames(0, WARM_UP_FRAMES);
+        this.overlapCount = 0;
+
+        long thread = Thread.currentThread().getId();
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            long before = threads.getThreadAllocatedBytes(thread);
+            this.runFrames(WARM_UP_FRAMES + round * FRAMES, FRAMES);
+            long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+            assertEquals("bytes allocated in round " + (round + 1) + " of " + FRAMES + " frames", 0, allocated);
+        }
+
+        assertTrue("the turtle never touched a rock", this.overlapCount > 0);
+    }
+
+    // the turtle swims around a circle through the rocks, pushed out of each rock it runs into
+    private void runFrames(int first, int count)
+    {
+        for (int frame = first; frame < first + count; frame++)
+        {
+            float angle = frame * 0.6f;
+            this.turtle.setPosition(300 + 150 * cos(angle) - 18, 300 + 150 * sin(angle) - 14);
+
+            this.turtle.accelerateAtAngle(angle + 90);
+            this.turtle.accelerateAtAngle(angle);
+            this.turtle.applyPhysics(DT);
+
+            for (BaseActor rock : this.rocks)
+            {
+                if (this.turtle.overlaps(rock))
+                {
+                    this.overlapCount++;
+                    this.turtle.preventOverlap(rock);
+                }
+            }
+        }
+    }
+
+    private static float cos(float degrees)
+    {
+        return (float)Math.cos(Math.toRadians(degrees));
+    }
+
+    private static float sin(float degrees)
+    {
+        return (float)Math.sin(Math.toRadians(degrees));
+    }
+}
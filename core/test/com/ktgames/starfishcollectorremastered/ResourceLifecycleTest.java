@@ -0,0 +1,182 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.ApplicationLogger;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+// Texture lifecycle: what a screen owns is disposed with it, the leak detector reports file textures
+// nobody owns, and shared textures are released while the game is paused and loaded again on the
+// first frame after it resumes.
+
+public class ResourceLifecycleTest
+{
+    private static final String IMAGE = "build/tmp/resource-lifecycle-test.png";
+
+    static class EmptyScreen extends BaseScreen
+    {
+        @Override
+        public void initialize() {}
+
+        @Override
+        public void update(float dt) {}
+    }
+
+    static class CountingResource implements Disposable
+    {
+        int disposed;
+
+        @Override
+        public void dispose()
+        {
+            this.disposed++;
+        }
+    }
+
+    // collects the errors the leak detector logs
+    private final Array<String> errors = new Array<String>();
+    private ApplicationLogger logger;
+
+    private Stage stage;
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+
+        Pixmap pixmap = new Pixmap(4, 4, Pixmap.Format.RGBA8888);
+        PixmapIO.writePNG(Gdx.files.local(IMAGE), pixmap);
+        pixmap.dispose();
+
+        this.logger = Gdx.app.getApplicationLogger();
+        Gdx.app.setApplicationLogger(new ApplicationLogger()
+        {
+            @Override
+            public void log(String tag, String message) {}
+
+            @Override
+            public void log(String tag, String message, Throwable exception) {}
+
+            @Override
+            public void error(String tag, String message)
+            {
+                ResourceLifecycleTest.this.errors.add(message);
+            }
+
+            @Override
+            public void error(String tag, String message, Throwable exception)
+            {
+                ResourceLifecycleTest.this.errors.add(message);
+            }
+
+            @Override
+            public void debug(String tag, String message) {}
+
+            @Override
+            public void debug(String tag, String message, Throwable exception) {}
+        });
+    }
+
+    @After
+    public void tearDown()
+    {
+        Gdx.app.setApplicationLogger(this.logger);
+        LeakDetector.setEnabled(false);
+        BaseGame.setReleaseTexturesOnPause(false);
+
+        this.stage.clear();
+        ActorRegistry.detach(this.stage);
+        AssetRegistry.disposeAll();
+        Gdx.files.local(IMAGE).delete();
+    }
+
+    @Test
+    public void ownedResourcesAreDisposedWithTheScreen()
+    {
+        EmptyScreen screen = new EmptyScreen();
+        screen.own(new Texture(Gdx.files.internal(IMAGE)));
+        CountingResource resource = screen.own(new CountingResource());
+
+        int managed = Texture.getNumManagedTextures();
+        assertEquals(1, screen.getOwnedTextureCount());
+
+        screen.dispose();
+        assertEquals(managed - 1, Texture.getNumManagedTextures());
+        assertEquals(1, resource.disposed);
+
+        // a screen is only disposed once
+        screen.dispose();
+        assertEquals(1, resource.disposed);
+    }
+
+    @Test
+    public void unownedTexturesAreReported()
+    {
+        LeakDetector.setEnabled(true);
+        EmptyScreen disposed = new EmptyScreen();
+        EmptyScreen active = new EmptyScreen();
+
+        Texture leaked = new Texture(Gdx.files.internal(IMAGE));
+        disposed.dispose();
+        LeakDetector.checkScreen(disposed, active, null);
+
+        assertEquals(1, this.errors.size);
+        assertTrue(this.errors.first(), this.errors.first().startsWith("1 textures were not disposed"));
+
+        // once the texture belongs to a screen, nothing is reported
+        this.errors.clear();
+        active.own(leaked);
+        LeakDetector.checkScreen(disposed, active, null);
+        assertEquals(0, this.errors.size);
+
+        active.dispose();
+    }
+
+    @Test
+    public void texturesAreReleasedOnPauseAndRestoredOnResume()
+    {
+        BaseGame game = new BaseGame()
+        {
+            @Override
+            public void create() {}
+        };
+        BaseGame.setReleaseTexturesOnPause(true);
+
+        BaseActor actor = new BaseActor(0, 0, this.stage);
+        actor.loadTexture(IMAGE);
+        TextureRegion image = actor.getStaticImage();
+        Texture loaded = image.getTexture();
+        int managed = Texture.getNumManagedTextures();
+        assertEquals(1, AssetRegistry.getLoadedTextureCount());
+
+        game.pause();
+        assertTrue(AssetRegistry.isReleased());
+        assertEquals(0, AssetRegistry.getLoadedTextureCount());
+        assertEquals(managed - 1, Texture.getNumManagedTextures());
+
+        // textures are loaded again when the game is next drawn, into the images actors already hold
+        game.resume();
+        assertTrue(AssetRegistry.isReleased());
+        game.render();
+
+        assertFalse(AssetRegistry.isReleased());
+        assertEquals(1, AssetRegistry.getLoadedTextureCount());
+        assertEquals(managed, Texture.getNumManagedTextures());
+        assertNotSame(loaded, image.getTexture());
+        assertEquals(image.getTexture(), actor.getStaticImage().getTexture());
+    }
+}
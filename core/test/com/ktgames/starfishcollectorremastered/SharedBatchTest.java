@@ -0,0 +1,77 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// One batch for every screen: the stages of each screen draw with the game's batch, and switching
+// screens neither creates a new batch nor disposes the shared one with the screen it replaced.
+
+public class SharedBatchTest
+{
+    static class DrawnScreen extends BaseScreen
+    {
+        int frames;
+
+        @Override
+        public void initialize() {}
+
+        @Override
+        public void update(float dt)
+        {
+            this.frames++;
+        }
+    }
+
+    private BaseGame game;
+
+    @Before
+    public void setUp()
+    {
+        TestStages.createStage();
+        this.game = new BaseGame()
+        {
+            @Override
+            public void create() {}
+        };
+    }
+
+    @After
+    public void tearDown()
+    {
+        this.game.dispose();
+    }
+
+    @Test
+    public void batchSurvivesAScreenSwitch()
+    {
+        DrawnScreen first = new DrawnScreen();
+        BaseGame.setActiveScreen(first);
+        this.game.render();
+
+        assertSame(BaseGame.getBatch(), first.mainStage.getBatch());
+        assertSame(BaseGame.getBatch(), first.uiStage.getBatch());
+
+        // the batch's shader, and any other created by now; a new batch or a disposed one changes the count
+        int shaders = ShaderProgram.getNumManagedShaderPrograms();
+
+        DrawnScreen second = new DrawnScreen();
+        BaseGame.setActiveScreen(second);
+
+        // the first screen is disposed on the next frame, which the second screen draws with the same batch
+        this.game.render();
+        this.game.render();
+
+        assertSame(first.mainStage.getBatch(), second.mainStage.getBatch());
+        assertSame(BaseGame.getBatch(), second.uiStage.getBatch());
+        assertEquals(2, second.frames);
+        assertEquals(shaders, ShaderProgram.getNumManagedShaderPrograms());
+        assertTrue(shaders > 0);
+    }
+}
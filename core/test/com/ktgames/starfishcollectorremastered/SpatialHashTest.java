@@ -0,0 +1,144 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// Broadphase queries: neighbours are found, the actor itself and far actors are not, including actors
+// whose cell coordinates differ by a multiple of 65536, actors inside groups are indexed too, and only
+// actors of the asked type (or a subclass) are returned.
+
+public class SpatialHashTest
+{
+    private static final float CELL_SIZE = 10;
+
+    static class Marker extends BaseActor
+    {
+        Marker(float x, float y, Stage stage)
+        {
+            super(x, y, stage);
+            this.setSize(8, 8);
+            this.setBoundaryRectangle();
+        }
+    }
+
+    private Stage stage;
+    private final Array<BaseActor> results = new Array<BaseActor>();
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+    }
+
+    @After
+    public void tearDown()
+    {
+        SpatialHash.detach(this.stage);
+    }
+
+    @Test
+    public void findsNeighboursOnly()
+    {
+        SpatialHash.attach(this.stage, CELL_SIZE);
+
+        BaseActor actor = TestStages.createActor(100, 100, 8, 8, this.stage);
+        BaseActor neighbour = TestStages.createActor(106, 100, 8, 8, this.stage);
+        BaseActor far = TestStages.createActor(400, 100, 8, 8, this.stage);
+
+        actor.getOverlapCandidates(BaseActor.class, this.results);
+
+        assertTrue(this.results.contains(neighbour, true));
+        assertFalse(this.results.contains(actor, true));
+        assertFalse(this.results.contains(far, true));
+    }
+
+    @Test
+    public void followsMovingActors()
+    {
+        SpatialHash.attach(this.stage, CELL_SIZE);
+
+        BaseActor actor = TestStages.createActor(100, 100, 8, 8, this.stage);
+        BaseActor other = TestStages.createActor(400, 100, 8, 8, this.stage);
+
+        other.setPosition(104, 104);
+        actor.getOverlapCandidates(BaseActor.class, this.results);
+        assertTrue(this.results.contains(other, true));
+
+        other.setPosition(400, 100);
+        actor.getOverlapCandidates(BaseActor.class, this.results);
+        assertFalse(this.results.contains(other, true));
+    }
+
+    @Test
+    public void distantCellsDoNotShareAKey()
+    {
+        SpatialHash.attach(this.stage, CELL_SIZE);
+
+        // 65536 cells to the right and above: the same cell if coordinates were packed in 16 bits each
+        float far = 65536 * CELL_SIZE;
+        BaseActor actor = TestStages.createActor(100, 100, 8, 8, this.stage);
+        BaseActor farRight = TestStages.createActor(100 + far, 100, 8, 8, this.stage);
+        BaseActor farUp = TestStages.createActor(100, 100 + far, 8, 8, this.stage);
+        BaseActor farBelow = TestStages.createActor(100, 100 - far, 8, 8, this.stage);
+
+        actor.getOverlapCandidates(BaseActor.class, this.results);
+
+        assertEquals(0, this.results.size);
+        assertEquals(4, SpatialHash.get(this.stage).getActorCount());
+
+        farRight.getOverlapCandidates(BaseActor.class, this.results);
+        assertFalse(this.results.contains(actor, true));
+        farUp.getOverlapCandidates(BaseActor.class, this.results);
+        assertFalse(this.results.contains(actor, true));
+        farBelow.getOverlapCandidates(BaseActor.class, this.results);
+        assertFalse(this.results.contains(actor, true));
+    }
+
+    @Test
+    public void indexesActorsInsideGroups()
+    {
+        Group outer = new Group();
+        Group inner = new Group();
+        outer.addActor(inner);
+        this.stage.addActor(outer);
+
+        BaseActor actor = TestStages.createActor(100, 100, 8, 8, this.stage);
+        BaseActor grouped = TestStages.createActor(104, 100, 8, 8, this.stage);
+        inner.addActor(grouped);
+
+        // attached after the actors joined the stage
+        SpatialHash hash = SpatialHash.attach(this.stage, CELL_SIZE);
+
+        assertEquals(2, hash.getActorCount());
+        actor.getOverlapCandidates(BaseActor.class, this.results);
+        assertTrue(this.results.contains(grouped, true));
+    }
+
+    @Test
+    public void filtersByType()
+    {
+        SpatialHash.attach(this.stage, CELL_SIZE);
+
+        BaseActor actor = TestStages.createActor(100, 100, 8, 8, this.stage);
+        BaseActor plain = TestStages.createActor(104, 100, 8, 8, this.stage);
+        Marker marker = new Marker(100, 104, this.stage);
+
+        Array<Marker> markers = new Array<Marker>();
+        actor.getOverlapCandidates(Marker.class, markers);
+        assertEquals(1, markers.size);
+        assertTrue(markers.contains(marker, true));
+
+        actor.getOverlapCandidates(BaseActor.class, this.results);
+        assertTrue(this.results.contains(plain, true));
+        assertTrue(this.results.contains(marker, true));
+    }
+}
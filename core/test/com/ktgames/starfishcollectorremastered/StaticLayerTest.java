@@ -0,0 +1,112 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+// Layers share one cache: a change to one layer only rewrites that layer's part, while a layer
+// outgrowing its part, or reloaded textures, rewrite every layer.
+
+public class StaticLayerTest
+{
+    private Stage first;
+    private Stage second;
+    private Texture texture;
+    private Animation<TextureRegion> image;
+
+    @Before
+    public void setUp()
+    {
+        this.first = TestStages.createStage();
+        this.second = TestStages.createStage();
+        this.texture = TestStages.createTexture(16, 16);
+        this.image = new Animation<TextureRegion>(1, new TextureRegion(this.texture));
+
+        this.addStatic(this.first, 2);
+        this.addStatic(this.second, 2);
+        this.draw();
+    }
+
+    @After
+    public void tearDown()
+    {
+        StaticLayer.detach(this.first);
+        StaticLayer.detach(this.second);
+        ActorRegistry.detach(this.first);
+        ActorRegistry.detach(this.second);
+        this.texture.dispose();
+    }
+
+    @Test
+    public void changeRewritesOnlyItsLayer()
+    {
+        StaticLayer firstLayer = StaticLayer.find(this.first);
+        StaticLayer secondLayer = StaticLayer.find(this.second);
+        assertEquals(1, firstLayer.getRebuildCount());
+        assertEquals(1, secondLayer.getRebuildCount());
+
+        BaseActor.getList(this.first, BaseActor.class).first().moveBy(10, 0);
+        this.addStatic(this.first, 3);
+        this.draw();
+
+        assertEquals(2, firstLayer.getRebuildCount());
+        assertEquals(5, firstLayer.getCachedCount());
+        assertEquals(1, secondLayer.getRebuildCount());
+
+        // unchanged layers are not written again
+        this.draw();
+        assertEquals(2, firstLayer.getRebuildCount());
+    }
+
+    @Test
+    public void outgrowingItsPartRewritesEveryLayer()
+    {
+        // room was left for at least 16 more
+        this.addStatic(this.first, 40);
+        this.draw();
+
+        assertEquals(2, StaticLayer.find(this.first).getRebuildCount());
+        assertEquals(42, StaticLayer.find(this.first).getCachedCount());
+        assertEquals(2, StaticLayer.find(this.second).getRebuildCount());
+
+        // the new part has room to spare again
+        this.addStatic(this.first, 16);
+        this.draw();
+        assertEquals(3, StaticLayer.find(this.first).getRebuildCount());
+        assertEquals(2, StaticLayer.find(this.second).getRebuildCount());
+    }
+
+    @Test
+    public void reloadedTexturesRewriteEveryLayer()
+    {
+        StaticLayer.invalidateAll();
+        this.draw();
+
+        assertEquals(2, StaticLayer.find(this.first).getRebuildCount());
+        assertEquals(2, StaticLayer.find(this.second).getRebuildCount());
+    }
+
+    private void addStatic(Stage stage, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            BaseActor actor = new BaseActor(20 * i, 0, stage);
+            actor.setAnimation(this.image);
+            actor.setStatic(true);
+        }
+    }
+
+    // draws just the layers, as the test batch has no transform for the stage to draw groups with
+    private void draw()
+    {
+        StaticLayer.find(this.first).draw(this.first.getBatch(), 1);
+        StaticLayer.find(this.second).draw(this.second.getBatch(), 1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.IntArray;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Swarm collision: the grid never misses a member that overlaps an actor, compared against testing
+// every member, including members at negative coordinates and members that spun and moved.
+
+public class SwarmTest
+{
+    private static final String STARFISH =
+            "/Users/katherineohalloran/Documents/GameDev/libGDX-Learning/Starfish-Collector-Remastered/core/assets/NPCs/starfish.png";
+
+    private Stage stage;
+    private Swarm swarm;
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+        TestAssets.addAtlas();
+        MathUtils.random.setSeed(17);
+
+        this.swarm = new Swarm(this.stage, 16);
+        this.swarm.loadTexture(STARFISH);
+    }
+
+    @After
+    public void tearDown()
+    {
+        this.stage.clear();
+        ActorRegistry.detach(this.stage);
+        AssetRegistry.disposeAll();
+    }
+
+    @Test
+    public void candidatesIncludeEveryOverlappingMember()
+    {
+        for (int i = 0; i < 2000; i++)
+        {
+            this.swarm.addMember(MathUtils.random(-1000f, 1000f), MathUtils.random(-1000f, 1000f),
+                    MathUtils.random(-50f, 50f), MathUtils.random(-50f, 50f), MathUtils.random(-90f, 90f));
+        }
+        this.swarm.act(0.5f);
+
+        BaseActor probe = TestStages.createActor(0, 0, 1, 1, this.stage);
+        IntArray candidates = new IntArray();
+        int overlapping = 0;
+
+        for (int n = 0; n < 500; n++)
+        {
+            probe.setSize(MathUtils.random(1f, 200f), MathUtils.random(1f, 200f));
+            probe.setBoundaryRectangle();
+            probe.setPosition(MathUtils.random(-1100f, 1000f), MathUtils.random(-1100f, 1000f));
+
+            this.swarm.getOverlapCandidates(probe, candidates);
+
+            for (int i = 0; i < this.swarm.getMemberCount(); i++)
+            {
+                if (this.swarm.overlaps(probe, i))
+                {
+                    assertTrue("member " + i + " missed", candidates.contains(i));
+                    overlapping++;
+                }
+            }
+
+            // each member at most once
+            for (int k = 0; k < candidates.size; k++)
+            {
+                assertEquals(k, candidates.indexOf(candidates.get(k)));
+            }
+        }
+
+        // the probes did hit members, so the comparison above means something
+        assertTrue(overlapping > 100);
+    }
+
+    @Test
+    public void candidatesFollowMovedAndRemovedMembers()
+    {
+        int a = this.swarm.addMember(0, 0, 0, 0, 0);
+        this.swarm.addMember(500, 500, 0, 0, 0);
+
+        BaseActor probe = TestStages.createActor(500, 500, 10, 10, this.stage);
+        IntArray candidates = new IntArray();
+
+        this.swarm.getOverlapCandidates(probe, candidates);
+        assertEquals(1, candidates.size);
+
+        this.swarm.setMemberPosition(a, 505, 505);
+        this.swarm.getOverlapCandidates(probe, candidates);
+        assertEquals(2, candidates.size);
+
+        // the last member takes the removed one's index
+        this.swarm.removeMember(a);
+        this.swarm.getOverlapCandidates(probe, candidates);
+        assertEquals(1, candidates.size);
+        assertEquals(500, this.swarm.getMemberX(candidates.get(0)), 0);
+    }
+}
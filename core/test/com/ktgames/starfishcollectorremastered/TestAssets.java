@@ -0,0 +1,60 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+
+// Images for tests of actors that load their own (Turtle, Rock, Starfish). Their image files are not
+// there when tests run, so a small atlas holding every image the game names is written and added to
+// AssetRegistry instead; an image in an atlas is loaded from it, whatever folder its file is in.
+
+public class TestAssets
+{
+    // width and height of every image in the atlas
+    public static final int IMAGE_SIZE = 64;
+
+    public static final String ATLAS = "build/tmp/test-assets.atlas";
+    private static final String PAGE = "test-assets.png";
+
+    private static final String[] REGIONS = {
+            "NPCs/rock", "NPCs/starfish", "NPCs/Whirlpool/whirlpool", "Messages/you-win",
+            "Turtle/turtle-1", "Turtle/turtle-2", "Turtle/turtle-3",
+            "Turtle/turtle-4", "Turtle/turtle-5", "Turtle/turtle-6" };
+
+    private static boolean added;
+
+    private TestAssets() {}
+
+    /**
+     * Writes the atlas (once) and adds it to AssetRegistry; call after TestStages.createStage.
+     */
+    public static synchronized void addAtlas()
+    {
+        if (added)
+        {
+            return;
+        }
+
+        Pixmap pixmap = new Pixmap(IMAGE_SIZE, IMAGE_SIZE, Pixmap.Format.RGBA8888);
+        PixmapIO.writePNG(Gdx.files.local(ATLAS).sibling(PAGE), pixmap);
+        pixmap.dispose();
+
+        // every region covers the whole page
+        StringBuilder atlas = new StringBuilder();
+        atlas.append('\n').append(PAGE).append('\n')
+                .append("size: ").append(IMAGE_SIZE).append(',').append(IMAGE_SIZE).append('\n')
+                .append("format: RGBA8888\nfilter: Nearest,Nearest\nrepeat: none\n");
+        for (String region : REGIONS)
+        {
+            atlas.append(region).append('\n')
+                    .append("  rotate: false\n  xy: 0, 0\n")
+                    .append("  size: ").append(IMAGE_SIZE).append(", ").append(IMAGE_SIZE).append('\n')
+                    .append("  orig: ").append(IMAGE_SIZE).append(", ").append(IMAGE_SIZE).append('\n')
+                    .append("  offset: 0, 0\n  index: -1\n");
+        }
+        Gdx.files.local(ATLAS).writeString(atlas.toString(), false);
+
+        AssetRegistry.addAtlas(ATLAS);
+        added = true;
+    }
+}
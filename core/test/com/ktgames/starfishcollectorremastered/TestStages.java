@@ -0,0 +1,131 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+// Stages and actors for tests, which run headlessly without an OpenGL context.
+// The headless backend is started on first use, with GL calls that do nothing, and stages get a batch
+// that draws nothing. Actors get a size but no texture, which is all physics and collision need;
+// tests of drawing can make textures, which hold their pixels in memory only.
+
+public class TestStages
+{
+    private static HeadlessApplication application;
+
+    // answers every call with zero, false or null
+    private static final InvocationHandler NOTHING = new InvocationHandler()
+    {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+        {
+            return nothing(method);
+        }
+    };
+
+    // answers GL calls like NOTHING, except that shaders and programs are created, compile and link,
+    // so a SpriteBatch or SpriteCache can be made, and textures and buffers get handles, so disposing them works
+    private static final InvocationHandler GL = new InvocationHandler()
+    {
+        private int handles;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+        {
+            String name = method.getName();
+            if (name.equals("glCreateShader") || name.equals("glCreateProgram"))
+            {
+                return 1;
+            }
+            if (name.startsWith("glGen") && method.getReturnType() == int.class)
+            {
+                return ++this.handles;
+            }
+            if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv"))
+            {
+                int status = (Integer)args[1];
+                ((IntBuffer)args[2]).put(0, (status == GL20.GL_COMPILE_STATUS || status == GL20.GL_LINK_STATUS) ? 1 : 0);
+                return null;
+            }
+            return nothing(method);
+        }
+    };
+
+    private static Object nothing(Method method)
+    {
+        Class<?> type = method.getReturnType();
+        if (type == int.class) return 0;
+        if (type == float.class) return 0f;
+        if (type == long.class) return 0L;
+        if (type == boolean.class) return false;
+        return null;
+    }
+
+    private TestStages() {}
+
+    /**
+     * Creates an empty stage backed by the headless backend (started on first use).
+     * @return new stage
+     */
+    public static synchronized Stage createStage()
+    {
+        if (application == null)
+        {
+            HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+            // no render loop is needed; tests call into the engine directly
+            config.renderInterval = -1;
+            application = new HeadlessApplication(new ApplicationAdapter() {}, config);
+
+            Gdx.gl = Gdx.gl20 = (GL20)Proxy.newProxyInstance(GL20.class.getClassLoader(),
+                    new Class<?>[] { GL20.class }, GL);
+        }
+
+        Batch batch = (Batch)Proxy.newProxyInstance(Batch.class.getClassLoader(),
+                new Class<?>[] { Batch.class }, NOTHING);
+        return new Stage(new ScreenViewport(), batch);
+    }
+
+    /**
+     * Creates a texture-less actor of the given size, rotating about its center.
+     * @param x: x-coordinate of actor
+     * @param y: y-coordinate of actor
+     * @param width: width of actor
+     * @param height: height of actor
+     * @param stage: stage the actor is added to
+     * @return new actor, still with the default (rectangle) collision polygon
+     */
+    public static BaseActor createActor(float x, float y, float width, float height, Stage stage)
+    {
+        BaseActor actor = new BaseActor(x, y, stage);
+        actor.setSize(width, height);
+        actor.setOrigin(width / 2, height / 2);
+        actor.setBoundaryRectangle();
+        return actor;
+    }
+
+    /**
+     * Creates a texture of the given size (the headless backend must have been started by createStage).
+     * @param width: width of texture
+     * @param height: height of texture
+     * @return new texture; dispose it when done
+     */
+    public static Texture createTexture(int width, int height)
+    {
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        Texture texture = new Texture(pixmap);
+        pixmap.dispose();
+        return texture;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ktgames.starfishcollectorremastered;
+
+import com.badlogic.gdx.scenes.scene2d.Stage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// Fast movement: a turtle moving further than its own size in one step is stopped where it first
+// touches a rock instead of tunnelling through it, while slow steps are left to the usual overlap checks.
+
+public class TurtleSweepTest
+{
+    private Stage stage;
+    private Turtle turtle;
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+        TestAssets.addAtlas();
+        BaseActor.setWorldBounds(5000, 5000);
+
+        this.turtle = new Turtle(0, 100, this.stage);
+        this.turtle.setMaxSpeed(1000);
+        this.turtle.setDeceleration(0);
+    }
+
+    @After
+    public void tearDown()
+    {
+        this.stage.clear();
+        StaticLayer.detach(this.stage);
+        ActorRegistry.detach(this.stage);
+        AssetRegistry.disposeAll();
+    }
+
+    @Test
+    public void timeOfImpactFindsTheFirstTouch()
+    {
+        BaseActor rock = TestStages.createActor(500, 100, 64, 64, this.stage);
+        BaseActor mover = TestStages.createActor(0, 100, 64, 64, this.stage);
+
+        mover.setMaxSpeed(1000);
+        mover.setSpeed(1000);
+        mover.setMotionAngle(0);
+        mover.applyPhysics(1);
+
+        // the boxes touch once the mover has come 436 of its 1000 pixels
+        assertEquals(0.436f, mover.timeOfImpact(rock), 0.001f);
+
+        // a rock left behind, or one the step never reached, was not touched
+        BaseActor behind = TestStages.createActor(-200, 100, 64, 64, this.stage);
+        BaseActor above = TestStages.createActor(500, 400, 64, 64, this.stage);
+        assertEquals(-1, mover.timeOfImpact(behind), 0);
+        assertEquals(-1, mover.timeOfImpact(above), 0);
+    }
+
+    @Test
+    public void fastTurtleStopsAtTheRock()
+    {
+        Rock rock = new Rock(500, 100, this.stage);
+
+        // 1000 pixels in one step, far more than the turtle's size and the rock's
+        this.turtle.setSpeed(1000);
+        this.turtle.setMotionAngle(0);
+        this.turtle.act(1);
+
+        assertTrue(this.turtle.isFastStep());
+        assertTrue("tunnelled through the rock to " + this.turtle.getX(), this.turtle.getX() < rock.getX());
+        assertTrue("stopped short at " + this.turtle.getX(),
+                this.turtle.getX() + this.turtle.getWidth() > rock.getX());
+    }
+
+    @Test
+    public void slowStepSkipsTheSweep()
+    {
+        // starts just clear of the rock's polygon and moves 10 pixels into it
+        new Rock(70, 100, this.stage);
+
+        this.turtle.setSpeed(10);
+        this.turtle.setMotionAngle(0);
+        this.turtle.act(1);
+
+        assertFalse(this.turtle.isFastStep());
+
+        // not rewound: pushing the turtle out of the rock is left to preventOverlap
+        assertEquals(10, this.turtle.getX(), 0.001f);
+    }
+}
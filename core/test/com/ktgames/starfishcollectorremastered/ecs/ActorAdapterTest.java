@@ -0,0 +1,113 @@
+package com.ktgames.starfishcollectorremastered.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.ktgames.starfishcollectorremastered.ActorRegistry;
+import com.ktgames.starfishcollectorremastered.AssetRegistry;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import com.ktgames.starfishcollectorremastered.Rock;
+import com.ktgames.starfishcollectorremastered.Starfish;
+import com.ktgames.starfishcollectorremastered.StaticLayer;
+import com.ktgames.starfishcollectorremastered.TestAssets;
+import com.ktgames.starfishcollectorremastered.TestStages;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// Adopting actors: each becomes an entity with the same position, size and animation, and the
+// components and flags that give it the actor's behaviour, and the actor leaves the stage.
+
+public class ActorAdapterTest
+{
+    private Stage stage;
+    private EcsWorld world;
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+        TestAssets.addAtlas();
+        this.world = new EcsWorld(this.stage, 16);
+    }
+
+    @After
+    public void tearDown()
+    {
+        this.stage.clear();
+        StaticLayer.detach(this.stage);
+        ActorRegistry.detach(this.stage);
+        AssetRegistry.disposeAll();
+    }
+
+    @Test
+    public void starfishBecomesASpinningCollectible()
+    {
+        Starfish starfish = new Starfish(40, 60, this.stage);
+
+        Entity entity = ActorAdapter.adopt(starfish, this.world);
+        BodyArrays b = this.world.getBodies();
+        int i = this.world.indexOf(entity);
+
+        Collectible collectible = entity.getComponent(Collectible.class);
+        assertNotNull(collectible);
+        assertFalse(collectible.collected);
+        assertNull(entity.getComponent(Lifetime.class));
+
+        assertEquals(40, b.x[i], 0);
+        assertEquals(60, b.y[i], 0);
+        assertEquals(starfish.getWidth(), b.width[i], 0);
+        assertEquals(starfish.getHeight(), b.height[i], 0);
+        assertEquals(30, b.spin[i], 0);
+        assertEquals(0, b.flags[i] & BodyArrays.SOLID);
+        assertEquals(ActorAdapter.PROP_LAYER, b.layer[i]);
+        assertSame(starfish.getAnimation(), b.animation[i]);
+
+        assertNull(starfish.getStage());
+        assertEquals(0, BaseActor.count(this.stage, Starfish.class));
+    }
+
+    @Test
+    public void collectedStarfishFadesOut()
+    {
+        Starfish starfish = new Starfish(40, 60, this.stage);
+        starfish.collect();
+
+        Entity entity = ActorAdapter.adopt(starfish, this.world);
+
+        assertTrue(entity.getComponent(Collectible.class).collected);
+        assertEquals(0, this.world.getBodies().spin[this.world.indexOf(entity)], 0);
+        assertEquals(1, entity.getComponent(Lifetime.class).fadeDuration, 0);
+    }
+
+    @Test
+    public void adoptsEveryKnownActorOnTheStage()
+    {
+        new Starfish(0, 0, this.stage);
+        new Starfish(100, 0, this.stage);
+        new Rock(200, 0, this.stage);
+        BaseActor other = TestStages.createActor(300, 0, 8, 8, this.stage);
+
+        assertEquals(3, ActorAdapter.adopt(this.stage, this.world));
+        assertEquals(3, this.world.getEntityCount());
+
+        // the rock is solid and not collectible; unknown actors stay on the stage
+        int solid = 0;
+        for (int i = 0; i < this.world.getEntityCount(); i++)
+        {
+            if ((this.world.getBodies().flags[i] & BodyArrays.SOLID) != 0)
+            {
+                solid++;
+            }
+        }
+        assertEquals(1, solid);
+        assertSame(this.stage, other.getStage());
+    }
+}
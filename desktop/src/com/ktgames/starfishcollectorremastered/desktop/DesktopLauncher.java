@@ -2,6 +2,9 @@ package com.ktgames.starfishcollectorremastered.desktop;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
+import com.ktgames.starfishcollectorremastered.GameInput;
+import com.ktgames.starfishcollectorremastered.LeakDetector;
+import com.ktgames.starfishcollectorremastered.ParallelAct;
 import com.ktgames.starfishcollectorremastered.StarfishGame;
 
 public class DesktopLauncher {
@@ -11,6 +14,26 @@ public class DesktopLauncher {
 		// 1) Creates an instance of the game
 		// 2) Creates a new application with the game instance and window settings as the parameters
 		Game myGame = new StarfishGame();
+
+		// screens that act in parallel split their thread-safe actors across every core
+		ParallelAct.setExecutor(new ForkJoinActExecutor());
+
+		// --record <file> saves the session's input; --replay <file> plays it back and writes <file>.frames.csv
+		for (int i = 0; i + 1 < arg.length; i++) {
+			if (arg[i].equals("--record")) {
+				GameInput.record(arg[i + 1]);
+			} else if (arg[i].equals("--replay")) {
+				GameInput.replay(arg[i + 1]);
+			}
+		}
+
+		// --detect-leaks (passed by the debug task) reports textures left undisposed when a screen is replaced
+		for (String option : arg) {
+			if (option.equals("--detect-leaks")) {
+				LeakDetector.setEnabled(true);
+			}
+		}
+
 		LwjglApplication launcher = new LwjglApplication(myGame, "Starfish Collector",
 				800, 600);
 	}
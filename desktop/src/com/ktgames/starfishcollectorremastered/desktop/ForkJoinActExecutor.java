@@ -0,0 +1,79 @@
+package com.ktgames.starfishcollectorremastered.desktop;
+
+import com.ktgames.starfishcollectorremastered.ParallelAct;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Splits parallel act passes across a ForkJoinPool with one worker per core.
+// A pass is halved until pieces are small enough, so idle workers steal the remaining halves
+// and uneven actors balance out; passes too small to be worth splitting run on the render thread.
+
+public class ForkJoinActExecutor implements ParallelAct.Executor
+{
+    private final ForkJoinPool pool;
+
+    // fewest actors worth handing to another thread
+    private final int minChunk;
+
+    public ForkJoinActExecutor()
+    {
+        this(Runtime.getRuntime().availableProcessors(), 64);
+    }
+
+    /**
+     * @param parallelism: number of worker threads
+     * @param minChunk: fewest actors acted by one task
+     */
+    public ForkJoinActExecutor(int parallelism, int minChunk)
+    {
+        this.pool = new ForkJoinPool(parallelism);
+        this.minChunk = minChunk;
+    }
+
+    @Override
+    public void execute(int count, ParallelAct.Task task)
+    {
+        if (count <= this.minChunk || this.pool.getParallelism() == 1)
+        {
+            task.run(0, count);
+            return;
+        }
+
+        // a few pieces per worker, so a slow piece does not keep the others waiting
+        int chunk = Math.max(this.minChunk, count / (this.pool.getParallelism() * 4));
+
+        this.pool.invoke(new RangeAction(task, 0, count, chunk));
+    }
+
+    private static class RangeAction extends RecursiveAction
+    {
+        // ForkJoinTask is Serializable, though these tasks are never serialized
+        private static final long serialVersionUID = 1L;
+
+        private final ParallelAct.Task task;
+        private final int from, to, chunk;
+
+        private RangeAction(ParallelAct.Task task, int from, int to, int chunk)
+        {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (this.to - this.from <= this.chunk)
+            {
+                this.task.run(this.from, this.to);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new RangeAction(this.task, this.from, middle, this.chunk),
+                    new RangeAction(this.task, middle, this.to, this.chunk));
+        }
+    }
+}
@@ -10,6 +10,10 @@ public class IOSLauncher extends IOSApplication.Delegate {
     @Override
     protected IOSApplication createApplication() {
         IOSApplicationConfiguration config = new IOSApplicationConfiguration();
+        // older iPhones and iPads share little memory with the GPU
+        AssetRegistry.setTextureBudget(64 * 1024 * 1024);
+        // iOS closes background apps that hold on to memory first
+        BaseGame.setReleaseTexturesOnPause(true);
         return new IOSApplication(new StarfishCollectorRemastered(), config);
     }
 
@@ -0,0 +1,103 @@
+package com.ktgames.starfishcollectorremastered.tools;
+
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+// Packs the sprite images in core/assets into a texture atlas, so actors that draw one after the other
+// share a texture and the SpriteBatch does not flush between them. AssetRegistry looks image files up
+// in the atlas by their path below the assets folder without the extension, e.g. "NPCs/rock" for
+// NPCs/rock.png, and loads files that are not in it as separate textures as before.
+// Run at build time by the packAtlas task: ./gradlew :tools:packAtlas
+//
+// Every .png below the assets folder is packed, whole: spritesheets such as the whirlpool stay one region
+// that AssetRegistry splits into frames. Backgrounds (.jpg) are opaque and drawn once per frame, so they
+// stay separate textures, as does anything already in the output folder.
+
+public class AtlasPacker
+{
+    private AtlasPacker() {}
+
+    /**
+     * Packs the sprites below an assets folder into one atlas.
+     * @param args: assets folder, output folder and atlas name
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 3)
+        {
+            System.err.println("Usage: AtlasPacker <assets dir> <output dir> <atlas name>");
+            System.exit(1);
+        }
+
+        File assetsDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+
+        if (!assetsDir.isDirectory())
+        {
+            throw new IOException("Assets directory not found: " + assetsDir);
+        }
+
+        TexturePacker.Settings settings = new TexturePacker.Settings();
+        // every sprite is used whole, and sheets are split by position, so regions keep their size and orientation
+        settings.rotation = false;
+        settings.stripWhitespaceX = false;
+        settings.stripWhitespaceY = false;
+        settings.maxWidth = 2048;
+        settings.maxHeight = 2048;
+        // BaseActor has always drawn with linear filtering
+        settings.filterMin = TextureFilter.Linear;
+        settings.filterMag = TextureFilter.Linear;
+        // repeat the border pixels into the padding so linear filtering does not blend in a neighbour
+        settings.duplicatePadding = true;
+
+        TexturePacker packer = new TexturePacker(settings);
+        int count = addImages(packer, assetsDir, "", outputDir.getCanonicalFile());
+
+        outputDir.mkdirs();
+        packer.pack(outputDir, args[2]);
+
+        System.out.println("Packed " + count + " images into " + new File(outputDir, args[2] + ".atlas"));
+    }
+
+    // adds the .png files below a folder, named by their path relative to the assets folder
+    private static int addImages(TexturePacker packer, File dir, String prefix, File outputDir) throws IOException
+    {
+        if (dir.getCanonicalFile().equals(outputDir))
+        {
+            return 0;
+        }
+
+        File[] files = dir.listFiles();
+        if (files == null)
+        {
+            return 0;
+        }
+
+        int count = 0;
+        for (File file : files)
+        {
+            String name = file.getName();
+
+            if (file.isDirectory())
+            {
+                count += addImages(packer, file, prefix + name + "/", outputDir);
+            } else if (name.endsWith(".png"))
+            {
+                BufferedImage image = ImageIO.read(file);
+                if (image == null)
+                {
+                    throw new IOException("Not a readable image: " + file);
+                }
+
+                packer.addImage(image, prefix + name.substring(0, name.length() - 4));
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,318 @@
+package com.ktgames.starfishcollectorremastered.tools;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ShortArray;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import com.ktgames.starfishcollectorremastered.LevelLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+// Compiles level sources (text) into the binary files read by LevelLoader.
+// Run at build time by the compileLevels task: ./gradlew :tools:compileLevels
+//
+// A level source has one statement per line; '#' starts a comment.
+//   world <width> <height>                    size of the game world
+//   background <image>                        image stretched over the whole world (optional)
+//   chunks <size> [<tile image>]              stream the world in square chunks around the camera (optional),
+//                                             with the tile image stretched over each chunk
+//   keep <type>                               in a streamed world, create actors of the type at once and never
+//                                             unload them, e.g. the player
+//   shape <type> <width> <height> <sides>     collision polygon for a type, as BaseActor.setBoundaryPolygon
+//                                             would make it for an actor of that size (0 sides: rectangle);
+//                                             'circle', 'capsule' or 'box' instead of a number of sides gives
+//                                             each actor of the type that collider, fitted to its size
+//   actor <type> <x> <y>                      one actor, created in the order listed
+
+public class LevelCompiler
+{
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private LevelCompiler() {}
+
+    /**
+     * Compiles every .txt level source in a directory.
+     * @param args: source directory and output directory
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            System.err.println("Usage: LevelCompiler <source dir> <output dir>");
+            System.exit(1);
+        }
+
+        File sourceDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+        outputDir.mkdirs();
+
+        File[] sources = sourceDir.listFiles();
+        if (sources == null)
+        {
+            throw new IOException("Level source directory not found: " + sourceDir);
+        }
+
+        for (File source : sources)
+        {
+            String name = source.getName();
+            if (!name.endsWith(".txt"))
+            {
+                continue;
+            }
+
+            String text = new String(Files.readAllBytes(source.toPath()), UTF8);
+            byte[] compiled = compile(text, name);
+
+            File output = new File(outputDir, name.substring(0, name.length() - 4) + ".bin");
+            OutputStream out = new FileOutputStream(output);
+            try
+            {
+                out.write(compiled);
+            } finally
+            {
+                out.close();
+            }
+
+            System.out.println("Compiled " + name + " -> " + output.getName() + " (" + compiled.length + " bytes)");
+        }
+    }
+
+    /**
+     * Compiles one level source.
+     * @param source: text of the level source
+     * @param sourceName: name used in error messages
+     * @return contents of the compiled level file
+     */
+    public static byte[] compile(String source, String sourceName)
+    {
+        float worldWidth = 0;
+        float worldHeight = 0;
+        String background = "";
+        float chunkSize = 0;
+        String tile = "";
+
+        // actor types in order of first use, with their shapes (if given)
+        ObjectIntMap<String> typeIndices = new ObjectIntMap<String>();
+        Array<String> typeNames = new Array<String>();
+        Array<float[]> typeSizes = new Array<float[]>();
+        ByteArray typeShapes = new ByteArray();
+        Array<float[]> typeVertices = new Array<float[]>();
+        BooleanArray typeKept = new BooleanArray();
+
+        // actors as parallel arrays of types and x,y positions
+        ShortArray actorTypes = new ShortArray();
+        FloatArray actorPositions = new FloatArray();
+
+        String[] lines = source.split("\r?\n");
+
+        for (int lineNumber = 1; lineNumber <= lines.length; lineNumber++)
+        {
+            String line = lines[lineNumber - 1];
+
+            int comment = line.indexOf('#');
+            if (comment >= 0)
+            {
+                line = line.substring(0, comment);
+            }
+
+            line = line.trim();
+            if (line.length() == 0)
+            {
+                continue;
+            }
+
+            String[] words = line.split("\\s+");
+            String where = sourceName + ":" + lineNumber + ": ";
+
+            if (words[0].equals("world"))
+            {
+                expectWords(words, 3, where);
+                worldWidth = parseFloat(words[1], where);
+                worldHeight = parseFloat(words[2], where);
+            } else if (words[0].equals("background"))
+            {
+                expectWords(words, 2, where);
+                background = words[1];
+            } else if (words[0].equals("chunks"))
+            {
+                if (words.length != 2 && words.length != 3)
+                {
+                    throw new GdxRuntimeException(where + "'chunks' takes a size and an optional tile image");
+                }
+                chunkSize = parseFloat(words[1], where);
+                tile = (words.length == 3) ? words[2] : "";
+
+                if (chunkSize <= 0)
+                {
+                    throw new GdxRuntimeException(where + "chunk size must be positive");
+                }
+            } else if (words[0].equals("keep"))
+            {
+                expectWords(words, 2, where);
+                int type = typeIndex(words[1], typeIndices, typeNames, typeSizes, typeShapes, typeVertices, typeKept);
+                typeKept.set(type, true);
+            } else if (words[0].equals("shape"))
+            {
+                expectWords(words, 5, where);
+                int type = typeIndex(words[1], typeIndices, typeNames, typeSizes, typeShapes, typeVertices, typeKept);
+
+                float width = parseFloat(words[2], where);
+                float height = parseFloat(words[3], where);
+                typeSizes.set(type, new float[] {width, height});
+
+                if (words[4].equals("circle"))
+                {
+                    typeShapes.set(type, LevelLoader.SHAPE_CIRCLE);
+                } else if (words[4].equals("capsule"))
+                {
+                    typeShapes.set(type, LevelLoader.SHAPE_CAPSULE);
+                } else if (words[4].equals("box"))
+                {
+                    typeShapes.set(type, LevelLoader.SHAPE_BOX);
+                } else
+                {
+                    int sides = (int)parseFloat(words[4], where);
+
+                    if (sides != 0 && sides < 3)
+                    {
+                        throw new GdxRuntimeException(where + "a polygon needs at least 3 sides");
+                    }
+
+                    typeShapes.set(type, LevelLoader.SHAPE_POLYGON);
+                    typeVertices.set(type, boundaryVertices(width, height, sides));
+                }
+            } else if (words[0].equals("actor"))
+            {
+                expectWords(words, 4, where);
+                int type = typeIndex(words[1], typeIndices, typeNames, typeSizes, typeShapes, typeVertices, typeKept);
+                actorTypes.add(type);
+                actorPositions.add(parseFloat(words[2], where));
+                actorPositions.add(parseFloat(words[3], where));
+            } else
+            {
+                throw new GdxRuntimeException(where + "unknown statement '" + words[0] + "'");
+            }
+        }
+
+        if (worldWidth <= 0 || worldHeight <= 0)
+        {
+            throw new GdxRuntimeException(sourceName + ": missing 'world <width> <height>'");
+        }
+
+        // -- write --
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + actorTypes.size * 10);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try
+        {
+            out.writeInt(LevelLoader.MAGIC);
+            out.writeShort(LevelLoader.VERSION);
+
+            out.writeFloat(worldWidth);
+            out.writeFloat(worldHeight);
+            out.writeUTF(background);
+            out.writeFloat(chunkSize);
+            out.writeUTF(tile);
+
+            out.writeShort(typeNames.size);
+            for (int t = 0; t < typeNames.size; t++)
+            {
+                out.writeUTF(typeNames.get(t));
+                out.writeBoolean(typeKept.get(t));
+
+                float[] size = typeSizes.get(t);
+                out.writeFloat(size[0]);
+                out.writeFloat(size[1]);
+                out.writeByte(typeShapes.get(t));
+
+                float[] vertices = typeVertices.get(t);
+                out.writeShort(vertices.length / 2);
+                for (float v : vertices)
+                {
+                    out.writeFloat(v);
+                }
+            }
+
+            out.writeInt(actorTypes.size);
+            for (int i = 0; i < actorTypes.size; i++)
+            {
+                out.writeShort(actorTypes.get(i));
+                out.writeFloat(actorPositions.get(2 * i));
+                out.writeFloat(actorPositions.get(2 * i + 1));
+            }
+
+            out.close();
+        } catch (IOException e)
+        {
+            // writing to memory does not fail
+            throw new GdxRuntimeException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Same vertices BaseActor.setBoundaryPolygon (or setBoundaryRectangle, for 0 sides) calculates for an actor of the given size.
+     */
+    static float[] boundaryVertices(float w, float h, int sides)
+    {
+        if (sides == 0)
+        {
+            return new float[] {0,0, w,0, w,h, 0,h};
+        }
+
+        return BaseActor.ellipseVertices(w, h, sides);
+    }
+
+    private static int typeIndex(String name, ObjectIntMap<String> typeIndices, Array<String> typeNames,
+                                 Array<float[]> typeSizes, ByteArray typeShapes, Array<float[]> typeVertices,
+                                 BooleanArray typeKept)
+    {
+        int index = typeIndices.get(name, -1);
+
+        if (index < 0)
+        {
+            index = typeNames.size;
+            typeIndices.put(name, index);
+            typeNames.add(name);
+
+            // no shape: the actor keeps the polygon its constructor makes
+            typeSizes.add(new float[] {0, 0});
+            typeShapes.add(LevelLoader.SHAPE_POLYGON);
+            typeVertices.add(new float[0]);
+            typeKept.add(false);
+        }
+
+        return index;
+    }
+
+    private static void expectWords(String[] words, int count, String where)
+    {
+        if (words.length != count)
+        {
+            throw new GdxRuntimeException(where + "'" + words[0] + "' takes " + (count - 1) + " values");
+        }
+    }
+
+    private static float parseFloat(String word, String where)
+    {
+        try
+        {
+            return Float.parseFloat(word);
+        } catch (NumberFormatException e)
+        {
+            throw new GdxRuntimeException(where + "not a number: " + word);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ktgames.starfishcollectorremastered.tools;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+// Applies the texture policy in core/textures.txt: compresses the images it lists as etc1 into libGDX's
+// zipped ETC1 files (.etc1), and writes the policy AssetRegistry reads at runtime next to them.
+// Run at build time by the compressTextures task: ./gradlew :tools:compressTextures
+//
+// The policy has one image per line; '#' starts a comment.
+//   <image> <format> <mipmaps|nomipmaps>
+// The image is a path below the assets folder. Formats:
+//   etc1   opaque images only: compressed to ETC1 (4 bits per pixel) here, and loaded from the original
+//          file as RGB565 (16 bits per pixel) where the GPU cannot decode ETC1, such as on iOS and desktop
+//   rgba   loaded from the original file as RGBA8888 (32 bits per pixel), for images with transparency
+// Mipmaps only help images drawn smaller than their size, and cost a third more memory. They are built
+// when the texture is loaded, which compressed textures cannot do, so etc1 images cannot have them.
+// Images that are not listed load as RGBA8888 without mipmaps.
+
+public class TextureCompressor
+{
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private TextureCompressor() {}
+
+    /**
+     * Compresses the images of a texture policy.
+     * @param args: policy file, assets directory and output directory
+     */
+    public static void main(String[] args) throws Exception
+    {
+        if (args.length != 3)
+        {
+            System.err.println("Usage: TextureCompressor <policy file> <assets dir> <output dir>");
+            System.exit(1);
+        }
+
+        File policyFile = new File(args[0]);
+        File assetsDir = new File(args[1]);
+        File outputDir = new File(args[2]);
+        outputDir.mkdirs();
+
+        // the ETC1 encoder and image decoders are native
+        GdxNativesLoader.load();
+
+        String[] lines = new String(Files.readAllBytes(policyFile.toPath()), UTF8).split("\r?\n");
+        StringBuilder policy = new StringBuilder();
+        int compressed = 0;
+
+        for (int n = 0; n < lines.length; n++)
+        {
+            String line = lines[n];
+            int comment = line.indexOf('#');
+            if (comment >= 0)
+            {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.length() == 0)
+            {
+                continue;
+            }
+
+            String[] words = line.split("\\s+");
+            String where = policyFile.getName() + ":" + (n + 1);
+
+            if (words.length != 3)
+            {
+                throw new IOException(where + ": expected <image> <format> <mipmaps|nomipmaps>");
+            }
+            if (!words[1].equals("etc1") && !words[1].equals("rgba"))
+            {
+                throw new IOException(where + ": unknown format " + words[1]);
+            }
+            if (!words[2].equals("mipmaps") && !words[2].equals("nomipmaps"))
+            {
+                throw new IOException(where + ": expected mipmaps or nomipmaps, not " + words[2]);
+            }
+
+            if (words[1].equals("etc1") && words[2].equals("mipmaps"))
+            {
+                throw new IOException(where + ": etc1 images cannot have mipmaps");
+            }
+
+            File image = new File(assetsDir, words[0]);
+            if (!image.isFile())
+            {
+                throw new IOException(where + ": image not found: " + image);
+            }
+
+            if (words[1].equals("etc1"))
+            {
+                File output = new File(outputDir, compressedName(words[0]));
+                output.getParentFile().mkdirs();
+                compress(image, output);
+                compressed++;
+            }
+
+            policy.append(words[0]).append(' ').append(words[1]).append(' ').append(words[2]).append('\n');
+        }
+
+        OutputStream out = new FileOutputStream(new File(outputDir, "textures.txt"));
+        try
+        {
+            out.write(policy.toString().getBytes(UTF8));
+        } finally
+        {
+            out.close();
+        }
+
+        System.out.println("Compressed " + compressed + " images into " + outputDir);
+    }
+
+    private static void compress(File image, File output)
+    {
+        Pixmap pixmap = new Pixmap(new FileHandle(image));
+
+        // the encoder reads RGB888 or RGB565 only; ETC1 has no alpha, which is dropped
+        if (pixmap.getFormat() != Pixmap.Format.RGB888 && pixmap.getFormat() != Pixmap.Format.RGB565)
+        {
+            Pixmap rgb = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), Pixmap.Format.RGB888);
+            rgb.setBlending(Pixmap.Blending.None);
+            rgb.drawPixmap(pixmap, 0, 0);
+            pixmap.dispose();
+            pixmap = rgb;
+        }
+
+        ETC1.ETC1Data data = ETC1.encodeImagePKM(pixmap);
+        data.write(new FileHandle(output));
+
+        data.dispose();
+        pixmap.dispose();
+    }
+
+    // file an image is compressed into, below the output directory; AssetRegistry looks for the same name
+    private static String compressedName(String image)
+    {
+        int dot = image.lastIndexOf('.');
+        return ((dot < 0) ? image : image.substring(0, dot)) + ".etc1";
+    }
+}
@@ -0,0 +1,153 @@
+package com.ktgames.starfishcollectorremastered.tools;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.ktgames.starfishcollectorremastered.BaseActor;
+import com.ktgames.starfishcollectorremastered.ChunkedWorld;
+import com.ktgames.starfishcollectorremastered.CircleCollider;
+import com.ktgames.starfishcollectorremastered.LevelLoader;
+import com.ktgames.starfishcollectorremastered.TestStages;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+// Compiles level sources with LevelCompiler and loads the result with LevelLoader: the world size,
+// every actor's type, position and order, and each type's collision shape must come back as written.
+
+public class LevelRoundTripTest
+{
+    private static final String LEVEL =
+            "# test level\n"
+            + "world 1200 900\n"
+            + "shape Prop 64 64 8\n"
+            + "shape Ball 64 64 circle\n"
+            + "shape Crate 32 32 0\n"
+            + "shape Other 50 50 8   # made for another size than the actor has\n"
+            + "actor Prop 10 20\n"
+            + "actor Ball 300 400\n"
+            + "actor Crate 500.5 600.25\n"
+            + "actor Other 0 0\n"
+            + "actor Prop 1100 800\n";
+
+    private Stage stage;
+    private LevelLoader loader;
+
+    // actors of one size, with the polygon their constructor makes
+    private static class Prop extends BaseActor
+    {
+        Prop(float x, float y, Stage stage, float size)
+        {
+            super(x, y, stage);
+            this.setSize(size, size);
+            this.setBoundaryPolygon(6);
+        }
+    }
+
+    @Before
+    public void setUp()
+    {
+        this.stage = TestStages.createStage();
+
+        this.loader = new LevelLoader();
+        this.register("Prop", 64);
+        this.register("Ball", 64);
+        this.register("Crate", 32);
+        this.register("Other", 64);
+    }
+
+    private void register(String typeName, final float size)
+    {
+        this.loader.register(typeName, new LevelLoader.Factory()
+        {
+            @Override
+            public BaseActor create(float x, float y, Stage stage)
+            {
+                return new Prop(x, y, stage, size);
+            }
+        });
+    }
+
+    @Test
+    public void loadsWhatWasCompiled()
+    {
+        byte[] compiled = LevelCompiler.compile(LEVEL, "test.txt");
+
+        assertEquals(5, this.loader.load(compiled, this.stage));
+        assertEquals(1200, BaseActor.getWorldBounds().width, 0);
+        assertEquals(900, BaseActor.getWorldBounds().height, 0);
+
+        // created in the order listed
+        Array<Actor> actors = this.stage.getActors();
+        assertEquals(5, actors.size);
+        float[] positions = {10, 20, 300, 400, 500.5f, 600.25f, 0, 0, 1100, 800};
+        for (int i = 0; i < actors.size; i++)
+        {
+            assertEquals("x of actor " + i, positions[2 * i], actors.get(i).getX(), 0);
+            assertEquals("y of actor " + i, positions[2 * i + 1], actors.get(i).getY(), 0);
+        }
+
+        BaseActor prop = (BaseActor)actors.get(0);
+        BaseActor ball = (BaseActor)actors.get(1);
+        BaseActor crate = (BaseActor)actors.get(2);
+        BaseActor other = (BaseActor)actors.get(3);
+
+        // the level's octagon replaces the constructor's hexagon
+        assertNull(prop.getCollider());
+        assertArrayEquals(BaseActor.ellipseVertices(64, 64, 8), prop.getBoundaryPolygon().getVertices(), 0);
+
+        // a circle fitted to the actor
+        assertTrue(ball.getCollider() instanceof CircleCollider);
+
+        // 0 sides: the rectangle
+        assertArrayEquals(new float[] {0,0, 32,0, 32,32, 0,32}, crate.getBoundaryPolygon().getVertices(), 0);
+
+        // a polygon made for another size is ignored, so the actor keeps its own
+        assertArrayEquals(BaseActor.ellipseVertices(64, 64, 6), other.getBoundaryPolygon().getVertices(), 0);
+
+        // actors of a type share its polygon, decoded once
+        assertSame(prop.getBoundaryPolygon().getVertices(),
+                ((BaseActor)actors.get(4)).getBoundaryPolygon().getVertices());
+    }
+
+    @Test
+    public void streamedLevelsCreateKeptTypesAtOnce()
+    {
+        String source = "world 2000 2000\n"
+                + "chunks 500\n"
+                + "keep Ball\n"
+                + "actor Prop 1800 1800\n"
+                + "actor Ball 20 20\n"
+                + "actor Prop 1900 100\n";
+
+        assertEquals(3, this.loader.load(LevelCompiler.compile(source, "streamed.txt"), this.stage));
+
+        // the props wait in the world for their chunks; the kept ball is on the stage already
+        Array<Actor> actors = this.stage.getActors();
+        assertEquals(2, actors.size);
+        assertTrue(actors.get(0) instanceof ChunkedWorld);
+        assertEquals(20, actors.get(1).getX(), 0);
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void rejectsUnknownStatements()
+    {
+        LevelCompiler.compile("world 100 100\nactors Prop 0 0\n", "typo.txt");
+    }
+
+    @Test(expected = GdxRuntimeException.class)
+    public void rejectsOtherVersions()
+    {
+        byte[] compiled = LevelCompiler.compile(LEVEL, "test.txt");
+        // the version follows the 4-byte magic number
+        compiled[5]++;
+        this.loader.load(compiled, this.stage);
+    }
+}